@@ -45,6 +45,7 @@ import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.parser.ChangeLogParserFactory;
 import liquibase.resource.ResourceAccessor;
+import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.statement.core.RawSqlStatement;
 import liquibase.statement.core.UpdateStatement;
 import liquibase.util.LiquibaseUtil;
@@ -123,16 +124,22 @@ public class Liquibase {
 
         changeLogParameters.setContexts(StringUtils.splitAndTrim(contexts, ","));
 
+        boolean snapshotCacheStarted = false;
         try {
             DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor).parse(changeLogFile, changeLogParameters, resourceAccessor);
 
             checkDatabaseChangeLogTable(true, changeLog, contexts);
+            snapshotCacheStarted = SnapshotGeneratorFactory.getInstance().startSnapshotCache(database);
+            cachePreconditionSnapshots(changeLog, getStandardChangelogIterator(contexts, changeLog));
 
             changeLog.validate(database, contexts);
             ChangeLogIterator changeLogIterator = getStandardChangelogIterator(contexts, changeLog);
 
             changeLogIterator.run(new UpdateVisitor(database), database);
         } finally {
+            if (snapshotCacheStarted) {
+                SnapshotGeneratorFactory.getInstance().stopSnapshotCache(database);
+            }
             try {
                 lockService.releaseLock();
             } catch (LockException e) {
@@ -141,6 +148,18 @@ public class Liquibase {
         }
     }
 
+    /**
+     * Reads the objects checked for by the preconditions of the changeSets the iterator would run into the snapshot cache with a few bulk queries,
+     * rather than each precondition querying the database when its changeSet is run.
+     */
+    private void cachePreconditionSnapshots(DatabaseChangeLog changeLog, ChangeLogIterator changeLogIterator) throws LiquibaseException {
+        PreconditionExamplesVisitor visitor = new PreconditionExamplesVisitor();
+        visitor.addPrecondition(changeLog.getPreconditions());
+        changeLogIterator.run(visitor, database);
+
+        SnapshotGeneratorFactory.getInstance().cacheSnapshots(visitor.getExamples(), database);
+    }
+
     private ChangeLogIterator getStandardChangelogIterator(String contexts, DatabaseChangeLog changeLog) throws DatabaseException {
         return new ChangeLogIterator(changeLog,
                 new ShouldRunChangeSetFilter(database),
@@ -182,11 +201,18 @@ public class Liquibase {
         LockService lockService = getLockService();
         lockService.waitForLock();
 
+        boolean snapshotCacheStarted = false;
         try {
 
             DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor).parse(changeLogFile, changeLogParameters, resourceAccessor);
 
             checkDatabaseChangeLogTable(true, changeLog, contexts);
+            snapshotCacheStarted = SnapshotGeneratorFactory.getInstance().startSnapshotCache(database);
+            cachePreconditionSnapshots(changeLog, new ChangeLogIterator(changeLog,
+                    new ShouldRunChangeSetFilter(database),
+                    new ContextChangeSetFilter(contexts),
+                    new DbmsChangeSetFilter(database),
+                    new CountChangeSetFilter(changesToApply)));
             changeLog.validate(database, contexts);
 
             ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
@@ -197,6 +223,9 @@ public class Liquibase {
 
             logIterator.run(new UpdateVisitor(database), database);
         } finally {
+            if (snapshotCacheStarted) {
+                SnapshotGeneratorFactory.getInstance().stopSnapshotCache(database);
+            }
             lockService.releaseLock();
         }
     }
@@ -509,7 +538,7 @@ public class Liquibase {
                         new DbmsChangeSetFilter(database),
                         new ChangeSetFilter() {
                             public boolean accepts(ChangeSet changeSet) {
-                                return listVisitor.getSeenChangeSets().contains(changeSet);
+                                return listVisitor.hasSeen(changeSet);
                             }
                         });
             }
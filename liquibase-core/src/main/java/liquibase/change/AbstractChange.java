@@ -7,14 +7,16 @@ import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
 import liquibase.structure.DatabaseObject;
 import liquibase.exception.*;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
 import liquibase.resource.ResourceAccessor;
 import liquibase.serializer.core.string.StringChangeLogSerializer;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.SqlStatement;
 import liquibase.util.StringUtils;
 
-import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
 
 /**
@@ -26,14 +28,29 @@ import java.lang.reflect.Method;
  */
 public abstract class AbstractChange implements Change {
 
+    /**
+     * ChangeMetaData only depends on the class, so it is created once per class and shared by all instances.
+     * Weakly keyed, like the property descriptors in {@link ChangeParameterMetaData}, so the classes can still be unloaded.
+     */
+    private static final Map<Class<?>, ChangeMetaData> changeMetaDataRegistry = Collections.synchronizedMap(new WeakHashMap<Class<?>, ChangeMetaData>());
+
     private ChangeMetaData changeMetaData;
 
     private ResourceAccessor resourceAccessor;
 
     private ChangeSet changeSet;
 
+    private Database cachedStatementsDatabase;
+    private Executor cachedStatementsExecutor;
+    private SoftReference<SqlStatement[]> cachedStatements;
+
     public AbstractChange() {
-        this.changeMetaData = createChangeMetaData();
+        ChangeMetaData metaData = changeMetaDataRegistry.get(getClass());
+        if (metaData == null) {
+            metaData = createChangeMetaData();
+            changeMetaDataRegistry.put(getClass(), metaData);
+        }
+        this.changeMetaData = metaData;
     }
 
     /**
@@ -46,6 +63,7 @@ public abstract class AbstractChange implements Change {
     /**
      * Generate the ChangeMetaData for this class. Default implementation reads from the @{@link DatabaseChange } annotation.
      * Override to add more or different information to the ChangeMetaData returned by {@link #getChangeMetaData()}.
+     * Called once per class, the result is shared by all instances so it must not depend on the state of this instance.
      */
     protected ChangeMetaData createChangeMetaData() {
         try {
@@ -56,7 +74,7 @@ public abstract class AbstractChange implements Change {
             }
 
             Map<String, ChangeParameterMetaData> params = new HashMap<String, ChangeParameterMetaData>();
-            for (PropertyDescriptor property : Introspector.getBeanInfo(this.getClass()).getPropertyDescriptors()) {
+            for (PropertyDescriptor property : ChangeParameterMetaData.getPropertyDescriptors(this.getClass()).values()) {
                 Method readMethod = property.getReadMethod();
                 Method writeMethod = property.getWriteMethod();
                 if (readMethod == null) {
@@ -100,13 +118,7 @@ public abstract class AbstractChange implements Change {
         String displayName = parameterName.replaceAll("([A-Z])", " $1");
         displayName = displayName.substring(0, 1).toUpperCase() + displayName.substring(1);
 
-        PropertyDescriptor property = null;
-        for (PropertyDescriptor prop : Introspector.getBeanInfo(this.getClass()).getPropertyDescriptors()) {
-            if (prop.getDisplayName().equals(parameterName)) {
-                property = prop;
-                break;
-            }
-        }
+        PropertyDescriptor property = ChangeParameterMetaData.getPropertyDescriptors(this.getClass()).get(parameterName);
         if (property == null) {
             throw new UnexpectedLiquibaseException("Could not find property " + parameterName);
         }
@@ -157,6 +169,60 @@ public abstract class AbstractChange implements Change {
      */
     public void setChangeSet(ChangeSet changeSet) {
         this.changeSet = changeSet;
+        clearStatementCache();
+    }
+
+    /**
+     * Returns the same statements as {@link #generateStatements(Database)}, but reuses the statements already generated for the database
+     * when they cannot have changed since, for changes whose generation is expensive, such as reading a data file.
+     * Executing, outputting and validating the change use this method.
+     * <p></p>
+     * Implementation calls {@link #generateStatements(Database)} unless {@link #cachesStatements()} returns true.
+     * Changes that cache their statements generate them the first time they are asked for with a given database and executor, since the executor can change what is generated.
+     * The statements are held with a soft reference, so they are generated again rather than kept if memory runs low,
+     * and they are not kept at all if {@link #generateStatementsVolatile(Database)} returns true.
+     */
+    public SqlStatement[] generateStatementsCached(Database database) throws UnsupportedChangeException {
+        if (database == null || !cachesStatements()) {
+            return generateStatements(database);
+        }
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        if (cachedStatements != null && cachedStatementsDatabase == database && cachedStatementsExecutor == executor) {
+            SqlStatement[] statements = cachedStatements.get();
+            if (statements != null) {
+                return statements;
+            }
+        }
+
+        SqlStatement[] statements = generateStatements(database);
+        cachedStatementsDatabase = database;
+        cachedStatementsExecutor = executor;
+        cachedStatements = new SoftReference<SqlStatement[]>(statements);
+        if (generateStatementsVolatile(database)) {
+            clearStatementCache();
+        }
+        return statements;
+    }
+
+    /**
+     * Returns true if {@link #generateStatementsCached(Database)} keeps the generated statements. Default implementation returns false.
+     * Changes that return true must call {@link #clearStatementCache()} from every setter that affects the generated statements.
+     */
+    protected boolean cachesStatements() {
+        return false;
+    }
+
+    /**
+     * Discards the statements kept by {@link #generateStatementsCached(Database)} and the checksum kept by the changeSet.
+     * Must be called if the change is reconfigured after its statements or its changeSet's checksum have been generated.
+     */
+    public void clearStatementCache() {
+        cachedStatementsDatabase = null;
+        cachedStatementsExecutor = null;
+        cachedStatements = null;
+        if (changeSet != null) {
+            changeSet.clearCheckSum();
+        }
     }
 
     /**
@@ -167,7 +233,7 @@ public abstract class AbstractChange implements Change {
     public boolean generateStatementsVolatile(Database database) {
         SqlStatement[] statements;
         try {
-            statements = generateStatements(database);
+            statements = generateStatementsCached(database);
         } catch (UnsupportedChangeException e) {
             return false;
         }
@@ -190,7 +256,7 @@ public abstract class AbstractChange implements Change {
     public boolean generateRollbackStatementsVolatile(Database database) {
         SqlStatement[] statements;
         try {
-            statements = generateStatements(database);
+            statements = generateStatementsCached(database);
         } catch (UnsupportedChangeException e) {
             return false;
         }
@@ -211,7 +277,7 @@ public abstract class AbstractChange implements Change {
      */
     public boolean supports(Database database) {
         try {
-            SqlStatement[] statements = generateStatements(database);
+            SqlStatement[] statements = generateStatementsCached(database);
             if (statements == null) {
                 return true;
             }
@@ -235,7 +301,7 @@ public abstract class AbstractChange implements Change {
         Warnings warnings = new Warnings();
         SqlStatement[] statements;
         try {
-            statements = generateStatements(database);
+            statements = generateStatementsCached(database);
         } catch (UnsupportedChangeException e) {
             return warnings;
         }
@@ -275,7 +341,7 @@ public abstract class AbstractChange implements Change {
         boolean sawUnsupportedError = false;
         try {
             SqlStatement[] statements;
-            statements = generateStatements(database);
+            statements = generateStatementsCached(database);
             if (statements != null) {
                 for (SqlStatement statement : statements) {
                     boolean supported = SqlGeneratorFactory.getInstance().supports(statement, database);
@@ -362,6 +428,7 @@ public abstract class AbstractChange implements Change {
      */
     public void setResourceAccessor(ResourceAccessor resourceAccessor) {
         this.resourceAccessor = resourceAccessor;
+        clearStatementCache();
     }
 
     /**
@@ -380,7 +447,7 @@ public abstract class AbstractChange implements Change {
         Set<DatabaseObject> affectedObjects = new HashSet<DatabaseObject>();
         SqlStatement[] statements;
         try {
-            statements = generateStatements(database);
+            statements = generateStatementsCached(database);
         } catch (UnsupportedChangeException e) {
             return affectedObjects;
         }
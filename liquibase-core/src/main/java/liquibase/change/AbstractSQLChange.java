@@ -2,9 +2,12 @@ package liquibase.change;
 
 import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
 import liquibase.exception.DatabaseException;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.RawSqlStatement;
+import liquibase.util.MD5Writer;
+import liquibase.util.SqlStatementSplitter;
 import liquibase.util.StringUtils;
 
 import java.util.*;
@@ -27,6 +30,14 @@ public abstract class AbstractSQLChange extends AbstractChange {
         setSplitStatements(null);
     }
 
+    /**
+     * Splitting the SQL into statements can be expensive for large scripts, so the statements are generated once per run.
+     */
+    @Override
+    protected boolean cachesStatements() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      * @param database
@@ -57,6 +68,7 @@ public abstract class AbstractSQLChange extends AbstractChange {
         } else {
             this.stripComments = stripComments;
         }
+        clearStatementCache();
     }
 
     /**
@@ -79,6 +91,7 @@ public abstract class AbstractSQLChange extends AbstractChange {
         } else {
             this.splitStatements = splitStatements;
         }
+        clearStatementCache();
     }
 
     /**
@@ -94,6 +107,7 @@ public abstract class AbstractSQLChange extends AbstractChange {
      */
     public void setSql(String sql) {
        this.sql = StringUtils.trimToNull(sql);
+       clearStatementCache();
     }
 
     /**
@@ -111,6 +125,7 @@ public abstract class AbstractSQLChange extends AbstractChange {
      */
     public void setEndDelimiter(String endDelimiter) {
         this.endDelimiter = endDelimiter;
+        clearStatementCache();
     }
 
     /**
@@ -124,10 +139,33 @@ public abstract class AbstractSQLChange extends AbstractChange {
         if (sql == null) {
             sql = "";
         }
-        return CheckSum.compute(this.getEndDelimiter()+":"+
+        MD5Writer writer = createCheckSumWriter();
+
+        //normalize line endings as they are written rather than copying the sql
+        int start = 0;
+        int carriageReturn;
+        while ((carriageReturn = sql.indexOf('\r', start)) >= 0) {
+            writer.write(sql, start, carriageReturn - start);
+            writer.write('\n');
+            start = carriageReturn + 1;
+            if (start < sql.length() && sql.charAt(start) == '\n') {
+                start++;
+            }
+        }
+        writer.write(sql, start, sql.length() - start);
+        return CheckSum.compute(writer);
+    }
+
+    /**
+     * Returns a writer for the checksum with the settings that affect how the SQL is run already written.
+     * The trimmed SQL, with line endings normalized to \n, is written after them.
+     */
+    protected MD5Writer createCheckSumWriter() {
+        MD5Writer writer = new MD5Writer();
+        writer.write(this.getEndDelimiter()+":"+
                 this.isSplitStatements()+":"+
-                this.isStripComments()+":"+
-                normalizeLineEndings(sql)); //normalize line endings
+                this.isStripComments()+":");
+        return writer;
     }
 
 
@@ -146,29 +184,38 @@ public abstract class AbstractSQLChange extends AbstractChange {
             return new SqlStatement[0];
         }
 
-        String processedSQL = normalizeLineEndings(sql);
-        for (String statement : StringUtils.processMutliLineSQL(processedSQL, isStripComments(), isSplitStatements(), getEndDelimiter())) {
-            if (database instanceof MSSQLDatabase) {
-                 statement = statement.replaceAll("\n", "\r\n");
-             }
-
-            String escapedStatement = statement;
-			try {
-                if (database.getConnection() != null) {
-                    escapedStatement = database.getConnection().nativeSQL(statement);
-                }
-            } catch (DatabaseException e) {
-				escapedStatement = statement;
-			}
-
-            returnStatements.add(new RawSqlStatement(escapedStatement, getEndDelimiter()));
+        for (String statement : SqlStatementSplitter.split(sql, isStripComments(), isSplitStatements(), getEndDelimiter(), isBackslashEscaped(database))) {
+            returnStatements.add(new RawSqlStatement(toNativeSql(statement, database), getEndDelimiter()));
         }
 
         return returnStatements.toArray(new SqlStatement[returnStatements.size()]);
     }
 
-    private String normalizeLineEndings(String string) {
-        return string.replaceAll("\r\n", "\n").replaceAll("\r", "\n");
+    /**
+     * Returns true if a backslash inside quoted text escapes the next character on the given database, which is the case for MySQL.
+     */
+    protected boolean isBackslashEscaped(Database database) {
+        return database instanceof MySQLDatabase;
+    }
+
+    /**
+     * Returns a split statement as it is sent to the database: with \r\n line endings for MSSQL,
+     * and passed through the {@link java.sql.Connection#nativeSQL} method if a connection is available.
+     */
+    protected String toNativeSql(String statement, Database database) {
+        if (database instanceof MSSQLDatabase) {
+             statement = statement.replaceAll("\n", "\r\n");
+         }
+
+        String escapedStatement = statement;
+		try {
+            if (database.getConnection() != null) {
+                escapedStatement = database.getConnection().nativeSQL(statement);
+            }
+        } catch (DatabaseException e) {
+			escapedStatement = statement;
+		}
+        return escapedStatement;
     }
 
 //    @Override
@@ -19,6 +19,8 @@ public class ChangeFactory {
 
     private Map<String, SortedSet<Class<? extends Change>>> registry = new ConcurrentHashMap<String, SortedSet<Class<? extends Change>>>();
 
+    private Map<Class<? extends Change>, Integer> priorities = new ConcurrentHashMap<Class<? extends Change>, Integer>();
+
     private ChangeFactory() {
         Class<? extends Change>[] classes;
         classes = ServiceLocator.getInstance().findClasses(Change.class);
@@ -53,15 +55,13 @@ public class ChangeFactory {
      */
     public void register(Class<? extends Change> changeClass) {
         try {
-            String name = changeClass.newInstance().getChangeMetaData().getName();
+            ChangeMetaData changeMetaData = changeClass.newInstance().getChangeMetaData();
+            String name = changeMetaData.getName();
+            priorities.put(changeClass, changeMetaData.getPriority());
             if (registry.get(name) == null) {
                 registry.put(name, new TreeSet<Class<? extends Change>>(new Comparator<Class<? extends Change>>() {
                     public int compare(Class<? extends Change> o1, Class<? extends Change> o2) {
-                        try {
-                            return -1 * new Integer(o1.newInstance().getChangeMetaData().getPriority()).compareTo(o2.newInstance().getChangeMetaData().getPriority());
-                        } catch (Exception e) {
-                            throw new UnexpectedLiquibaseException(e);
-                        }
+                        return -1 * priorities.get(o1).compareTo(priorities.get(o2));
                     }
                 }));
             }
@@ -92,6 +92,7 @@ public class ChangeFactory {
      */
     public void clear() {
         registry.clear();
+        priorities.clear();
     }
 
     /**
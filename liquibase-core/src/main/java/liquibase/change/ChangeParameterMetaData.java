@@ -7,6 +7,7 @@ import liquibase.statement.DatabaseFunction;
 import liquibase.statement.SequenceNextValueFunction;
 import liquibase.util.StringUtils;
 
+import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
@@ -18,6 +19,12 @@ import java.util.*;
  * Instances of this class are tracked within {@link ChangeMetaData} and are immutable.
  */
 public class ChangeParameterMetaData {
+
+    /**
+     * Weakly keyed so the classes of Changes loaded by a class loader that goes away, such as an extension's, can still be unloaded.
+     */
+    private static final Map<Class<?>, Map<String, PropertyDescriptor>> propertyDescriptorCache = Collections.synchronizedMap(new WeakHashMap<Class<?>, Map<String, PropertyDescriptor>>());
+
     private String parameterName;
     private String description;
     private String exampleValue;
@@ -102,14 +109,13 @@ public class ChangeParameterMetaData {
      */
     public Object getCurrentValue(Change change) {
         try {
-            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(change.getClass()).getPropertyDescriptors()) {
-                if (descriptor.getDisplayName().equals(this.parameterName)) {
-                    Method readMethod = descriptor.getReadMethod();
-                    if (readMethod == null) {
-                        readMethod  = change.getClass().getMethod("is"+StringUtils.upperCaseFirst(descriptor.getName()));
-                    }
-                    return readMethod.invoke(change);
+            PropertyDescriptor descriptor = getPropertyDescriptors(change.getClass()).get(this.parameterName);
+            if (descriptor != null) {
+                Method readMethod = descriptor.getReadMethod();
+                if (readMethod == null) {
+                    readMethod  = change.getClass().getMethod("is"+StringUtils.upperCaseFirst(descriptor.getName()));
                 }
+                return readMethod.invoke(change);
             }
             throw new RuntimeException("Could not find readMethod for "+this.parameterName);
         } catch (Exception e) {
@@ -134,14 +140,13 @@ public class ChangeParameterMetaData {
         }
 
         try {
-            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(change.getClass()).getPropertyDescriptors()) {
-                if (descriptor.getDisplayName().equals(this.parameterName)) {
-                    Method writeMethod = descriptor.getWriteMethod();
-                    if (writeMethod == null) {
-                        throw new UnexpectedLiquibaseException("Could not find writeMethod for "+this.parameterName);
-                    }
-                    writeMethod.invoke(change, value);
+            PropertyDescriptor descriptor = getPropertyDescriptors(change.getClass()).get(this.parameterName);
+            if (descriptor != null) {
+                Method writeMethod = descriptor.getWriteMethod();
+                if (writeMethod == null) {
+                    throw new UnexpectedLiquibaseException("Could not find writeMethod for "+this.parameterName);
                 }
+                writeMethod.invoke(change, value);
             }
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException("Error setting "+this.parameterName+" to "+value, e);
@@ -218,4 +223,21 @@ public class ChangeParameterMetaData {
         return standardDescriptions.get(parameterName);
 
     }
+
+    /**
+     * Returns the bean properties of the given class keyed by display name.
+     * The introspection is done once per class since it is needed for every parameter of every Change read or written.
+     */
+    static Map<String, PropertyDescriptor> getPropertyDescriptors(Class<?> type) throws IntrospectionException {
+        Map<String, PropertyDescriptor> descriptors = propertyDescriptorCache.get(type);
+        if (descriptors == null) {
+            descriptors = new LinkedHashMap<String, PropertyDescriptor>();
+            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+                descriptors.put(descriptor.getDisplayName(), descriptor);
+            }
+            descriptors = Collections.unmodifiableMap(descriptors);
+            propertyDescriptorCache.put(type, descriptors);
+        }
+        return descriptors;
+    }
 }
@@ -1,6 +1,7 @@
 package liquibase.change;
 
 import liquibase.util.MD5Util;
+import liquibase.util.MD5Writer;
 
 import java.io.InputStream;
 
@@ -49,6 +50,14 @@ public class CheckSum {
         return new CheckSum(MD5Util.computeMD5(valueToChecksum), getCurrentVersion());
     }
 
+    /**
+     * Compute a checksum of the text written to the given writer.
+     * Equivalent to {@link #compute(String)} of the concatenated text, for text too large to build as a single string.
+     */
+    public static CheckSum compute(MD5Writer writer) {
+        return new CheckSum(writer.getMD5(), getCurrentVersion());
+    }
+
     /**
      * Compute a checksum of the given data stream.
      */
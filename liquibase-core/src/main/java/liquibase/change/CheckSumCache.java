@@ -0,0 +1,230 @@
+package liquibase.change;
+
+import liquibase.logging.LogFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.CompositeResourceAccessor;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Optional on-disk cache of the checksums of resource files, such as loadData CSV files, so unchanged files are not re-read on every run.
+ * Entries are keyed by the absolute path, size and last modified time of the file, so a change to the file is a cache miss
+ * as long as it changes the size or the last modified time. The file contents are not hashed to check an entry, since reading them is what the cache avoids.
+ * A file written twice within the granularity of its file system's timestamps keeps the same last modified time, so files modified less than
+ * {@link #MODIFICATION_TIME_GRANULARITY} milliseconds before they are read are not cached. Tools that restore modification times can still defeat the cache.
+ * <p>
+ * The cache is enabled by setting the "liquibase.checkSumCacheFile" system property to the file the cache should be stored in.
+ * It is read when first used and written by {@link #write()}, which the shared instance calls when the JVM exits.
+ * Resources that are not plain files (such as files inside jars) are never cached.
+ */
+public class CheckSumCache {
+
+    public static final String CACHE_FILE_PROPERTY = "liquibase.checkSumCacheFile";
+
+    /**
+     * Coarsest file modification time resolution expected, which is that of FAT file systems.
+     */
+    public static final long MODIFICATION_TIME_GRANULARITY = 2000;
+
+    private static CheckSumCache instance;
+    private static Thread writeOnExit;
+
+    private File cacheFile;
+    private Properties checkSums = new Properties();
+    private boolean modified;
+
+    /**
+     * Creates a cache stored in the given file. A null file creates a disabled cache that always computes the checksum.
+     */
+    public CheckSumCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+        if (cacheFile != null && cacheFile.exists()) {
+            InputStream stream = null;
+            try {
+                stream = new FileInputStream(cacheFile);
+                checkSums.load(stream);
+            } catch (IOException e) {
+                LogFactory.getLogger().warning("Cannot read checksum cache " + cacheFile.getAbsolutePath() + ": " + e.getMessage());
+                checkSums.clear();
+            } finally {
+                closeQuietly(stream);
+            }
+        }
+    }
+
+    public static synchronized CheckSumCache getInstance() {
+        if (instance == null) {
+            String cacheFile = System.getProperty(CACHE_FILE_PROPERTY);
+            instance = new CheckSumCache(cacheFile == null ? null : new File(cacheFile));
+            if (instance.isEnabled()) {
+                final CheckSumCache cache = instance;
+                writeOnExit = new Thread() {
+                    @Override
+                    public void run() {
+                        cache.write();
+                    }
+                };
+                Runtime.getRuntime().addShutdownHook(writeOnExit);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Writes the shared instance, if it was modified, and discards it so the next {@link #getInstance()} call reads the cache file again.
+     */
+    public static synchronized void reset() {
+        if (writeOnExit != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(writeOnExit);
+            } catch (IllegalStateException e) {
+                //already exiting, so the hook writes it
+            }
+            writeOnExit = null;
+        }
+        if (instance != null) {
+            instance.write();
+        }
+        instance = null;
+    }
+
+    public boolean isEnabled() {
+        return cacheFile != null;
+    }
+
+    /**
+     * Returns the checksum of the contents of the given resource, from the cache if the backing file is unchanged.
+     * Returns null if the resource cannot be found.
+     */
+    public CheckSum compute(ResourceAccessor resourceAccessor, String path) throws IOException {
+        File file = null;
+        String key = null;
+        if (isEnabled()) {
+            file = findFile(resourceAccessor, path);
+            if (file != null) {
+                key = createKey(file);
+                CheckSum cached = getCachedCheckSum(key);
+                if (cached != null) {
+                    return cached;
+                }
+                if (System.currentTimeMillis() - file.lastModified() < MODIFICATION_TIME_GRANULARITY) {
+                    key = null; //it could still be written again without changing its last modified time
+                }
+            }
+        }
+
+        InputStream stream = file == null ? resourceAccessor.getResourceAsStream(path) : new FileInputStream(file);
+        if (stream == null) {
+            return null;
+        }
+        CheckSum checkSum;
+        try {
+            checkSum = CheckSum.compute(stream);
+        } finally {
+            closeQuietly(stream);
+        }
+
+        if (key != null) {
+            putCheckSum(key, checkSum);
+        }
+        return checkSum;
+    }
+
+    private synchronized CheckSum getCachedCheckSum(String key) {
+        CheckSum checkSum = CheckSum.parse(checkSums.getProperty(key));
+        if (checkSum == null || checkSum.getVersion() != CheckSum.getCurrentVersion()) {
+            return null;
+        }
+        return checkSum;
+    }
+
+    private synchronized void putCheckSum(String key, CheckSum checkSum) {
+        checkSums.setProperty(key, checkSum.toString());
+        modified = true;
+    }
+
+    private String createKey(File file) {
+        return file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified();
+    }
+
+    /**
+     * Writes the cache file if checksums were added since it was read, dropping the entries of files that have since changed or been removed.
+     */
+    public synchronized void write() {
+        if (!isEnabled() || !modified) {
+            return;
+        }
+
+        Set<String> staleKeys = new HashSet<String>();
+        for (Object property : checkSums.keySet()) {
+            String key = (String) property;
+            int pathEnd = key.lastIndexOf('|', key.lastIndexOf('|') - 1);
+            if (pathEnd < 0 || !key.equals(createKey(new File(key.substring(0, pathEnd))))) {
+                staleKeys.add(key);
+            }
+        }
+        for (String key : staleKeys) {
+            checkSums.remove(key);
+        }
+
+        OutputStream stream = null;
+        try {
+            stream = new FileOutputStream(cacheFile);
+            checkSums.store(stream, "Liquibase checksum cache");
+            modified = false;
+        } catch (IOException e) {
+            LogFactory.getLogger().warning("Cannot write checksum cache " + cacheFile.getAbsolutePath() + ": " + e.getMessage());
+        } finally {
+            closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Returns the file the ResourceAccessor would read the given path from, or null if it does not read it from a plain file.
+     */
+    protected File findFile(ResourceAccessor resourceAccessor, String path) throws IOException {
+        if (resourceAccessor instanceof FileSystemResourceAccessor) {
+            return ((FileSystemResourceAccessor) resourceAccessor).getFile(path);
+        } else if (resourceAccessor instanceof ClassLoaderResourceAccessor) {
+            URL url = resourceAccessor.toClassLoader().getResource(path);
+            if (url == null || !"file".equals(url.getProtocol())) {
+                return null;
+            }
+            try {
+                return new File(url.toURI());
+            } catch (URISyntaxException e) {
+                return null;
+            }
+        } else if (resourceAccessor instanceof CompositeResourceAccessor) {
+            for (ResourceAccessor child : ((CompositeResourceAccessor) resourceAccessor).getResourceAccessors()) {
+                File file = findFile(child, path);
+                if (file != null) {
+                    return file;
+                }
+                InputStream stream = child.getResourceAsStream(path);
+                if (stream != null) { //the composite reads it from this accessor, but not from a plain file
+                    closeQuietly(stream);
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                //nothing to do
+            }
+        }
+    }
+}
@@ -2,21 +2,34 @@ package liquibase.change.core;
 
 import liquibase.change.*;
 import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.executor.ExecutorService;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.resource.ResourceAccessor;
+import liquibase.statement.BatchInsertExecutablePreparedStatement;
+import liquibase.statement.DatabaseFunction;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.InsertStatement;
 import liquibase.structure.core.Table;
 import liquibase.util.StringUtils;
 import liquibase.util.csv.CSVReader;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 
 @DatabaseChange(name="loadData", description = "Load Data", priority = ChangeMetaData.PRIORITY_DEFAULT, appliesTo = "table")
@@ -29,7 +42,13 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
     private String encoding = null;
     private String separator = liquibase.util.csv.opencsv.CSVReader.DEFAULT_SEPARATOR + "";
 	private String quotchar = liquibase.util.csv.opencsv.CSVReader.DEFAULT_QUOTE_CHARACTER + "";
+    private Integer batchSize;
+    private Integer commitInterval;
 
+    /**
+     * Checksum of the file, kept so it is only read once. Cleared when the file or resource accessor is changed.
+     */
+    private CheckSum checkSum;
 
     private List<LoadDataColumnConfig> columns = new ArrayList<LoadDataColumnConfig>();
 
@@ -40,6 +59,7 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
     public void setCatalogName(String catalogName) {
         this.catalogName = catalogName;
+        clearStatementCache();
     }
 
     @DatabaseChangeProperty(mustEqualExisting ="table.schema")
@@ -49,6 +69,7 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
     public void setSchemaName(String schemaName) {
         this.schemaName = schemaName;
+        clearStatementCache();
     }
 
     @DatabaseChangeProperty(requiredForDatabase = "all", mustEqualExisting = "table")
@@ -58,6 +79,7 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
     public void setTableName(String tableName) {
         this.tableName = tableName;
+        clearStatementCache();
     }
 
     @DatabaseChangeProperty(requiredForDatabase = "all")
@@ -67,6 +89,14 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
     public void setFile(String file) {
         this.file = file;
+        this.checkSum = null;
+        clearStatementCache();
+    }
+
+    @Override
+    public void setResourceAccessor(ResourceAccessor resourceAccessor) {
+        super.setResourceAccessor(resourceAccessor);
+        this.checkSum = null;
     }
 
     public String getEncoding() {
@@ -75,6 +105,7 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
     public void setEncoding(String encoding) {
         this.encoding = encoding;
+        clearStatementCache();
     }
 
     public String getSeparator() {
@@ -83,6 +114,7 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
 	public void setSeparator(String separator) {
 		this.separator = separator;
+		clearStatementCache();
 	}
 
 	public String getQuotchar() {
@@ -91,19 +123,69 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
 	public void setQuotchar(String quotchar) {
 		this.quotchar = quotchar;
+		clearStatementCache();
 	}
 
+    /**
+     * Number of rows to send to the database per JDBC batch. If set, rows are streamed from the file through a single
+     * prepared statement instead of being loaded into memory as individual insert statements.
+     */
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+        clearStatementCache();
+    }
+
+    /**
+     * Number of rows after which a batched load commits. Defaults to committing with the rest of the changeSet.
+     * Only used when batchSize is set, and only allowed in changeSets with runInTransaction="false":
+     * rows committed before a failure stay in the table while the changeSet is not marked as ran, so running it again inserts them again.
+     */
+    public Integer getCommitInterval() {
+        return commitInterval;
+    }
+
+    public void setCommitInterval(Integer commitInterval) {
+        this.commitInterval = commitInterval;
+        clearStatementCache();
+    }
+
 	public void addColumn(LoadDataColumnConfig column) {
       	columns.add(column);
+        clearStatementCache();
     }
 
     public List<LoadDataColumnConfig> getColumns() {
         return columns;
     }
 
+    /**
+     * Reading the data file can be expensive, so the statements are generated once per run.
+     */
+    @Override
+    protected boolean cachesStatements() {
+        return true;
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors validationErrors = super.validate(database);
+        if (getCommitInterval() != null && (getChangeSet() == null || getChangeSet().isRunInTransaction())) {
+            validationErrors.addError("commitInterval can only be used in changeSets with runInTransaction=\"false\"");
+        }
+        return validationErrors;
+    }
+
     public SqlStatement[] generateStatements(Database database) {
         CSVReader reader = null;
         try {
+            if (shouldBatchInserts(database)) {
+                return generateBatchStatements(database);
+            }
+
             reader = getCSVReader();
 
             String[] headers = reader.readNext();
@@ -118,53 +200,12 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
             while ((line = reader.readNext()) != null) {
                 lineNumber++;
 
-                if (line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)) {
+                if (isEmptyLine(line)) {
                     continue; //nothing on this line
                 }
                 InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
-                for (int i=0; i<headers.length; i++) {
-                    String columnName = null;
-                    if( i >= line.length ) {
-                      throw new UnexpectedLiquibaseException("CSV Line " + lineNumber + " has only " + (i-1) + " columns, the header has " + headers.length);
-                    }
-
-                    Object value = line[i];
-
-                    ColumnConfig columnConfig = getColumnConfig(i, headers[i]);
-                    if (columnConfig != null) {
-                        columnName = columnConfig.getName();
-
-                        if ("skip".equalsIgnoreCase(columnConfig.getType())) {
-                            continue;
-                        }
-
-                        if (value.toString().equalsIgnoreCase("NULL")) {
-                            value = "NULL";
-                        } else if (columnConfig.getType() != null) {
-                            ColumnConfig valueConfig = new ColumnConfig();
-                            if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
-                                valueConfig.setValueBoolean(Boolean.parseBoolean(value.toString().toLowerCase()));
-                            } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
-                                valueConfig.setValueNumeric(value.toString());
-                            } else if (columnConfig.getType().toLowerCase().contains("date") ||columnConfig.getType().toLowerCase().contains("time")) {
-                                valueConfig.setValueDate(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
-                                valueConfig.setValue(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
-                                valueConfig.setValue(value.toString());
-                            } else {
-                                throw new UnexpectedLiquibaseException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED or SKIP");
-                            }
-                            value = valueConfig.getValueObject();
-                        }
-                    }
-
-                    if (columnName == null) {
-                        columnName = headers[i];
-                    }
-
-
-                    insertStatement.addColumnValue(columnName, value);
+                for (Map.Entry<String, Object> columnValue : readRow(headers, line, lineNumber).entrySet()) {
+                    insertStatement.addColumnValue(columnValue.getKey(), columnValue.getValue());
                 }
                 statements.add(insertStatement);
             }
@@ -191,6 +232,156 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 		}
     }
 
+    /**
+     * Returns true if rows should be streamed from the file into a single batched prepared statement rather than
+     * generated as individual insert statements. Batching requires a batchSize, a live JDBC connection and values
+     * that can be bound as parameters.
+     */
+    protected boolean shouldBatchInserts(Database database) {
+        if (getBatchSize() == null || getBatchSize() < 1) {
+            return false;
+        }
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return false;
+        }
+        if (!ExecutorService.getInstance().getExecutor(database).updatesDatabase()) {
+            return false;
+        }
+        for (LoadDataColumnConfig column : columns) {
+            if ("COMPUTED".equalsIgnoreCase(column.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private SqlStatement[] generateBatchStatements(Database database) throws IOException {
+        String[] headers;
+        CSVReader reader = getCSVReader();
+        try {
+            headers = reader.readNext();
+        } finally {
+            reader.close();
+        }
+        if (headers == null) {
+            throw new UnexpectedLiquibaseException("Data file "+getFile()+" was empty");
+        }
+
+        List<ColumnConfig> columnConfigs = new ArrayList<ColumnConfig>();
+        for (String columnName : getColumnNames(headers)) {
+            columnConfigs.add(new ColumnConfig().setName(columnName));
+        }
+
+        Iterable<List<ColumnConfig>> rows = new Iterable<List<ColumnConfig>>() {
+            public Iterator<List<ColumnConfig>> iterator() {
+                return new CSVRowIterator();
+            }
+        };
+
+        return new SqlStatement[] {
+                new BatchInsertExecutablePreparedStatement(database, getCatalogName(), getSchemaName(), getTableName(), columnConfigs, rows, getBatchSize(), getCommitInterval())
+        };
+    }
+
+    private boolean isEmptyLine(String[] line) {
+        return line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null);
+    }
+
+    /**
+     * Returns the distinct column names the file's data is inserted into, in header order.
+     */
+    private Set<String> getColumnNames(String[] headers) {
+        Set<String> columnNames = new LinkedHashSet<String>();
+        for (int i=0; i<headers.length; i++) {
+            String columnName = null;
+            ColumnConfig columnConfig = getColumnConfig(i, headers[i]);
+            if (columnConfig != null) {
+                if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                    continue;
+                }
+                columnName = columnConfig.getName();
+            }
+            if (columnName == null) {
+                columnName = headers[i];
+            }
+            columnNames.add(columnName);
+        }
+        return columnNames;
+    }
+
+    /**
+     * Converts a line of the file to column values, keyed by column name in header order.
+     */
+    private Map<String, Object> readRow(String[] headers, String[] line, int lineNumber) {
+        Map<String, Object> row = new LinkedHashMap<String, Object>();
+        for (int i=0; i<headers.length; i++) {
+            String columnName = null;
+            if( i >= line.length ) {
+              throw new UnexpectedLiquibaseException("CSV Line " + lineNumber + " has only " + (i-1) + " columns, the header has " + headers.length);
+            }
+
+            Object value = line[i];
+
+            ColumnConfig columnConfig = getColumnConfig(i, headers[i]);
+            if (columnConfig != null) {
+                columnName = columnConfig.getName();
+
+                if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                    continue;
+                }
+
+                if (value.toString().equalsIgnoreCase("NULL")) {
+                    value = "NULL";
+                } else if (columnConfig.getType() != null) {
+                    ColumnConfig valueConfig = new ColumnConfig();
+                    if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
+                        valueConfig.setValueBoolean(Boolean.parseBoolean(value.toString().toLowerCase()));
+                    } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
+                        valueConfig.setValueNumeric(value.toString());
+                    } else if (columnConfig.getType().toLowerCase().contains("date") ||columnConfig.getType().toLowerCase().contains("time")) {
+                        valueConfig.setValueDate(value.toString());
+                    } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
+                        valueConfig.setValue(value.toString());
+                    } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
+                        valueConfig.setValue(value.toString());
+                    } else {
+                        throw new UnexpectedLiquibaseException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED or SKIP");
+                    }
+                    value = valueConfig.getValueObject();
+                }
+            }
+
+            if (columnName == null) {
+                columnName = headers[i];
+            }
+
+            row.put(columnName, value);
+        }
+        return row;
+    }
+
+    /**
+     * Creates the ColumnConfig used to bind a single value of a row to a batched prepared statement.
+     */
+    private ColumnConfig createValueConfig(String columnName, Object value) {
+        ColumnConfig valueConfig = new ColumnConfig();
+        valueConfig.setName(columnName);
+        if (value == null || value.toString().equalsIgnoreCase("NULL")) {
+            return valueConfig;
+        } else if (value instanceof Boolean) {
+            valueConfig.setValueBoolean((Boolean) value);
+        } else if (value instanceof Number) {
+            valueConfig.setValueNumeric((Number) value);
+        } else if (value instanceof Date) {
+            valueConfig.setValueDate((Date) value);
+        } else if (value instanceof DatabaseFunction) {
+            throw new UnexpectedLiquibaseException("Value "+value+" for column "+columnName+" cannot be bound as a parameter. Remove batchSize from loadData to insert it");
+        } else {
+            valueConfig.setValue(value.toString());
+        }
+        return valueConfig;
+    }
+
     protected CSVReader getCSVReader() throws IOException {
         ResourceAccessor opener = getResourceAccessor();
         if (opener == null) {
@@ -245,22 +436,91 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
     @Override
     public CheckSum generateCheckSum() {
-        InputStream stream = null;
+        if (checkSum != null) {
+            return checkSum;
+        }
         try {
-            stream = getResourceAccessor().getResourceAsStream(getFile());
-            if (stream == null) {
+            CheckSum checkSum = CheckSumCache.getInstance().compute(getResourceAccessor(), getFile());
+            if (checkSum == null) {
                 throw new RuntimeException(getFile() + " could not be found");
             }
-            return CheckSum.compute(stream);
+            this.checkSum = checkSum;
+            return checkSum;
         } catch (IOException e) {
             throw new RuntimeException(e);
-        } finally {
-            if (stream != null) {
+        }
+    }
+
+    /**
+     * Reads the data file one row at a time for batched inserts, closing it once all rows are read.
+     */
+    private class CSVRowIterator implements Iterator<List<ColumnConfig>>, Closeable {
+        private CSVReader reader;
+        private String[] headers;
+        private List<ColumnConfig> nextRow;
+        private int lineNumber = 0;
+
+        private CSVRowIterator() {
+            try {
+                reader = getCSVReader();
+                headers = reader.readNext();
+            } catch (IOException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+            if (headers == null) {
+                close();
+                throw new UnexpectedLiquibaseException("Data file "+getFile()+" was empty");
+            }
+            nextRow = readNextRow();
+        }
+
+        private List<ColumnConfig> readNextRow() {
+            try {
+                String[] line;
+                while ((line = reader.readNext()) != null) {
+                    lineNumber++;
+
+                    if (isEmptyLine(line)) {
+                        continue; //nothing on this line
+                    }
+                    List<ColumnConfig> row = new ArrayList<ColumnConfig>();
+                    for (Map.Entry<String, Object> columnValue : readRow(headers, line, lineNumber).entrySet()) {
+                        row.add(createValueConfig(columnValue.getKey(), columnValue.getValue()));
+                    }
+                    return row;
+                }
+            } catch (IOException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+            close();
+            return null;
+        }
+
+        public boolean hasNext() {
+            return nextRow != null;
+        }
+
+        public List<ColumnConfig> next() {
+            if (nextRow == null) {
+                throw new NoSuchElementException();
+            }
+            List<ColumnConfig> row = nextRow;
+            nextRow = readNextRow();
+            return row;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void close() {
+            if (reader != null) {
                 try {
-                    stream.close();
+                    reader.close();
                 } catch (IOException e) {
                     ;
                 }
+                reader = null;
             }
         }
     }
@@ -26,6 +26,7 @@ public class LoadUpdateDataChange extends LoadDataChange {
             throw new LiquibaseException("primaryKey cannot be null.");
         }
         this.primaryKey = primaryKey;
+        clearStatementCache();
     }
 
     @DatabaseChangeProperty(requiredForDatabase = "all")
@@ -33,6 +34,14 @@ public class LoadUpdateDataChange extends LoadDataChange {
         return primaryKey;
     }
 
+    /**
+     * Insert-or-update SQL is generated per database and row, so it cannot be bound to a single batched prepared statement.
+     */
+    @Override
+    protected boolean shouldBatchInserts(Database database) {
+        return false;
+    }
+
     @Override
     protected InsertStatement createStatement(String catalogName, String schemaName, String tableName) {
         return new InsertOrUpdateStatement(catalogName, schemaName, tableName, this.primaryKey);
@@ -1,16 +1,33 @@
 package liquibase.change.core;
 
+import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 import liquibase.change.*;
+import liquibase.changelog.ChangeLogParameters;
 import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.SetupException;
+import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.ValidationErrors;
 import liquibase.exception.Warnings;
+import liquibase.executor.ExecutorService;
 import liquibase.logging.LogFactory;
 import liquibase.resource.ResourceAccessor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.StreamingSqlExecutablePreparedStatement;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.util.MD5Writer;
+import liquibase.util.SqlStatementSplitter;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
 
@@ -29,6 +46,10 @@ public class SQLFileChange extends AbstractSQLChange {
     private String path;
     private String encoding = null;
     private Boolean relativeToChangelogFile;
+    private Boolean stream;
+    private Integer batchSize;
+
+    private CheckSum streamedCheckSum;
 
 
     @DatabaseChangeProperty(requiredForDatabase = "all")
@@ -43,6 +64,8 @@ public class SQLFileChange extends AbstractSQLChange {
      */
     public void setPath(String fileName) {
         path = fileName;
+        streamedCheckSum = null;
+        clearStatementCache();
     }
 
     /**
@@ -59,6 +82,8 @@ public class SQLFileChange extends AbstractSQLChange {
      */
     public void setEncoding(String encoding) {
         this.encoding = encoding;
+        streamedCheckSum = null;
+        clearStatementCache();
     }
 
 
@@ -68,6 +93,38 @@ public class SQLFileChange extends AbstractSQLChange {
 
     public void setRelativeToChangelogFile(Boolean relativeToChangelogFile) {
         this.relativeToChangelogFile = relativeToChangelogFile;
+        clearStatementCache();
+    }
+
+    /**
+     * If true, the file is not loaded into memory. Statements are read, split and executed one at a time.
+     * The file is still read twice when it runs: once for the checksum, which is needed before the changeSet runs
+     * for the changeSet comment and for comparing with a stored checksum, and once to execute it.
+     */
+    public Boolean isStream() {
+        return stream;
+    }
+
+    public void setStream(Boolean stream) {
+        this.stream = stream;
+        clearStatementCache();
+    }
+
+    /**
+     * Number of consecutive INSERT, UPDATE, DELETE and MERGE statements sent to the database in one JDBC batch when streaming.
+     * Statements are executed one at a time if null or 1.
+     */
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+        clearStatementCache();
+    }
+
+    private boolean isStreaming() {
+        return stream != null && stream;
     }
 
     @Override
@@ -76,6 +133,22 @@ public class SQLFileChange extends AbstractSQLChange {
             throw new SetupException("<sqlfile> - No path specified");
         }
         LogFactory.getLogger().debug("SQLFile file:" + path);
+        if (isStreaming()) {
+            streamedCheckSum = null;
+            InputStream in = null;
+            try {
+                in = openStream();
+            } catch (IOException e) {
+                throw new SetupException("<sqlfile path=" + path + "> -Unable to read file", e);
+            } finally {
+                closeQuietly(in);
+            }
+            if (in == null) {
+                throw new SetupException("<sqlfile path=" + path + "> - Could not find file");
+            }
+            return;
+        }
+
         boolean loaded = loadFromClasspath(path);
         if (!loaded) {
             loaded = loadFromFileSystem(path);
@@ -101,6 +174,75 @@ public class SQLFileChange extends AbstractSQLChange {
         return new Warnings();
     }
 
+    /**
+     * When streaming, the file is read through without splitting it to compute the checksum, unless it has already been computed
+     * while the statements were executed. The checksum is kept until the path or encoding changes, so the file is not read again for it.
+     * Either way it is the same checksum as when the file is loaded into memory.
+     */
+    @Override
+    public CheckSum generateCheckSum() {
+        if (!isStreaming()) {
+            return super.generateCheckSum();
+        }
+        if (streamedCheckSum == null) {
+            SqlFileReader reader = null;
+            try {
+                reader = openSqlFileReader();
+                if (reader == null) {
+                    return CheckSum.compute(createCheckSumWriter());
+                }
+                char[] buffer = new char[8192];
+                while (reader.read(buffer, 0, buffer.length) >= 0) {
+                    //read to the end for the checksum
+                }
+            } catch (IOException e) {
+                throw new UnexpectedLiquibaseException(e);
+            } finally {
+                closeQuietly(reader);
+            }
+        }
+        return streamedCheckSum;
+    }
+
+    /**
+     * When streaming against a live JDBC connection, returns a single statement that reads, splits and executes the file
+     * a statement at a time. The statements are generated up front when the SQL is only being output, or when modifySql
+     * needs to be applied to each of them.
+     */
+    @Override
+    public SqlStatement[] generateStatements(final Database database) {
+        if (!isStreaming()) {
+            return super.generateStatements(database);
+        }
+
+        if (canExecuteStreaming(database)) {
+            return new SqlStatement[]{
+                    new StreamingSqlExecutablePreparedStatement(database, new Iterable<String>() {
+                        public Iterator<String> iterator() {
+                            return new StatementIterator(database);
+                        }
+                    }, getBatchSize())
+            };
+        }
+
+        List<SqlStatement> statements = new ArrayList<SqlStatement>();
+        StatementIterator iterator = new StatementIterator(database);
+        while (iterator.hasNext()) {
+            statements.add(new RawSqlStatement(iterator.next(), getEndDelimiter()));
+        }
+        return statements.toArray(new SqlStatement[statements.size()]);
+    }
+
+    private boolean canExecuteStreaming(Database database) {
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return false;
+        }
+        if (!ExecutorService.getInstance().getExecutor(database).updatesDatabase()) {
+            return false;
+        }
+        return getChangeSet() == null || getChangeSet().getSqlVisitors().size() == 0;
+    }
+
     /**
      * Tries to load the file from the file system.
      *
@@ -176,6 +318,54 @@ public class SQLFileChange extends AbstractSQLChange {
         }
     }
 
+    /**
+     * Opens the file, returning null if it cannot be found.
+     */
+    private InputStream openStream() throws IOException {
+        String file = path;
+        if (relativeToChangelogFile != null && relativeToChangelogFile) {
+            file = getChangeSet().getFilePath().replaceFirst("/[^/]*$", "") + "/" + file;
+        }
+
+        ResourceAccessor fo = getResourceAccessor();
+        if (fo == null) {
+            return null;
+        }
+        try {
+            return fo.getResourceAsStream(file);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    private SqlFileReader openSqlFileReader() throws IOException {
+        InputStream in = openStream();
+        if (in == null) {
+            return null;
+        }
+        ChangeLogParameters parameters = null;
+        if (getChangeSet() != null) {
+            parameters = getChangeSet().getChangeLogParameters();
+        }
+        Reader reader;
+        if (encoding == null) {
+            reader = new InputStreamReader(in);
+        } else {
+            reader = new InputStreamReader(in, encoding);
+        }
+        return new SqlFileReader(new BufferedReader(reader), parameters);
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ioe) {//NOPMD
+                // safe to ignore
+            }
+        }
+    }
+
     public String getConfirmationMessage() {
         return "SQL in file " + path + " executed";
     }
@@ -187,4 +377,148 @@ public class SQLFileChange extends AbstractSQLChange {
         }
         super.setSql(sql);
     }
+
+    /**
+     * Reads the file a line at a time, expanding changelog parameters in each line as {@link #setSql(String)} does,
+     * and writes the text read to the checksum with leading and trailing whitespace left out.
+     * Once the end of the file is reached the checksum is kept for {@link #generateCheckSum()}.
+     */
+    private class SqlFileReader extends Reader {
+
+        private BufferedReader lines;
+        private ChangeLogParameters parameters;
+        private MD5Writer checkSumWriter = createCheckSumWriter();
+        private StringBuilder pendingWhitespace = new StringBuilder();
+        private boolean started;
+
+        private String line;
+        private int linePosition;
+
+        private SqlFileReader(BufferedReader lines, ChangeLogParameters parameters) {
+            this.lines = lines;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            while (line == null || linePosition >= line.length()) {
+                if (lines == null) {
+                    return -1;
+                }
+                String next = lines.readLine();
+                if (next == null) {
+                    streamedCheckSum = CheckSum.compute(checkSumWriter);
+                    close();
+                    return -1;
+                }
+                if (parameters != null) {
+                    next = parameters.expandExpressions(next);
+                }
+                line = next + "\n";
+                linePosition = 0;
+                addToCheckSum(line);
+            }
+
+            int count = Math.min(len, line.length() - linePosition);
+            line.getChars(linePosition, linePosition + count, cbuf, off);
+            linePosition += count;
+            return count;
+        }
+
+        /**
+         * Whitespace is held back until more text follows it, so whitespace at the end of the file is never written.
+         */
+        private void addToCheckSum(String text) {
+            int runStart = -1;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) <= ' ') {
+                    if (runStart >= 0) {
+                        checkSumWriter.write(text, runStart, i - runStart);
+                        runStart = -1;
+                    }
+                    if (started) {
+                        pendingWhitespace.append(text.charAt(i));
+                    }
+                } else if (runStart < 0) {
+                    if (pendingWhitespace.length() > 0) {
+                        checkSumWriter.write(pendingWhitespace.toString());
+                        pendingWhitespace.setLength(0);
+                    }
+                    runStart = i;
+                    started = true;
+                }
+            }
+            if (runStart >= 0) {
+                checkSumWriter.write(text, runStart, text.length() - runStart);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (lines != null) {
+                lines.close();
+                lines = null;
+            }
+        }
+    }
+
+    /**
+     * Iterates over the statements in the file as they are split from it, closing the file once the last one is read.
+     */
+    private class StatementIterator implements Iterator<String>, Closeable {
+
+        private Database database;
+        private SqlFileReader reader;
+        private SqlStatementSplitter splitter;
+        private String nextStatement;
+
+        private StatementIterator(Database database) {
+            this.database = database;
+            try {
+                reader = openSqlFileReader();
+            } catch (IOException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+            if (reader == null) {
+                throw new UnexpectedLiquibaseException("<sqlfile path=" + path + "> - Could not find file");
+            }
+            splitter = new SqlStatementSplitter(reader, isStripComments(), isSplitStatements(), getEndDelimiter());
+            splitter.setBackslashEscapes(isBackslashEscaped(database));
+            nextStatement = readNextStatement();
+        }
+
+        private String readNextStatement() {
+            try {
+                String statement = splitter.nextStatement();
+                if (statement == null) {
+                    close();
+                    return null;
+                }
+                return toNativeSql(statement, database);
+            } catch (IOException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+        }
+
+        public boolean hasNext() {
+            return nextStatement != null;
+        }
+
+        public String next() {
+            if (nextStatement == null) {
+                throw new NoSuchElementException();
+            }
+            String statement = nextStatement;
+            nextStatement = readNextStatement();
+            return statement;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
 }
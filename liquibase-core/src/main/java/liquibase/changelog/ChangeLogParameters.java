@@ -4,10 +4,10 @@ import static liquibase.Liquibase.ENABLE_CHANGELOG_PROP_ESCAPING;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import liquibase.database.Database;
 import liquibase.util.StringUtils;
@@ -22,17 +22,20 @@ public class ChangeLogParameters {
 	}
 
     private List<ChangeLogParameter> changeLogParameters = new ArrayList<ChangeLogParameter>();
+    private Map<String, List<ChangeLogParameter>> changeLogParametersByKey = new HashMap<String, List<ChangeLogParameter>>();
+    private Map<String, ChangeLogParameter> validParameterCache = new HashMap<String, ChangeLogParameter>();
     private ExpressionExpander expressionExpander;
     private Database currentDatabase;
     private List<String> currentContexts;
+    private int copiedParameterCount = -1;
 
     public ChangeLogParameters() {
-        this(null);
+        this((Database) null);
     }
 
     public ChangeLogParameters(Database currentDatabase) {
         for (Map.Entry entry : System.getProperties().entrySet()) {
-            changeLogParameters.add(new ChangeLogParameter(entry.getKey().toString(), entry.getValue()));
+            addParameter(new ChangeLogParameter(entry.getKey().toString(), entry.getValue()));
         }
         
         this.expressionExpander = new ExpressionExpander(this, EnableEscaping);
@@ -40,8 +43,47 @@ public class ChangeLogParameters {
         this.currentContexts = new ArrayList<String>();
     }
 
+    private ChangeLogParameters(ChangeLogParameters original) {
+        for (ChangeLogParameter parameter : original.changeLogParameters) {
+            addParameter(new ChangeLogParameter(parameter.getKey(), parameter.getValue(), parameter.getValidContexts(), parameter.getValidDatabases()));
+        }
+
+        this.expressionExpander = new ExpressionExpander(this, original.expressionExpander.enableEscaping);
+        this.currentDatabase = original.currentDatabase;
+        this.currentContexts = new ArrayList<String>(original.currentContexts);
+        this.copiedParameterCount = changeLogParameters.size();
+    }
+
+    /**
+     * Returns a copy of these parameters, with the same contexts and database, that can be used on another thread.
+     * Parameters set on the copy are not seen by this object until they are added with {@link #addNewParameters(ChangeLogParameters)}.
+     */
+    public ChangeLogParameters copy() {
+        return new ChangeLogParameters(this);
+    }
+
+    /**
+     * Returns true if parameters have been set on this object since it was created by {@link #copy()}.
+     */
+    public boolean hasNewParameters() {
+        return copiedParameterCount >= 0 && changeLogParameters.size() > copiedParameterCount;
+    }
+
+    /**
+     * Sets the parameters that have been set on a copy from {@link #copy()} since it was created, in the order they were set on it.
+     */
+    public void addNewParameters(ChangeLogParameters copy) {
+        if (!copy.hasNewParameters()) {
+            return;
+        }
+        for (ChangeLogParameter parameter : copy.changeLogParameters.subList(copy.copiedParameterCount, copy.changeLogParameters.size())) {
+            addParameter(new ChangeLogParameter(parameter.getKey(), parameter.getValue(), parameter.getValidContexts(), parameter.getValidDatabases()));
+        }
+    }
+
     public void addContext(String context) {
         this.currentContexts.add(context);
+        validParameterCache.clear();
     }
 
     public void setContexts(Collection<String> contexts) {
@@ -49,14 +91,28 @@ public class ChangeLogParameters {
         if (contexts != null) {
             this.currentContexts.addAll(contexts);
         }
+        validParameterCache.clear();
     }
 
     public void set(String paramter, Object value) {
-        changeLogParameters.add(new ChangeLogParameter(paramter, value));
+        addParameter(new ChangeLogParameter(paramter, value));
     }
 
     public void set(String key, String value, String contexts, String databases) {
-        changeLogParameters.add(new ChangeLogParameter(key, value, contexts, databases));
+        addParameter(new ChangeLogParameter(key, value, contexts, databases));
+    }
+
+    private void addParameter(ChangeLogParameter parameter) {
+        changeLogParameters.add(parameter);
+
+        String indexKey = parameter.getKey().toLowerCase(Locale.ENGLISH);
+        List<ChangeLogParameter> parameters = changeLogParametersByKey.get(indexKey);
+        if (parameters == null) {
+            parameters = new ArrayList<ChangeLogParameter>(1);
+            changeLogParametersByKey.put(indexKey, parameters);
+        }
+        parameters.add(parameter);
+        validParameterCache.remove(indexKey);
     }
 
     /**
@@ -71,13 +127,31 @@ public class ChangeLogParameters {
         return parameter != null ? parameter.getValue() : null;
     }
 
+    /**
+     * Returns the first parameter set with the given key, ignoring case, that is valid for the current contexts and database.
+     * The result is cached until parameters or contexts change.
+     */
     private ChangeLogParameter findParameter(String key) {
-        for (ChangeLogParameter param : changeLogParameters) {
-            if (param.getKey().equalsIgnoreCase(key) && param.isValid()) {
-                return param;
+        if (key == null) {
+            return null;
+        }
+        String indexKey = key.toLowerCase(Locale.ENGLISH);
+        if (validParameterCache.containsKey(indexKey)) {
+            return validParameterCache.get(indexKey);
+        }
+
+        ChangeLogParameter found = null;
+        List<ChangeLogParameter> parameters = changeLogParametersByKey.get(indexKey);
+        if (parameters != null) {
+            for (ChangeLogParameter param : parameters) {
+                if (param.getKey().equalsIgnoreCase(key) && param.isValid()) {
+                    found = param;
+                    break;
+                }
             }
         }
-        return null;
+        validParameterCache.put(indexKey, found);
+        return found;
     }
 
     public boolean hasValue(String key) {
@@ -165,32 +239,60 @@ public class ChangeLogParameters {
             this.enableEscaping = enableEscaping;
         }
 
+        /**
+         * Replaces each ${name} in the text with the value of the parameter, leaving expressions without a value unchanged.
+         * If escaping is enabled, ${:name} is replaced with the literal ${name}.
+         * The text is scanned once, and is returned as-is if it contains no expressions.
+         */
         public String expandExpressions(String text) {
             if (text == null) {
                 return null;
             }
-            Pattern expressionPattern = Pattern.compile("(\\$\\{[^\\}]+\\})");
-            Matcher matcher = expressionPattern.matcher(text);
-            String originalText = text;
-            while (matcher.find()) {
-                String expressionString = originalText.substring(matcher.start(), matcher.end());
-                String valueTolookup = expressionString.replaceFirst("\\$\\{", "").replaceFirst("\\}$", "");
-
-                Object value = enableEscaping && valueTolookup.startsWith(":") 
-                		? null 
-                		: changeLogParameters.getValue(valueTolookup);
-
-                if (value != null) {
-                    text = text.replace(expressionString, value.toString());
+            int expressionStart = text.indexOf("${");
+            if (expressionStart < 0) {
+                return text;
+            }
+
+            StringBuilder builder = null;
+            int copiedTo = 0;
+            while (expressionStart >= 0) {
+                int expressionEnd = text.indexOf('}', expressionStart + 2);
+                if (expressionEnd < 0) {
+                    break;
                 }
+                if (expressionEnd == expressionStart + 2) { //empty ${}
+                    expressionStart = text.indexOf("${", expressionStart + 1);
+                    continue;
+                }
+
+                String valueTolookup = text.substring(expressionStart + 2, expressionEnd);
+                String replacement = null;
+                if (enableEscaping && valueTolookup.startsWith(":")) {
+                    if (valueTolookup.length() > 1) {
+                        // replace escaped expressions with its literal
+                        replacement = "${" + valueTolookup.substring(1) + "}";
+                    }
+                } else {
+                    Object value = changeLogParameters.getValue(valueTolookup);
+                    if (value != null) {
+                        replacement = value.toString();
+                    }
+                }
+
+                if (replacement != null) {
+                    if (builder == null) {
+                        builder = new StringBuilder(text.length() + 16);
+                    }
+                    builder.append(text, copiedTo, expressionStart).append(replacement);
+                    copiedTo = expressionEnd + 1;
+                }
+                expressionStart = text.indexOf("${", expressionEnd + 1);
             }
-            
-            // replace all escaped expressions with its literal
-            if (enableEscaping) {
-            	text = text.replaceAll("\\$\\{:(.+?)}", "\\$\\{$1}");
+
+            if (builder == null) {
+                return text;
             }
-            
-            return text;
+            return builder.append(text, copiedTo, text.length()).toString();
         }
     }
 }
@@ -1,6 +1,8 @@
 package liquibase.changelog;
 
+import liquibase.CatalogAndSchema;
 import liquibase.change.Change;
+import liquibase.change.ChangeParameterMetaData;
 import liquibase.change.CheckSum;
 import liquibase.change.core.EmptyChange;
 import liquibase.change.core.RawSQLChange;
@@ -16,6 +18,7 @@ import liquibase.precondition.core.ErrorPrecondition;
 import liquibase.precondition.core.FailedPrecondition;
 import liquibase.precondition.core.PreconditionContainer;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.sql.visitor.SqlVisitor;
 import liquibase.statement.SqlStatement;
 import liquibase.util.StreamUtil;
@@ -159,6 +162,11 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
 
     private ObjectQuotingStrategy objectQuotingStrategy;
 
+    /**
+     * Checksum returned by {@link #generateCheckSum()} until {@link #clearCheckSum()} is called.
+     */
+    private CheckSum checkSum;
+
     public boolean shouldAlwaysRun() {
         return alwaysRun;
     }
@@ -210,18 +218,37 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
         return filePath;
     }
 
+    /**
+     * Returns the checksum of the changes and sqlVisitors of this changeSet. It is computed once and kept until {@link #clearCheckSum()} is called.
+     */
     public CheckSum generateCheckSum() {
+        CheckSum checkSum = this.checkSum;
+        if (checkSum != null) {
+            return checkSum;
+        }
+
         StringBuffer stringToMD5 = new StringBuffer();
         for (Change change : getChanges()) {
             stringToMD5.append(change.generateCheckSum()).append(":");
         }
 
-        for (SqlVisitor visitor : this.getSqlVisitors()) {
+        for (SqlVisitor visitor : this.sqlVisitors) {
             stringToMD5.append(visitor.generateCheckSum()).append(";");
         }
 
 
-        return CheckSum.compute(stringToMD5.toString());
+        checkSum = CheckSum.compute(stringToMD5.toString());
+        this.checkSum = checkSum;
+        return checkSum;
+    }
+
+    /**
+     * Discards the checksum kept by {@link #generateCheckSum()}. Adding a change or sqlVisitor clears it, as does
+     * {@link liquibase.change.AbstractChange#clearStatementCache()}. Code that modifies a change or sqlVisitor of this changeSet any other way
+     * after the checksum was generated must call it.
+     */
+    public void clearCheckSum() {
+        this.checkSum = null;
     }
 
     /**
@@ -333,7 +360,11 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
 
                 log.debug("Reading ChangeSet: " + toString());
                 for (Change change : getChanges()) {
-                    database.executeStatements(change, databaseChangeLog, sqlVisitors);
+                    try {
+                        database.executeStatements(change, databaseChangeLog, sqlVisitors);
+                    } finally {
+                        clearSnapshotCache(change, database); //snapshots cached for preconditions may be out of date now
+                    }
                     log.debug(change.getConfirmationMessage());
                 }
 
@@ -380,6 +411,51 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
         return execType;
     }
 
+    /**
+     * Tells the snapshot cache which objects the change may have changed, so snapshots read for preconditions are kept for the objects it did not change.
+     * They are found from the change's parameters: the schema parameters, such as schemaName or baseTableSchemaName, with the matching catalog parameters,
+     * and the names, such as tableName or constraintName. The parameters are read rather than the change's statements generated again,
+     * which could run a custom or shell command change a second time.
+     * <p/>
+     * The whole cache is cleared for a change without schema parameters, as with raw SQL or custom changes, and the schemas' snapshots for one without names
+     * or that cascades to constraints of other tables.
+     */
+    private void clearSnapshotCache(Change change, Database database) {
+        Map<String, ChangeParameterMetaData> parameters = change.getChangeMetaData().getParameters();
+        List<CatalogAndSchema> schemas = new ArrayList<CatalogAndSchema>();
+        Set<String> objectNames = new HashSet<String>();
+        boolean cascade = false;
+        for (Map.Entry<String, ChangeParameterMetaData> parameter : parameters.entrySet()) {
+            String name = parameter.getKey();
+            if (name.equals("schemaName") || name.endsWith("SchemaName")) {
+                String catalogParameter = name.equals("schemaName") ? "catalogName" : name.replaceFirst("SchemaName$", "CatalogName");
+                String catalogName = null;
+                if (parameters.containsKey(catalogParameter)) {
+                    catalogName = (String) parameters.get(catalogParameter).getCurrentValue(change);
+                }
+                schemas.add(new CatalogAndSchema(catalogName, (String) parameter.getValue().getCurrentValue(change)));
+            } else if (name.endsWith("Name") && !name.equals("catalogName") && !name.endsWith("CatalogName")) {
+                Object value = parameter.getValue().getCurrentValue(change);
+                if (value instanceof String) {
+                    objectNames.add((String) value);
+                }
+            } else if (name.equals("cascadeConstraints")) {
+                cascade = Boolean.TRUE.equals(parameter.getValue().getCurrentValue(change));
+            }
+        }
+
+        SnapshotGeneratorFactory snapshotGeneratorFactory = SnapshotGeneratorFactory.getInstance();
+        if (schemas.isEmpty()) {
+            snapshotGeneratorFactory.clearSnapshotCache(database);
+        } else if (objectNames.isEmpty() || cascade) {
+            snapshotGeneratorFactory.clearSnapshotCache(schemas, database);
+        } else {
+            for (CatalogAndSchema schema : schemas) {
+                snapshotGeneratorFactory.clearSnapshotCache(schema, objectNames, database);
+            }
+        }
+    }
+
     public void rollback(Database database) throws RollbackFailedException {
         try {
             Executor executor = ExecutorService.getInstance().getExecutor(database);
@@ -432,6 +508,7 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
     public void addChange(Change change) {
         changes.add(change);
         change.setChangeSet(this);
+        clearCheckSum();
     }
 
     public String getId() {
@@ -603,8 +680,12 @@ public class ChangeSet implements Conditional, LiquibaseSerializable {
 
     public void addSqlVisitor(SqlVisitor sqlVisitor) {
         sqlVisitors.add(sqlVisitor);
+        clearCheckSum();
     }
 
+    /**
+     * Returns the sqlVisitors of this changeSet. Call {@link #clearCheckSum()} after modifying the returned list.
+     */
     public List<SqlVisitor> getSqlVisitors() {
         return sqlVisitors;
     }
@@ -12,7 +12,9 @@ import liquibase.precondition.Conditional;
 import liquibase.precondition.core.PreconditionContainer;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Encapsulates the information stored in the change log XML file.
@@ -24,6 +26,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     private ObjectQuotingStrategy objectQuotingStrategy;
 
     private List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+    private Map<RanChangeSetIndex.Key, List<ChangeSet>> changeSetIndex;
     private ChangeLogParameters changeLogParameters;
 
     public DatabaseChangeLog() {
@@ -97,13 +100,23 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
 
 
     public ChangeSet getChangeSet(String path, String author, String id) {
-        for (ChangeSet changeSet : changeSets) {
-            if (changeSet.getFilePath().equalsIgnoreCase(path)
-                    && changeSet.getAuthor().equalsIgnoreCase(author)
-                    && changeSet.getId().equalsIgnoreCase(id)
-                    && (null == changeSet.getDbmsSet()
-                    || changeSet.getDbmsSet().isEmpty()
-                    || changeSet.getDbmsSet().contains(changeLogParameters.getValue("database.typeName").toString()))) {
+        List<ChangeSet> candidates = getChangeSetIndex().get(RanChangeSetIndex.createKey(path, id, author));
+        if (candidates == null) {
+            return null;
+        }
+
+        String databaseTypeName = null;
+        for (ChangeSet changeSet : candidates) {
+            if (!equalsIgnoreCase(changeSet.getFilePath(), path) || !equalsIgnoreCase(changeSet.getAuthor(), author) || !equalsIgnoreCase(changeSet.getId(), id)) {
+                continue;
+            }
+            if (null == changeSet.getDbmsSet() || changeSet.getDbmsSet().isEmpty()) {
+                return changeSet;
+            }
+            if (databaseTypeName == null) {
+                databaseTypeName = changeLogParameters.getValue("database.typeName").toString();
+            }
+            if (changeSet.getDbmsSet().contains(databaseTypeName)) {
                 return changeSet;
             }
         }
@@ -111,12 +124,44 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         return null;
     }
 
+    /**
+     * Returns the changeSets of this changeLog. The returned list may be modified, so the lookup index used by
+     * {@link #getChangeSet(String, String, String)} is rebuilt on the next lookup; modify the list before looking changeSets up again.
+     */
     public List<ChangeSet> getChangeSets() {
+        changeSetIndex = null;
         return changeSets;
     }
 
     public void addChangeSet(ChangeSet changeSet) {
         this.changeSets.add(changeSet);
+        if (changeSetIndex != null) {
+            addToIndex(changeSet);
+        }
+    }
+
+    private Map<RanChangeSetIndex.Key, List<ChangeSet>> getChangeSetIndex() {
+        if (changeSetIndex == null) {
+            changeSetIndex = new HashMap<RanChangeSetIndex.Key, List<ChangeSet>>();
+            for (ChangeSet changeSet : changeSets) {
+                addToIndex(changeSet);
+            }
+        }
+        return changeSetIndex;
+    }
+
+    private void addToIndex(ChangeSet changeSet) {
+        RanChangeSetIndex.Key key = RanChangeSetIndex.createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor());
+        List<ChangeSet> indexed = changeSetIndex.get(key);
+        if (indexed == null) {
+            indexed = new ArrayList<ChangeSet>(1);
+            changeSetIndex.put(key, indexed);
+        }
+        indexed.add(changeSet);
+    }
+
+    private boolean equalsIgnoreCase(String value, String other) {
+        return value == null ? other == null : value.equalsIgnoreCase(other);
     }
 
     @Override
@@ -0,0 +1,114 @@
+package liquibase.changelog;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hash index over {@link RanChangeSet}s keyed by file path, id and author so ran status can be looked up
+ * without scanning the full ran list for every changeSet.
+ * Matching follows {@link RanChangeSet#isSameAs(ChangeSet)}: comparisons are case-insensitive and path separators are normalized.
+ */
+public class RanChangeSetIndex {
+
+    private Map<Key, RanChangeSet> index = new HashMap<Key, RanChangeSet>();
+
+    public RanChangeSetIndex() {
+    }
+
+    /**
+     * Indexes the given RanChangeSets. If several match the same changeSet, the first one is used, as a scan of the list would find it.
+     */
+    public RanChangeSetIndex(Collection<RanChangeSet> ranChangeSets) {
+        if (ranChangeSets != null) {
+            for (RanChangeSet ranChangeSet : ranChangeSets) {
+                Key key = createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+                if (!index.containsKey(key)) {
+                    index.put(key, ranChangeSet);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the given RanChangeSet, replacing any previously indexed entry for the same changeSet.
+     */
+    public void add(RanChangeSet ranChangeSet) {
+        index.put(createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor()), ranChangeSet);
+    }
+
+    public RanChangeSet remove(ChangeSet changeSet) {
+        return index.remove(createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+    }
+
+    public RanChangeSet get(ChangeSet changeSet) {
+        return index.get(createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+    }
+
+    public boolean contains(ChangeSet changeSet) {
+        return get(changeSet) != null;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public void clear() {
+        index.clear();
+    }
+
+    /**
+     * Returns the key a changeSet with the given path, id and author is indexed by. Keys are equal exactly when {@link RanChangeSet#isSameAs(ChangeSet)} would match.
+     */
+    public static Key createKey(String filePath, String id, String author) {
+        return new Key(normalize(filePath == null ? null : filePath.replace('\\', '/')), normalize(id), normalize(author));
+    }
+
+    /**
+     * Folds the case of each character the way {@link String#equalsIgnoreCase(String)} compares them, so equal results mean the values are equal ignoring case.
+     */
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            normalized.append(Character.toLowerCase(Character.toUpperCase(value.charAt(i))));
+        }
+        return normalized.toString();
+    }
+
+    public static final class Key {
+        private final String filePath;
+        private final String id;
+        private final String author;
+
+        private Key(String filePath, String id, String author) {
+            this.filePath = filePath;
+            this.id = id;
+            this.author = author;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+            return filePath.equals(key.filePath) && id.equals(key.id) && author.equals(key.author);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = filePath.hashCode();
+            result = 31 * result + id.hashCode();
+            result = 31 * result + author.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return filePath + "::" + id + "::" + author;
+        }
+    }
+}
@@ -47,7 +47,9 @@ public class ContextChangeSetFilter implements ChangeSetFilter {
                 }
             }
         }
-        changeSet.getSqlVisitors().removeAll(visitorsToRemove);
+        if (changeSet.getSqlVisitors().removeAll(visitorsToRemove)) {
+            changeSet.clearCheckSum();
+        }
 
         if (contexts == null || contexts.size() == 0) {
             return true;
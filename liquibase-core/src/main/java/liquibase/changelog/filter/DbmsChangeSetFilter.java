@@ -28,7 +28,9 @@ public class DbmsChangeSetFilter implements ChangeSetFilter {
                 }
             }
         }
-        changeSet.getSqlVisitors().removeAll(visitorsToRemove);
+        if (changeSet.getSqlVisitors().removeAll(visitorsToRemove)) {
+            changeSet.clearCheckSum();
+        }
 
         if (databaseString == null) {
             return true;
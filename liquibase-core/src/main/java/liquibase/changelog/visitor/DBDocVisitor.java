@@ -1,14 +1,24 @@
 package liquibase.changelog.visitor;
 
 import liquibase.change.Change;
+import liquibase.change.CheckSum;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.database.Database;
+import liquibase.dbdoc.*;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.structure.DatabaseObject;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.DatabaseHistoryException;
 import liquibase.exception.LiquibaseException;
 import liquibase.resource.ResourceAccessor;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
 import liquibase.util.StreamUtil;
 
 import java.io.File;
@@ -16,9 +26,24 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects the changes of the visited changeSets by author and affected object, then writes them as HTML pages with {@link #writeHTML}.
+ * <p/>
+ * Pages are written on several threads. Pages whose inputs have not changed since they were last generated into the same directory are not written again,
+ * see {@link DBDocManifest}.
+ */
 public class DBDocVisitor implements ChangeSetVisitor {
 
+    public static final String THREADS_PROPERTY = "liquibase.dbdoc.threads";
+
     private Database database;
 
     private SortedSet<ChangeLogInfo> changeLogs;
@@ -28,7 +53,10 @@ public class DBDocVisitor implements ChangeSetVisitor {
     private Map<DatabaseObject, List<Change>> changesToRunByObject;
     private Map<String, List<Change>> changesToRunByAuthor;
     private List<Change> changesToRun;
-    private List<Change> recentChanges;
+    private LinkedList<Change> recentChanges;
+    private Map<ChangeSet, ChangeSet.RunStatus> runStatuses;
+    private Map<ChangeSet, Date> ranDates;
+    private Map<Change, CheckSum> checkSums;
 
     private String rootChangeLogName;
     private DatabaseChangeLog rootChangeLog;
@@ -45,7 +73,10 @@ public class DBDocVisitor implements ChangeSetVisitor {
         changesToRunByObject = new HashMap<DatabaseObject, List<Change>>();
         changesToRunByAuthor = new HashMap<String, List<Change>>();
         changesToRun = new ArrayList<Change>();
-        recentChanges = new ArrayList<Change>();
+        recentChanges = new LinkedList<Change>();
+        runStatuses = new IdentityHashMap<ChangeSet, ChangeSet.RunStatus>();
+        ranDates = new IdentityHashMap<ChangeSet, Date>();
+        checkSums = new IdentityHashMap<Change, CheckSum>();
     }
 
     public ChangeSetVisitor.Direction getDirection() {
@@ -54,6 +85,13 @@ public class DBDocVisitor implements ChangeSetVisitor {
 
     public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
         ChangeSet.RunStatus runStatus = this.database.getRunStatus(changeSet);
+        runStatuses.put(changeSet, runStatus);
+        if (runStatus.equals(ChangeSet.RunStatus.ALREADY_RAN)) {
+            ranDates.put(changeSet, this.database.getRanDate(changeSet));
+        }
+        for (Change change : changeSet.getChanges()) { //read here rather than by the threads the pages are written on
+            checkSums.put(change, change.generateCheckSum());
+        }
         if (rootChangeLogName == null) {
             rootChangeLogName = changeSet.getFilePath();
         }
@@ -76,15 +114,15 @@ public class DBDocVisitor implements ChangeSetVisitor {
                 changesToRun.add(change);
             } else {
                 changesByAuthor.get(changeSet.getAuthor()).add(change);
-                recentChanges.add(0, change);
+                recentChanges.addFirst(change);
+                if (recentChanges.size() > MAX_RECENT_CHANGE) { //only the most recent are written
+                    recentChanges.removeLast();
+                }
             }
         }
 
 
-        ChangeLogInfo changeLogInfo = new ChangeLogInfo(changeSet.getFilePath(), databaseChangeLog.getPhysicalFilePath());
-        if (!changeLogs.contains(changeLogInfo)) {
-            changeLogs.add(changeLogInfo);
-        }
+        changeLogs.add(new ChangeLogInfo(changeSet.getFilePath(), databaseChangeLog.getPhysicalFilePath())); //no-op if already added
 
         for (Change change : changeSet.getChanges()) {
             Set<DatabaseObject> affectedDatabaseObjects = change.getAffectedDatabaseObjects(database);
@@ -107,51 +145,144 @@ public class DBDocVisitor implements ChangeSetVisitor {
     }
 
     public void writeHTML(File rootOutputDir, ResourceAccessor resourceAccessor) throws IOException, DatabaseException, DatabaseHistoryException {
-//TODO        ChangeLogWriter changeLogWriter = new ChangeLogWriter(resourceAccessor, rootOutputDir);
-//        HTMLWriter authorWriter = new AuthorWriter(rootOutputDir, database);
-//        HTMLWriter tableWriter = new TableWriter(rootOutputDir, database);
-//        HTMLWriter columnWriter = new ColumnWriter(rootOutputDir, database);
-//        HTMLWriter pendingChangesWriter = new PendingChangesWriter(rootOutputDir, database);
-//        HTMLWriter recentChangesWriter = new RecentChangesWriter(rootOutputDir, database);
-//        HTMLWriter pendingSQLWriter = new PendingSQLWriter(rootOutputDir, database, rootChangeLog);
-//
-//        copyFile("liquibase/dbdoc/stylesheet.css", rootOutputDir);
-//        copyFile("liquibase/dbdoc/index.html", rootOutputDir);
-//        copyFile("liquibase/dbdoc/globalnav.html", rootOutputDir);
-//        copyFile("liquibase/dbdoc/overview-summary.html", rootOutputDir);
-//
-//        DatabaseSnapshot snapshot = DatabaseSnapshotGeneratorFactory.getInstance().createSnapshot(database, new CompareControl());
-//
-//        new ChangeLogListWriter(rootOutputDir).writeHTML(changeLogs);
-//        for (Schema schema : snapshot.getSchemas()) {
-//            new TableListWriter(rootOutputDir).writeHTML(new TreeSet<Object>(snapshot.getDatabaseObjects(schema, Table.class)));
-//            new AuthorListWriter(rootOutputDir).writeHTML(new TreeSet<Object>(changesByAuthor.keySet()));
-//
-//            for (String author : changesByAuthor.keySet()) {
-//                authorWriter.writeHTML(author, changesByAuthor.get(author), changesToRunByAuthor.get(author), rootChangeLogName);
-//            }
-//
-//            for (Table table : snapshot.getDatabaseObjects(schema, Table.class)) {
-//                tableWriter.writeHTML(table, changesByObject.get(table), changesToRunByObject.get(table), rootChangeLogName);
-//            }
-//
-//            for (Column column : snapshot.getColumns(schema)) {
-//                columnWriter.writeHTML(column, changesByObject.get(column), changesToRunByObject.get(column), rootChangeLogName);
-//            }
-//        }
-//
-//        for (ChangeLogInfo changeLog : changeLogs) {
-//            changeLogWriter.writeChangeLog(changeLog.logicalPath, changeLog.physicalPath);
-//        }
-//
-//        pendingChangesWriter.writeHTML("index", null, changesToRun, rootChangeLogName);
-//        pendingSQLWriter.writeHTML("sql", null, changesToRun, rootChangeLogName);
-//
-//        if (recentChanges.size() > MAX_RECENT_CHANGE) {
-//            recentChanges = recentChanges.subList(0, MAX_RECENT_CHANGE);
-//        }
-//        recentChangesWriter.writeHTML("index", recentChanges, null, rootChangeLogName);
+        DBDocManifest manifest = new DBDocManifest(rootOutputDir);
+        ChangeLogWriter changeLogWriter = new ChangeLogWriter(resourceAccessor, rootOutputDir);
+        HTMLWriter authorWriter = prepareWriter(new AuthorWriter(rootOutputDir, database), manifest);
+        HTMLWriter tableWriter = prepareWriter(new TableWriter(rootOutputDir, database), manifest);
+        HTMLWriter columnWriter = prepareWriter(new ColumnWriter(rootOutputDir, database), manifest);
+        HTMLWriter pendingChangesWriter = prepareWriter(new PendingChangesWriter(rootOutputDir, database), manifest);
+        HTMLWriter recentChangesWriter = prepareWriter(new RecentChangesWriter(rootOutputDir, database), manifest);
+        HTMLWriter pendingSQLWriter = prepareWriter(new PendingSQLWriter(rootOutputDir, database, rootChangeLog), manifest);
+
+        copyFile("liquibase/dbdoc/stylesheet.css", rootOutputDir);
+        copyFile("liquibase/dbdoc/index.html", rootOutputDir);
+        copyFile("liquibase/dbdoc/globalnav.html", rootOutputDir);
+        copyFile("liquibase/dbdoc/overview-summary.html", rootOutputDir);
+
+        DatabaseSnapshot snapshot;
+        try {
+            SnapshotControl snapshotControl = new SnapshotControl(Schema.class, Table.class, Column.class);
+            snapshotControl.setBulkFetch(true);
+            snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(database.getDefaultSchema(), database, snapshotControl);
+        } catch (InvalidExampleException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+
+        new ChangeLogListWriter(rootOutputDir).writeHTML(changeLogs);
+        new TableListWriter(rootOutputDir).writeHTML(new TreeSet<Object>(snapshot.get(Table.class)));
+        new AuthorListWriter(rootOutputDir).writeHTML(new TreeSet<Object>(changesByAuthor.keySet()));
+
+        for (ChangeLogInfo changeLog : changeLogs) {
+            changeLogWriter.writeChangeLog(changeLog.logicalPath, changeLog.physicalPath);
+        }
+
+        Map<File, List<Page>> pages = new LinkedHashMap<File, List<Page>>();
+        for (String author : changesByAuthor.keySet()) {
+            addPage(pages, new Page(authorWriter, author, changesByAuthor.get(author), changesToRunByAuthor.get(author)));
+        }
+        for (Table table : snapshot.get(Table.class)) {
+            addPage(pages, new Page(tableWriter, table, changesByObject.get(table), changesToRunByObject.get(table)));
+        }
+        for (Column column : snapshot.get(Column.class)) {
+            addPage(pages, new Page(columnWriter, column, changesByObject.get(column), changesToRunByObject.get(column)));
+        }
+        addPage(pages, new Page(pendingChangesWriter, "index", null, changesToRun));
+        addPage(pages, new Page(recentChangesWriter, "index", recentChanges, null));
+        writePages(pages.values());
+
+        //runs the pending changeSets through a logging executor it swaps in for the database's, so it cannot be written alongside other pages
+        pendingSQLWriter.writeHTML("sql", null, changesToRun, rootChangeLogName);
+
+        manifest.write();
+    }
+
+    private HTMLWriter prepareWriter(HTMLWriter writer, DBDocManifest manifest) {
+        writer.setManifest(manifest);
+        writer.setRunStatuses(runStatuses);
+        writer.setRanDates(ranDates);
+        writer.setCheckSums(checkSums);
+        return writer;
+    }
+
+    /**
+     * Pages written to the same file, such as those of authors whose names differ only in case, are kept together so they are not written at the same time.
+     */
+    private void addPage(Map<File, List<Page>> pages, Page page) {
+        File file = page.writer.getFile(page.object);
+        List<Page> pagesForFile = pages.get(file);
+        if (pagesForFile == null) {
+            pagesForFile = new ArrayList<Page>();
+            pages.put(file, pagesForFile);
+        }
+        pagesForFile.add(page);
+    }
+
+    /**
+     * Writes the pages on {@link #getThreadCount()} threads. The pages in each list are written in order on the same thread.
+     */
+    private void writePages(Collection<List<Page>> pages) throws IOException, DatabaseException, DatabaseHistoryException {
+        int threads = Math.min(getThreadCount(), pages.size());
+        if (threads <= 1) {
+            for (List<Page> pagesForFile : pages) {
+                for (Page page : pagesForFile) {
+                    page.write();
+                }
+            }
+            return;
+        }
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-dbdoc-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (final List<Page> pagesForFile : pages) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        for (Page page : pagesForFile) {
+                            page.write();
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UnexpectedLiquibaseException(e);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    } else if (cause instanceof DatabaseException) {
+                        throw (DatabaseException) cause;
+                    } else if (cause instanceof DatabaseHistoryException) {
+                        throw (DatabaseHistoryException) cause;
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new UnexpectedLiquibaseException(cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
+    /**
+     * Returns the number of threads to write pages with, set by the {@value #THREADS_PROPERTY} system property. Defaults to the number of processors.
+     */
+    public static int getThreadCount() {
+        return Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
     }
 
     private void copyFile(String fileToCopy, File rootOutputDir) throws IOException {
@@ -170,6 +301,24 @@ public class DBDocVisitor implements ChangeSetVisitor {
         }
     }
 
+    private class Page {
+        private HTMLWriter writer;
+        private Object object;
+        private List<Change> ranChanges;
+        private List<Change> changesToRun;
+
+        private Page(HTMLWriter writer, Object object, List<Change> ranChanges, List<Change> changesToRun) {
+            this.writer = writer;
+            this.object = object;
+            this.ranChanges = ranChanges;
+            this.changesToRun = changesToRun;
+        }
+
+        public void write() throws IOException, DatabaseException, DatabaseHistoryException {
+            writer.writeHTML(object, ranChanges, changesToRun, rootChangeLogName);
+        }
+    }
+
     private static class ChangeLogInfo implements Comparable<ChangeLogInfo> {
         public String logicalPath;
         public String physicalPath;
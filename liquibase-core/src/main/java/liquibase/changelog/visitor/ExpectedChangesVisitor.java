@@ -1,21 +1,38 @@
 package liquibase.changelog.visitor;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetIndex;
 import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
 
 public class ExpectedChangesVisitor implements ChangeSetVisitor {
     private final LinkedHashSet<RanChangeSet> unexpectedChangeSets;
 
+    /**
+     * The unexpected changeSets keyed as in {@link RanChangeSetIndex}, so a visited changeSet finds the ones that match it without scanning them all.
+     */
+    private final Map<RanChangeSetIndex.Key, List<RanChangeSet>> unexpectedChangeSetsByKey = new HashMap<RanChangeSetIndex.Key, List<RanChangeSet>>();
+
     public ExpectedChangesVisitor(List<RanChangeSet> ranChangeSetList) {
         this.unexpectedChangeSets = new LinkedHashSet<RanChangeSet>(ranChangeSetList);
+        for (RanChangeSet ranChangeSet : unexpectedChangeSets) {
+            RanChangeSetIndex.Key key = RanChangeSetIndex.createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+            List<RanChangeSet> ranChangeSets = unexpectedChangeSetsByKey.get(key);
+            if (ranChangeSets == null) {
+                ranChangeSets = new ArrayList<RanChangeSet>(1);
+                unexpectedChangeSetsByKey.put(key, ranChangeSets);
+            }
+            ranChangeSets.add(ranChangeSet);
+        }
     }
 
     public Direction getDirection() {
@@ -25,11 +42,9 @@ public class ExpectedChangesVisitor implements ChangeSetVisitor {
     public void visit(ChangeSet changeSet,
             DatabaseChangeLog databaseChangeLog,
             Database database) throws LiquibaseException {
-        for (Iterator<RanChangeSet> i = unexpectedChangeSets.iterator(); i.hasNext(); ) {
-            RanChangeSet ranChangeSet = i.next();
-            if (ranChangeSet.isSameAs(changeSet)) {
-                i.remove();
-            }
+        List<RanChangeSet> expectedChangeSets = unexpectedChangeSetsByKey.remove(RanChangeSetIndex.createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+        if (expectedChangeSets != null) {
+            unexpectedChangeSets.removeAll(expectedChangeSets);
         }
     }
 
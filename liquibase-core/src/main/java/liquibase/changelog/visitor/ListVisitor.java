@@ -6,21 +6,32 @@ import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ListVisitor implements ChangeSetVisitor {
 
     private List<ChangeSet> seenChangeSets = new ArrayList<ChangeSet>();
+    private Map<ChangeSet, Boolean> seenChangeSetIndex = new IdentityHashMap<ChangeSet, Boolean>();
 
     public List<ChangeSet> getSeenChangeSets() {
         return seenChangeSets;
     }
 
+    /**
+     * Returns true if the given changeSet was visited. Faster than searching {@link #getSeenChangeSets()} for it.
+     */
+    public boolean hasSeen(ChangeSet changeSet) {
+        return seenChangeSetIndex.containsKey(changeSet);
+    }
+
     public Direction getDirection() {
         return ChangeSetVisitor.Direction.FORWARD;
     }
 
     public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
         seenChangeSets.add(changeSet);
+        seenChangeSetIndex.put(changeSet, Boolean.TRUE);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
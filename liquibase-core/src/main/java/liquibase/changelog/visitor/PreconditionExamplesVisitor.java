@@ -0,0 +1,47 @@
+package liquibase.changelog.visitor;
+
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.precondition.DatabaseObjectPrecondition;
+import liquibase.precondition.Precondition;
+import liquibase.precondition.PreconditionLogic;
+import liquibase.structure.DatabaseObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the database objects checked for by the {@link DatabaseObjectPrecondition}s of the visited changeSets, including those nested in and/or/not,
+ * so they can be read from the database together with {@link liquibase.snapshot.SnapshotGeneratorFactory#cacheSnapshots} before the changeSets are run.
+ */
+public class PreconditionExamplesVisitor implements ChangeSetVisitor {
+
+    private List<DatabaseObject> examples = new ArrayList<DatabaseObject>();
+
+    public Direction getDirection() {
+        return ChangeSetVisitor.Direction.FORWARD;
+    }
+
+    public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
+        addPrecondition(changeSet.getPreconditions());
+    }
+
+    /**
+     * Collects the objects checked for by a precondition that is not attached to a changeSet, such as the changelog's own preconditions.
+     */
+    public void addPrecondition(Precondition precondition) {
+        if (precondition instanceof DatabaseObjectPrecondition) {
+            examples.add(((DatabaseObjectPrecondition) precondition).getExample());
+        } else if (precondition instanceof PreconditionLogic) {
+            for (Precondition nested : ((PreconditionLogic) precondition).getNestedPreconditions()) {
+                addPrecondition(nested);
+            }
+        }
+    }
+
+    public List<DatabaseObject> getExamples() {
+        return examples;
+    }
+}
@@ -4,6 +4,7 @@ import liquibase.change.Change;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetIndex;
 import liquibase.database.Database;
 import liquibase.exception.*;
 import liquibase.precondition.core.ErrorPrecondition;
@@ -14,8 +15,6 @@ import liquibase.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.List;
 import java.util.Set;
 
@@ -32,14 +31,11 @@ public class ValidatingVisitor implements ChangeSetVisitor {
 
     private Set<String> seenChangeSets = new HashSet<String>();
 
-    private Map<String, RanChangeSet> ranIndex;
+    private RanChangeSetIndex ranIndex;
     private Database database;
 
     public ValidatingVisitor(List<RanChangeSet> ranChangeSets) {
-        ranIndex = new HashMap<String, RanChangeSet>();
-        for(RanChangeSet changeSet:ranChangeSets) {
-            ranIndex.put(changeSet.toString(), changeSet);
-        }
+        ranIndex = new RanChangeSetIndex(ranChangeSets);
     }
 
     public void validate(Database database, DatabaseChangeLog changeLog) {
@@ -72,7 +68,7 @@ public class ValidatingVisitor implements ChangeSetVisitor {
     }
 
     public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws UnsupportedChangeException {
-        RanChangeSet ranChangeSet = ranIndex.get(changeSet.toString(false));
+        RanChangeSet ranChangeSet = ranIndex.get(changeSet);
         boolean ran = ranChangeSet != null;
         boolean shouldValidate = !ran || changeSet.shouldRunOnChange() || changeSet.shouldAlwaysRun();
         for (Change change : changeSet.getChanges()) {
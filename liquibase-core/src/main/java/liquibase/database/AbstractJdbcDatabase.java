@@ -1,14 +1,17 @@
 package liquibase.database;
 
 import liquibase.CatalogAndSchema;
+import liquibase.change.AbstractChange;
 import liquibase.change.Change;
 import liquibase.change.CheckSum;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetIndex;
 import liquibase.changelog.filter.ContextChangeSetFilter;
 import liquibase.changelog.filter.DbmsChangeSetFilter;
 import liquibase.database.core.*;
+import liquibase.database.jvm.DatabaseChangeLogWriter;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.diff.DiffGeneratorFactory;
 import liquibase.diff.DiffResult;
@@ -19,6 +22,7 @@ import liquibase.diff.output.changelog.DiffToChangeLog;
 import liquibase.exception.*;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.JdbcDatabaseSnapshot;
@@ -72,9 +76,12 @@ public abstract class AbstractJdbcDatabase implements Database {
     protected List<String> unmodifiableDataTypes = new ArrayList<String>();
 
     private List<RanChangeSet> ranChangeSetList;
+    private RanChangeSetIndex ranChangeSetIndex;
+    private DatabaseChangeLogWriter databaseChangeLogWriter;
 
     protected void resetRanChangeSetList() {
         ranChangeSetList = null;
+        ranChangeSetIndex = null;
     }
 
     private static Pattern CREATE_VIEW_AS_PATTERN = Pattern.compile("^CREATE\\s+.*?VIEW\\s+.*?AS\\s+", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
@@ -124,6 +131,7 @@ public abstract class AbstractJdbcDatabase implements Database {
     public void setConnection(DatabaseConnection conn) {
         LogFactory.getLogger().debug("Connected to " + conn.getConnectionUserName() + "@" + conn.getURL());
         this.connection = conn;
+        databaseChangeLogWriter = null;
         try {
             boolean autoCommit = conn.getAutoCommit();
             if (autoCommit == getAutoCommitMode()) {
@@ -685,20 +693,54 @@ public abstract class AbstractJdbcDatabase implements Database {
         }
 
         if (updateExistingNullChecksums) {
+            List<ChangeSet> changeSetsToUpdate = new ArrayList<ChangeSet>();
             for (RanChangeSet ranChangeSet : this.getRanChangeSetList()) {
                 if (ranChangeSet.getLastCheckSum() == null) {
                     ChangeSet changeSet = databaseChangeLog.getChangeSet(ranChangeSet);
                     if (changeSet != null && new ContextChangeSetFilter(contexts).accepts(changeSet) && new DbmsChangeSetFilter(this).accepts(changeSet)) {
                         LogFactory.getLogger().debug("Updating null or out of date checksum on changeSet " + changeSet + " to correct value");
-                        executor.execute(new UpdateChangeSetChecksumStatement(changeSet));
+                        changeSetsToUpdate.add(changeSet);
                     }
                 }
             }
+            updateCheckSums(changeSetsToUpdate);
             commit();
-            this.ranChangeSetList = null;
+            resetRanChangeSetList();
         }
     }
 
+    /**
+     * Sets the stored checksums of the given changeSets to their current values, as a single batch when a {@link DatabaseChangeLogWriter} is used.
+     */
+    protected void updateCheckSums(List<ChangeSet> changeSets) throws DatabaseException {
+        DatabaseChangeLogWriter writer = getDatabaseChangeLogWriter();
+        if (writer == null || !writer.updateCheckSums(changeSets)) {
+            Executor executor = ExecutorService.getInstance().getExecutor(this);
+            for (ChangeSet changeSet : changeSets) {
+                executor.execute(new UpdateChangeSetChecksumStatement(changeSet));
+            }
+        }
+    }
+
+    /**
+     * Returns the writer used for DATABASECHANGELOG rows, or null if they need to go through the executor as SQL statements,
+     * such as when the executor only outputs SQL or the connection is not a JDBC connection.
+     * <p/>
+     * The writer is only used when the "liquibase.changeLog.usePreparedStatements" system property is set to true.
+     */
+    protected DatabaseChangeLogWriter getDatabaseChangeLogWriter() {
+        if (!Boolean.getBoolean("liquibase.changeLog.usePreparedStatements")) {
+            return null;
+        }
+        if (!(getConnection() instanceof JdbcConnection) || !(ExecutorService.getInstance().getExecutor(this) instanceof JdbcExecutor)) {
+            return null;
+        }
+        if (databaseChangeLogWriter == null) {
+            databaseChangeLogWriter = new DatabaseChangeLogWriter(this, (JdbcConnection) getConnection());
+        }
+        return databaseChangeLogWriter;
+    }
+
 
     protected boolean canCreateChangeLogTable() throws DatabaseException {
         return true;
@@ -1063,7 +1105,10 @@ public abstract class AbstractJdbcDatabase implements Database {
             if (foundRan.getLastCheckSum() == null) {
                 try {
                     LogFactory.getLogger().info("Updating NULL md5sum for " + changeSet.toString());
-                    ExecutorService.getInstance().getExecutor(this).execute(new RawSqlStatement("UPDATE " + escapeTableName(getLiquibaseCatalogName(), getLiquibaseSchemaName(), getDatabaseChangeLogTableName()) + " SET MD5SUM='" + changeSet.generateCheckSum().toString() + "' WHERE ID='" + changeSet.getId() + "' AND AUTHOR='" + changeSet.getAuthor() + "' AND FILENAME='" + changeSet.getFilePath() + "'"));
+                    DatabaseChangeLogWriter writer = getDatabaseChangeLogWriter();
+                    if (writer == null || !writer.updateCheckSums(Collections.singletonList(changeSet))) {
+                        ExecutorService.getInstance().getExecutor(this).execute(new UpdateChangeSetChecksumStatement(changeSet));
+                    }
 
                     this.commit();
                 } catch (DatabaseException e) {
@@ -1091,14 +1136,7 @@ public abstract class AbstractJdbcDatabase implements Database {
             return null;
         }
 
-        RanChangeSet foundRan = null;
-        for (RanChangeSet ranChange : getRanChangeSetList()) {
-            if (ranChange.isSameAs(changeSet)) {
-                foundRan = ranChange;
-                break;
-            }
-        }
-        return foundRan;
+        return getRanChangeSetIndex().get(changeSet);
     }
 
     /**
@@ -1111,6 +1149,7 @@ public abstract class AbstractJdbcDatabase implements Database {
 
         String databaseChangeLogTableName = escapeTableName(getLiquibaseCatalogName(), getLiquibaseSchemaName(), getDatabaseChangeLogTableName());
         ranChangeSetList = new ArrayList<RanChangeSet>();
+        ranChangeSetIndex = new RanChangeSetIndex();
         if (hasDatabaseChangeLogTable()) {
             LogFactory.getLogger().info("Reading from " + databaseChangeLogTableName);
             SqlStatement select = new SelectFromDatabaseChangeLogStatement("FILENAME", "AUTHOR", "ID", "MD5SUM", "DATEEXECUTED", "ORDEREXECUTED", "TAG", "EXECTYPE", "DESCRIPTION").setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
@@ -1137,6 +1176,7 @@ public abstract class AbstractJdbcDatabase implements Database {
                 try {
                     RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum), dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description);
                     ranChangeSetList.add(ranChangeSet);
+                    ranChangeSetIndex.add(ranChangeSet);
                 } catch (IllegalArgumentException e) {
                     LogFactory.getLogger().severe("Unknown EXECTYPE from database: " + execType);
                     throw e;
@@ -1146,6 +1186,17 @@ public abstract class AbstractJdbcDatabase implements Database {
         return ranChangeSetList;
     }
 
+    /**
+     * Returns the index over {@link #getRanChangeSetList()}, kept in sync as change sets are marked ran or removed.
+     */
+    protected RanChangeSetIndex getRanChangeSetIndex() throws DatabaseException {
+        List<RanChangeSet> ranChangeSets = getRanChangeSetList();
+        if (ranChangeSetIndex == null) {
+            ranChangeSetIndex = new RanChangeSetIndex(ranChangeSets);
+        }
+        return ranChangeSetIndex;
+    }
+
     public Date getRanDate(ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException {
         RanChangeSet ranChange = getRanChangeSet(changeSet);
         if (ranChange == null) {
@@ -1161,10 +1212,14 @@ public abstract class AbstractJdbcDatabase implements Database {
      */
     public void markChangeSetExecStatus(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
 
-
-        ExecutorService.getInstance().getExecutor(this).execute(new MarkChangeSetRanStatement(changeSet, execType));
+        DatabaseChangeLogWriter writer = getDatabaseChangeLogWriter();
+        if (writer == null || !writer.markChangeSetRan(changeSet, execType)) {
+            ExecutorService.getInstance().getExecutor(this).execute(new MarkChangeSetRanStatement(changeSet, execType));
+        }
         commit();
-        getRanChangeSetList().add(new RanChangeSet(changeSet, execType));
+        RanChangeSet ranChangeSet = new RanChangeSet(changeSet, execType);
+        getRanChangeSetList().add(ranChangeSet);
+        getRanChangeSetIndex().add(ranChangeSet);
     }
 
     public void removeRanStatus(ChangeSet changeSet) throws DatabaseException {
@@ -1173,6 +1228,7 @@ public abstract class AbstractJdbcDatabase implements Database {
         commit();
 
         getRanChangeSetList().remove(new RanChangeSet(changeSet));
+        getRanChangeSetIndex().remove(changeSet);
     }
 
     public String escapeStringForDatabase(String string) {
@@ -1224,6 +1280,7 @@ public abstract class AbstractJdbcDatabase implements Database {
     public void close() throws DatabaseException {
         DatabaseConnection connection = getConnection();
         if (connection != null) {
+            databaseChangeLogWriter = null;
             if (previousAutoCommit != null) {
                 try {
                     connection.setAutoCommit(previousAutoCommit);
@@ -1273,7 +1330,7 @@ public abstract class AbstractJdbcDatabase implements Database {
     }
 
     public void executeStatements(Change change, DatabaseChangeLog changeLog, List<SqlVisitor> sqlVisitors) throws LiquibaseException, UnsupportedChangeException {
-        SqlStatement[] statements = change.generateStatements(this);
+        SqlStatement[] statements = generateStatements(change);
 
         execute(statements, sqlVisitors);
     }
@@ -1297,7 +1354,7 @@ public abstract class AbstractJdbcDatabase implements Database {
 
 
     public void saveStatements(Change change, List<SqlVisitor> sqlVisitors, Writer writer) throws IOException, UnsupportedChangeException, StatementNotSupportedOnDatabaseException, LiquibaseException {
-        SqlStatement[] statements = change.generateStatements(this);
+        SqlStatement[] statements = generateStatements(change);
         for (SqlStatement statement : statements) {
             for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(statement, this)) {
                 writer.append(sql.toSql()).append(sql.getEndDelimiter()).append(StreamUtil.getLineSeparator()).append(StreamUtil.getLineSeparator());
@@ -1305,6 +1362,16 @@ public abstract class AbstractJdbcDatabase implements Database {
         }
     }
 
+    /**
+     * Returns the statements of the change, reusing the ones already generated if it is an {@link AbstractChange} that caches them.
+     */
+    private SqlStatement[] generateStatements(Change change) throws UnsupportedChangeException {
+        if (change instanceof AbstractChange) {
+            return ((AbstractChange) change).generateStatementsCached(this);
+        }
+        return change.generateStatements(this);
+    }
+
     public void executeRollbackStatements(Change change, List<SqlVisitor> sqlVisitors) throws LiquibaseException, UnsupportedChangeException, RollbackImpossibleException {
         SqlStatement[] statements = change.generateRollbackStatements(this);
         List<SqlVisitor> rollbackVisitors = new ArrayList<SqlVisitor>();
@@ -1356,7 +1423,7 @@ public abstract class AbstractJdbcDatabase implements Database {
     }
 
     public void resetInternalState() {
-        this.ranChangeSetList = null;
+        resetRanChangeSetList();
         this.hasDatabaseChangeLogLockTable = false;
     }
 
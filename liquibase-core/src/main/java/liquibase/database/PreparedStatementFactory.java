@@ -20,12 +20,22 @@ public final class PreparedStatementFactory {
     /**
      * Create a <code>PreparedStatement</code> object,
      * sql pre-compilation might take place, depending on driver support. 
+     * The statement comes from the connection's {@link liquibase.database.jvm.PreparedStatementCache},
+     * so it must be handed back with {@link #release(java.sql.PreparedStatement)} instead of being closed.
      * @param sql to execute
      * @return a <code>PreparedStatement</code> object
      * @throws DatabaseException
      */
     public PreparedStatement create(String sql) throws DatabaseException {
-        return con.prepareStatement(sql);
+        return con.getPreparedStatementCache().get(sql);
+    }
+
+    /**
+     * Hand back a <code>PreparedStatement</code> from {@link #create(String)} once it has been executed.
+     * @param stmt the statement, may be null
+     */
+    public void release(PreparedStatement stmt) {
+        con.getPreparedStatementCache().release(stmt);
     }
 
     @Override
@@ -32,7 +32,6 @@ import liquibase.statement.core.ModifyDataTypeStatement;
 import liquibase.statement.core.RawSqlStatement;
 import liquibase.statement.core.SelectFromDatabaseChangeLogStatement;
 import liquibase.statement.core.SetNullableStatement;
-import liquibase.statement.core.UpdateChangeSetChecksumStatement;
 import liquibase.statement.core.UpdateStatement;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.Table;
@@ -347,15 +346,17 @@ public class InformixDatabase extends AbstractJdbcDatabase {
         }
 
         if (updateExistingNullChecksums) {
+            List<ChangeSet> changeSetsToUpdate = new ArrayList<ChangeSet>();
             for (RanChangeSet ranChangeSet : this.getRanChangeSetList()) {
                 if (ranChangeSet.getLastCheckSum() == null) {
                     ChangeSet changeSet = databaseChangeLog.getChangeSet(ranChangeSet);
                     if (changeSet != null && new ContextChangeSetFilter(contexts).accepts(changeSet) && new DbmsChangeSetFilter(this).accepts(changeSet)) {
                         LogFactory.getLogger().info("Updating null or out of date checksum on changeSet " + changeSet + " to correct value");
-                        executor.execute(new UpdateChangeSetChecksumStatement(changeSet));
+                        changeSetsToUpdate.add(changeSet);
                     }
                 }
             }
+            updateCheckSums(changeSetsToUpdate);
             commit();
             resetRanChangeSetList();
         }
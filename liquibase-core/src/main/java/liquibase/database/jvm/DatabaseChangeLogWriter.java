@@ -0,0 +1,202 @@
+package liquibase.database.jvm;
+
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGenerator;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.InsertGenerator;
+import liquibase.sqlgenerator.core.MarkChangeSetRanGenerator;
+import liquibase.sqlgenerator.core.UpdateChangeSetChecksumGenerator;
+import liquibase.sqlgenerator.core.UpdateGenerator;
+import liquibase.statement.DatabaseFunction;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.MarkChangeSetRanStatement;
+import liquibase.statement.core.UpdateChangeSetChecksumStatement;
+import liquibase.statement.core.UpdateStatement;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes DATABASECHANGELOG rows over a JDBC connection with PreparedStatements from the connection's {@link PreparedStatementCache},
+ * rather than generating and executing literal SQL for each changeSet.
+ * The rows are the inserts and updates built by {@link MarkChangeSetRanGenerator} and {@link UpdateChangeSetChecksumGenerator},
+ * with their values passed as parameters. Checksum updates passed together are sent as a single JDBC batch.
+ * <p/>
+ * The writer is only used when those generators, and the standard insert and update generators, are the ones the {@link SqlGeneratorFactory}
+ * would use for the statements. Otherwise the methods return false and the statement needs to be executed as usual.
+ */
+public class DatabaseChangeLogWriter {
+
+    private static final DatabaseFunction PARAMETER = new DatabaseFunction("?");
+
+    private Database database;
+    private JdbcConnection connection;
+
+    public DatabaseChangeLogWriter(Database database, JdbcConnection connection) {
+        this.database = database;
+        this.connection = connection;
+    }
+
+    /**
+     * Records the changeSet as ran with the given execType, as {@link MarkChangeSetRanStatement} would.
+     * Returns false without writing anything if the statement is generated by a different generator.
+     */
+    public boolean markChangeSetRan(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        MarkChangeSetRanStatement statement = new MarkChangeSetRanStatement(changeSet, execType);
+        if (!isGeneratedBy(statement, MarkChangeSetRanGenerator.class)) {
+            return false;
+        }
+        SqlStatement runStatement = ((MarkChangeSetRanGenerator) getGenerator(statement)).generateRunStatement(statement, database);
+        if (runStatement == null) {
+            return true;
+        }
+        if (!isGeneratedByDefault(runStatement)) {
+            return false;
+        }
+
+        List<Object> parameters = new ArrayList<Object>();
+        PreparedStatementCache cache = connection.getPreparedStatementCache();
+        PreparedStatement stmt = cache.get(toSql(runStatement, parameters));
+        try {
+            setParameters(stmt, parameters);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            cache.release(stmt);
+        }
+        return true;
+    }
+
+    /**
+     * Sets the stored checksum of each changeSet to its current value, as {@link UpdateChangeSetChecksumStatement} would, as a single batch.
+     * Returns false without writing anything if the statements are generated by a different generator.
+     */
+    public boolean updateCheckSums(Collection<ChangeSet> changeSets) throws DatabaseException {
+        if (changeSets.size() == 0) {
+            return true;
+        }
+
+        List<UpdateStatement> updateStatements = new ArrayList<UpdateStatement>();
+        for (ChangeSet changeSet : changeSets) {
+            UpdateChangeSetChecksumStatement statement = new UpdateChangeSetChecksumStatement(changeSet);
+            if (!isGeneratedBy(statement, UpdateChangeSetChecksumGenerator.class)) {
+                return false;
+            }
+            UpdateStatement updateStatement = ((UpdateChangeSetChecksumGenerator) getGenerator(statement)).generateUpdateStatement(statement, database);
+            if (!isGeneratedByDefault(updateStatement)) {
+                return false;
+            }
+            updateStatements.add(updateStatement);
+        }
+
+        PreparedStatementCache cache = connection.getPreparedStatementCache();
+        PreparedStatement batch = null;
+        String batchSql = null;
+        try {
+            for (UpdateStatement updateStatement : updateStatements) {
+                List<Object> parameters = new ArrayList<Object>();
+                String sql = toSql(updateStatement, parameters);
+                if (!sql.equals(batchSql)) {
+                    //send the pending batch before getting the next statement, which could evict it from the cache
+                    if (batch != null) {
+                        batch.executeBatch();
+                        cache.release(batch);
+                        batch = null;
+                    }
+                    batch = cache.get(sql);
+                    batchSql = sql;
+                }
+                setParameters(batch, parameters);
+                batch.addBatch();
+            }
+            batch.executeBatch();
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            cache.release(batch);
+        }
+        return true;
+    }
+
+    private SqlGenerator getGenerator(SqlStatement statement) {
+        return SqlGeneratorFactory.getInstance().getGenerator(statement, database);
+    }
+
+    /**
+     * Returns true if the head of the generator chain for the statement is exactly the given generator class, not a subclass or replacement of it.
+     */
+    private boolean isGeneratedBy(SqlStatement statement, Class<? extends SqlGenerator> generatorClass) {
+        SqlGenerator generator = getGenerator(statement);
+        return generator != null && generator.getClass().equals(generatorClass);
+    }
+
+    private boolean isGeneratedByDefault(SqlStatement statement) {
+        if (statement instanceof InsertStatement) {
+            return isGeneratedBy(statement, InsertGenerator.class);
+        } else if (statement instanceof UpdateStatement) {
+            return isGeneratedBy(statement, UpdateGenerator.class);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the SQL the {@link SqlGeneratorFactory} generates for the insert or update statement with a placeholder for each value,
+     * adding the values to the parameters. Database functions and nulls are left in the SQL.
+     */
+    private String toSql(SqlStatement statement, List<Object> parameters) {
+        SqlStatement parameterized;
+        if (statement instanceof InsertStatement) {
+            InsertStatement insertStatement = (InsertStatement) statement;
+            InsertStatement parameterizedInsert = new InsertStatement(insertStatement.getCatalogName(), insertStatement.getSchemaName(), insertStatement.getTableName());
+            for (Map.Entry<String, Object> entry : insertStatement.getColumnValues().entrySet()) {
+                parameterizedInsert.addColumnValue(entry.getKey(), toParameter(entry.getValue(), parameters));
+            }
+            parameterized = parameterizedInsert;
+        } else {
+            UpdateStatement updateStatement = (UpdateStatement) statement;
+            UpdateStatement parameterizedUpdate = new UpdateStatement(updateStatement.getCatalogName(), updateStatement.getSchemaName(), updateStatement.getTableName());
+            for (Map.Entry<String, Object> entry : updateStatement.getNewColumnValues().entrySet()) {
+                parameterizedUpdate.addNewColumnValue(entry.getKey(), toParameter(entry.getValue(), parameters));
+            }
+            parameterizedUpdate.setWhereClause(updateStatement.getWhereClause());
+            for (Object value : updateStatement.getWhereParameters()) {
+                parameterizedUpdate.addWhereParameter(toParameter(value, parameters));
+            }
+            parameterized = parameterizedUpdate;
+        }
+
+        Sql[] sql = SqlGeneratorFactory.getInstance().generateSql(parameterized, database);
+        if (sql == null || sql.length != 1) {
+            throw new UnexpectedLiquibaseException("Expected a single statement for " + statement.getClass().getName());
+        }
+        return sql[0].toSql();
+    }
+
+    /**
+     * Returns a placeholder the generators write as is in place of the value, adding the value to the parameters.
+     * Nulls and database functions are returned unchanged.
+     */
+    private Object toParameter(Object value, List<Object> parameters) {
+        if (value == null || value instanceof DatabaseFunction) {
+            return value;
+        }
+        parameters.add(value);
+        return PARAMETER;
+    }
+
+    private void setParameters(PreparedStatement stmt, List<Object> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            stmt.setObject(i + 1, parameters.get(i));
+        }
+    }
+}
@@ -15,11 +15,23 @@ import java.util.Map;
  */
 public class JdbcConnection implements DatabaseConnection {
     private java.sql.Connection con;
+    private PreparedStatementCache preparedStatementCache;
 
     public JdbcConnection(java.sql.Connection connection) {
         this.con = connection;
     }
 
+    /**
+     * Returns the cache of this connection's PreparedStatements, which are closed when the connection is closed.
+     * Its size is set by the "liquibase.preparedStatementCacheSize" system property, and 0 turns caching off.
+     */
+    public PreparedStatementCache getPreparedStatementCache() {
+        if (preparedStatementCache == null) {
+            preparedStatementCache = new PreparedStatementCache(this, Integer.getInteger("liquibase.preparedStatementCacheSize", PreparedStatementCache.DEFAULT_MAX_SIZE));
+        }
+        return preparedStatementCache;
+    }
+
     public String getDatabaseProductName() throws DatabaseException {
         try {
             return con.getMetaData().getDatabaseProductName();
@@ -86,6 +98,9 @@ public class JdbcConnection implements DatabaseConnection {
     }
 
     public void close() throws DatabaseException {
+        if (preparedStatementCache != null) {
+            preparedStatementCache.close();
+        }
         rollback();
         try {
             con.close();
@@ -0,0 +1,123 @@
+package liquibase.database.jvm;
+
+import liquibase.exception.DatabaseException;
+import liquibase.logging.LogFactory;
+import liquibase.util.JdbcUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the PreparedStatements of one {@link JdbcConnection}, keyed by SQL text.
+ * Statements are closed when they are evicted and when the cache is closed.
+ * <p/>
+ * Statements from {@link #get(String)} must be handed back with {@link #release(java.sql.PreparedStatement)} rather than closed,
+ * which clears their parameters so they can be reused.
+ * A cache with a maximum size of 0 prepares a new statement each time and closes it on release.
+ */
+public class PreparedStatementCache {
+
+    public static final int DEFAULT_MAX_SIZE = 20;
+
+    private JdbcConnection connection;
+    private int maxSize;
+    private LinkedHashMap<String, PreparedStatement> statements;
+
+    private long hits;
+    private long misses;
+
+    public PreparedStatementCache(JdbcConnection connection, int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > PreparedStatementCache.this.maxSize) {
+                    JdbcUtils.closeStatement(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached statement for the sql, preparing and caching it if there is none.
+     */
+    public PreparedStatement get(String sql) throws DatabaseException {
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt != null) {
+            hits++;
+            return stmt;
+        }
+        misses++;
+        stmt = connection.prepareStatement(sql);
+        if (maxSize > 0) {
+            statements.put(sql, stmt);
+        }
+        return stmt;
+    }
+
+    /**
+     * Hands back a statement from {@link #get(String)} once it has been executed.
+     * Cached statements have their parameters and batch cleared, others are closed.
+     */
+    public void release(PreparedStatement stmt) {
+        if (stmt == null) {
+            return;
+        }
+        if (!statements.containsValue(stmt)) {
+            JdbcUtils.closeStatement(stmt);
+            return;
+        }
+        try {
+            stmt.clearParameters();
+            stmt.clearBatch();
+        } catch (SQLException e) {
+            //cannot be reused, so drop it from the cache
+            statements.values().remove(stmt);
+            JdbcUtils.closeStatement(stmt);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * Returns the number of times {@link #get(String)} returned a cached statement.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of times {@link #get(String)} had to prepare a new statement.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Closes all cached statements.
+     */
+    public void close() {
+        if (hits > 0 || misses > 0) {
+            LogFactory.getLogger().debug("Prepared statement cache had " + hits + " hits and " + misses + " misses with a maximum size of " + maxSize);
+        }
+        for (PreparedStatement stmt : new ArrayList<PreparedStatement>(statements.values())) {
+            JdbcUtils.closeStatement(stmt);
+        }
+        statements.clear();
+    }
+}
@@ -0,0 +1,75 @@
+package liquibase.dbdoc;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Records, in a file in the dbDoc output directory, a hash of the inputs each page was last written from,
+ * so {@link HTMLWriter} can skip pages whose inputs have not changed when the documentation is generated again.
+ * <p/>
+ * The file is read and then deleted when the manifest is created and only written again by {@link #write()},
+ * so every page is written again after a run that did not complete. Safe to use from several threads.
+ */
+public class DBDocManifest {
+
+    public static final String FILE_NAME = "dbdoc.manifest";
+
+    private File rootOutputDir;
+    private File file;
+    private Properties inputHashes = new Properties();
+
+    public DBDocManifest(File rootOutputDir) throws IOException {
+        this.rootOutputDir = rootOutputDir;
+        this.file = new File(rootOutputDir, FILE_NAME);
+        if (file.exists()) {
+            InputStream inputStream = new FileInputStream(file);
+            try {
+                inputHashes.load(inputStream);
+            } finally {
+                inputStream.close();
+            }
+            if (!file.delete()) {
+                throw new IOException("Cannot delete " + file.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Returns true if the page exists and was last written from inputs with the given hash.
+     */
+    public boolean isCurrent(File page, String inputHash) {
+        return page.exists() && inputHash.equals(inputHashes.getProperty(getKey(page)));
+    }
+
+    public void put(File page, String inputHash) {
+        inputHashes.setProperty(getKey(page), inputHash);
+    }
+
+    public void remove(File page) {
+        inputHashes.remove(getKey(page));
+    }
+
+    public void write() throws IOException {
+        rootOutputDir.mkdirs();
+        OutputStream outputStream = new FileOutputStream(file, false);
+        try {
+            inputHashes.store(outputStream, "Hashes of the inputs dbDoc pages were written from");
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private String getKey(File page) {
+        String rootPath = rootOutputDir.getAbsolutePath() + File.separator;
+        String path = page.getAbsolutePath();
+        if (path.startsWith(rootPath)) {
+            path = path.substring(rootPath.length());
+        }
+        return path.replace(File.separatorChar, '/');
+    }
+}
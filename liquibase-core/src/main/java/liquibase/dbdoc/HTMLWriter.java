@@ -1,24 +1,35 @@
 package liquibase.dbdoc;
 
 import liquibase.change.Change;
+import liquibase.change.CheckSum;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.DatabaseHistoryException;
+import liquibase.structure.DatabaseObject;
 import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
 import liquibase.util.StringUtils;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.text.DateFormat;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
 public abstract class HTMLWriter {
     protected File outputDir;
     protected Database database;
 
+    private DBDocManifest manifest;
+    private Map<ChangeSet, ChangeSet.RunStatus> runStatuses;
+    private Map<ChangeSet, Date> ranDates;
+    private Map<Change, CheckSum> checkSums;
+
     public HTMLWriter(File outputDir, Database database) {
         this.outputDir = outputDir;
         this.database = database;
@@ -29,12 +40,53 @@ public abstract class HTMLWriter {
 
     protected abstract void writeCustomHTML(FileWriter fileWriter, Object object, List<Change> changes, Database database) throws IOException;
 
-    private FileWriter createFileWriter(Object object) throws IOException {
-        return new FileWriter(new File(outputDir, object.toString().toLowerCase() + ".html"));
+    /**
+     * Sets the manifest used to skip pages whose inputs have not changed since they were last written. Every page is written if it is not set.
+     */
+    public void setManifest(DBDocManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    /**
+     * Sets the run status of the changeSets being documented, so pages do not read them from the database while they are written.
+     */
+    public void setRunStatuses(Map<ChangeSet, ChangeSet.RunStatus> runStatuses) {
+        this.runStatuses = runStatuses;
+    }
+
+    /**
+     * Sets the dates the changeSets being documented were ran, so pages do not read them from the database while they are written.
+     */
+    public void setRanDates(Map<ChangeSet, Date> ranDates) {
+        this.ranDates = ranDates;
+    }
+
+    /**
+     * Sets the checksums of the changes being documented, so they are not computed again for each page they are on.
+     */
+    public void setCheckSums(Map<Change, CheckSum> checkSums) {
+        this.checkSums = checkSums;
+    }
+
+    /**
+     * Returns the file the page for the given object is written to.
+     */
+    public File getFile(Object object) {
+        return new File(outputDir, object.toString().toLowerCase() + ".html");
     }
 
     public void writeHTML(Object object, List<Change> ranChanges, List<Change> changesToRun, String changeLog) throws IOException, DatabaseHistoryException, DatabaseException {
-        FileWriter fileWriter = createFileWriter(object);
+        File file = getFile(object);
+        String inputHash = null;
+        if (manifest != null) {
+            inputHash = computeInputHash(object, ranChanges, changesToRun, changeLog);
+            if (manifest.isCurrent(file, inputHash)) {
+                return;
+            }
+            manifest.remove(file); //not current until completely written
+        }
+
+        FileWriter fileWriter = new FileWriter(file);
 
 
         try {
@@ -54,6 +106,98 @@ public abstract class HTMLWriter {
             fileWriter.close();
         }
 
+        if (manifest != null) {
+            manifest.put(file, inputHash);
+        }
+    }
+
+    /**
+     * Returns a hash of everything the page for the given object is written from, other than the time it is generated.
+     * The object is included with its attributes and those of the objects in its attributes, such as the columns of a table.
+     */
+    protected String computeInputHash(Object object, List<Change> ranChanges, List<Change> changesToRun, String changeLog) throws DatabaseHistoryException, DatabaseException {
+        StringBuilder inputs = new StringBuilder();
+        inputs.append(getClass().getName()).append("\n")
+                .append(LiquibaseUtil.getBuildVersion()).append("\n")
+                .append(database.toString()).append("\n")
+                .append(changeLog).append("\n")
+                .append(createTitle(object)).append("\n");
+        appendObject(inputs, object, 2);
+
+        appendChanges(inputs, "ran", ranChanges);
+        appendChanges(inputs, "toRun", changesToRun);
+
+        return MD5Util.computeMD5(inputs.toString());
+    }
+
+    private void appendObject(StringBuilder inputs, Object object, int attributeDepth) {
+        if (object instanceof DatabaseObject) {
+            DatabaseObject databaseObject = (DatabaseObject) object;
+            inputs.append(databaseObject.getObjectTypeName()).append(" ").append(databaseObject.toString()).append("\n");
+            if (attributeDepth > 0) {
+                for (String attribute : new TreeSet<String>(databaseObject.getAttributes())) {
+                    inputs.append(attribute).append("=");
+                    Object value = databaseObject.getAttribute(attribute, Object.class);
+                    if (value instanceof Collection) {
+                        inputs.append("\n");
+                        for (Object item : (Collection) value) {
+                            appendObject(inputs, item, attributeDepth - 1);
+                        }
+                    } else {
+                        appendObject(inputs, value, 0); //only the name of the schema, table etc. the object is in
+                    }
+                }
+            }
+        } else {
+            inputs.append(object).append("\n");
+        }
+    }
+
+    private void appendChanges(StringBuilder inputs, String title, List<Change> changes) throws DatabaseHistoryException, DatabaseException {
+        inputs.append(title).append(":\n");
+        if (changes == null) {
+            return;
+        }
+        for (Change change : changes) {
+            ChangeSet changeSet = change.getChangeSet();
+            ChangeSet.RunStatus runStatus = getRunStatus(changeSet);
+            inputs.append(changeSet.toString(false)).append(" ").append(runStatus);
+            if (runStatus.equals(ChangeSet.RunStatus.ALREADY_RAN)) {
+                inputs.append(" ").append(getRanDate(changeSet).getTime());
+            }
+            inputs.append(" ").append(changeSet.getComments()).append("\n")
+                    .append(change.getConfirmationMessage()).append(" ").append(getCheckSum(change)).append("\n");
+        }
+    }
+
+    protected ChangeSet.RunStatus getRunStatus(ChangeSet changeSet) throws DatabaseHistoryException, DatabaseException {
+        if (runStatuses != null) {
+            ChangeSet.RunStatus runStatus = runStatuses.get(changeSet);
+            if (runStatus != null) {
+                return runStatus;
+            }
+        }
+        return database.getRunStatus(changeSet);
+    }
+
+    protected Date getRanDate(ChangeSet changeSet) throws DatabaseHistoryException, DatabaseException {
+        if (ranDates != null) {
+            Date ranDate = ranDates.get(changeSet);
+            if (ranDate != null) {
+                return ranDate;
+            }
+        }
+        return database.getRanDate(changeSet);
+    }
+
+    protected CheckSum getCheckSum(Change change) {
+        if (checkSums != null) {
+            CheckSum checkSum = checkSums.get(change);
+            if (checkSum != null) {
+                return checkSum;
+            }
+        }
+        return change.generateCheckSum();
     }
 
     private void writeFooter(FileWriter fileWriter, String changeLog) throws IOException {
@@ -137,14 +281,14 @@ public abstract class HTMLWriter {
                     writeTD(fileWriter, change.getChangeSet().getId());
                     writeTD(fileWriter, "<a href='../authors/"+change.getChangeSet().getAuthor().toLowerCase()+".html'>"+change.getChangeSet().getAuthor().toLowerCase()+"</a>");
 
-                    ChangeSet.RunStatus runStatus = database.getRunStatus(change.getChangeSet());
+                    ChangeSet.RunStatus runStatus = getRunStatus(change.getChangeSet());
                     if (runStatus.equals(ChangeSet.RunStatus.NOT_RAN)) {
                         String anchor = change.getChangeSet().toString(false).replaceAll("\\W","_");
                         writeTD(fileWriter, "NOT YET RAN [<a href='../pending/sql.html#"+ anchor +"'>SQL</a>]");
                     } else if (runStatus.equals(ChangeSet.RunStatus.INVALID_MD5SUM)) {
                         writeTD(fileWriter, "INVALID MD5SUM");
                     } else if (runStatus.equals(ChangeSet.RunStatus.ALREADY_RAN)) {
-                        writeTD(fileWriter, "Executed "+ DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(database.getRanDate(change.getChangeSet())));
+                        writeTD(fileWriter, "Executed "+ DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(getRanDate(change.getChangeSet())));
                     } else if (runStatus.equals(ChangeSet.RunStatus.RUN_AGAIN)) {
                         writeTD(fileWriter, "Executed, WILL RUN AGAIN");
                     } else {
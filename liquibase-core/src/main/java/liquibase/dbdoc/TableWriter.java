@@ -2,6 +2,7 @@ package liquibase.dbdoc;
 
 import liquibase.change.Change;
 import liquibase.database.Database;
+import liquibase.datatype.DataTypeFactory;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.Table;
 
@@ -35,7 +36,7 @@ public class TableWriter extends HTMLWriter {
 
         for (Column column : table.getColumns()) {
             String remarks = column.getRemarks();
-            cells.add(Arrays.asList(TypeConverterFactory.getInstance().findTypeConverter(database).convertToDatabaseTypeString(column, database),
+            cells.add(Arrays.asList(DataTypeFactory.getInstance().from(column.getType()).toDatabaseDataType(database).toSql(),
                     "<A HREF=\"../columns/" + table.getName().toLowerCase() + "." + column.getName().toLowerCase() + ".html" + "\">" + column.getName() + "</A>",
                     remarks != null ? remarks : ""));
             //todo: add foreign key info to columns?
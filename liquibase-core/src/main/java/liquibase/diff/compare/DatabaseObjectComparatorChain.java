@@ -39,6 +39,26 @@ public class DatabaseObjectComparatorChain {
         return comparators.next().isSameObject(object1, object2, accordingTo, this);
     }
 
+    public String getIdentityKey(DatabaseObject object, Database accordingTo) {
+        if (object == null) {
+            return null;
+        }
+
+        if (comparators == null) {
+            return "";
+        }
+
+        if (!comparators.hasNext()) {
+            return "";
+        }
+
+        DatabaseObjectComparator comparator = comparators.next();
+        if (!(comparator instanceof IdentityKeyedComparator)) {
+            return null;
+        }
+        return ((IdentityKeyedComparator) comparator).getIdentityKey(object, accordingTo, this);
+    }
+
     public ObjectDifferences findDifferences(DatabaseObject object1, DatabaseObject object2, Database accordingTo) {
         if (object1 == null && object2 == null) {
             return new ObjectDifferences();
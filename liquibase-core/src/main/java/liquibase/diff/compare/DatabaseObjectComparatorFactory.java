@@ -86,6 +86,21 @@ public class DatabaseObjectComparatorFactory {
         return createComparatorChain(object1.getClass(), accordingTo).isSameObject(object1, object2, accordingTo);
     }
 
+    /**
+     * Returns the identity key of the object according to the comparators for its type, or null if it cannot be keyed.
+     * @see IdentityKeyedComparator#getIdentityKey(DatabaseObject, Database, DatabaseObjectComparatorChain)
+     */
+    public String getIdentityKey(DatabaseObject object, Database accordingTo) {
+        if (object == null) {
+            return null;
+        }
+        DatabaseObjectComparatorChain chain = createComparatorChain(object.getClass(), accordingTo);
+        if (chain == null) {
+            return "";
+        }
+        return chain.getIdentityKey(object, accordingTo);
+    }
+
     public ObjectDifferences findDifferences(DatabaseObject object1, DatabaseObject object2, Database accordingTo) {
         return createComparatorChain(object1.getClass(), accordingTo).findDifferences(object1, object2, accordingTo);
 
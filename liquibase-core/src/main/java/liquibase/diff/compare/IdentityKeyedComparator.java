@@ -0,0 +1,19 @@
+package liquibase.diff.compare;
+
+import liquibase.database.Database;
+import liquibase.structure.DatabaseObject;
+
+/**
+ * Optional interface for {@link DatabaseObjectComparator}s that can compute a key for the objects they compare, so objects can be
+ * looked up by key rather than compared against every other object.
+ * If any comparator in the chain for a type does not implement it, objects of that type are not keyed.
+ */
+public interface IdentityKeyedComparator extends DatabaseObjectComparator {
+
+    /**
+     * Returns a key for the given object such that objects considered the same by {@link #isSameObject(DatabaseObject, DatabaseObject, Database, DatabaseObjectComparatorChain)}
+     * always have equal keys. Objects with equal keys are not necessarily the same object.
+     * Return null if no such key can be computed, in which case the object must be compared against every other object.
+     */
+    String getIdentityKey(DatabaseObject databaseObject, Database accordingTo, DatabaseObjectComparatorChain chain);
+}
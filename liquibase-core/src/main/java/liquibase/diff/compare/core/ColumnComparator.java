@@ -2,14 +2,14 @@ package liquibase.diff.compare.core;
 
 import liquibase.database.Database;
 import liquibase.diff.ObjectDifferences;
-import liquibase.diff.compare.DatabaseObjectComparator;
 import liquibase.diff.compare.DatabaseObjectComparatorChain;
+import liquibase.diff.compare.IdentityKeyedComparator;
 import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.Index;
 
-public class ColumnComparator implements DatabaseObjectComparator {
+public class ColumnComparator implements IdentityKeyedComparator {
     public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
         if (Column.class.isAssignableFrom(objectType)) {
             return PRIORITY_TYPE;
@@ -32,6 +32,18 @@ public class ColumnComparator implements DatabaseObjectComparator {
         return chain.isSameObject(databaseObject1, databaseObject2, accordingTo);
     }
 
+    public String getIdentityKey(DatabaseObject databaseObject, Database accordingTo, DatabaseObjectComparatorChain chain) {
+        if (!(databaseObject instanceof Column)) {
+            return null;
+        }
+
+        String relationKey = DatabaseObjectComparatorFactory.getInstance().getIdentityKey(((Column) databaseObject).getRelation(), accordingTo);
+        String nameKey = chain.getIdentityKey(databaseObject, accordingTo);
+        if (relationKey == null || nameKey == null) {
+            return null;
+        }
+        return relationKey + "." + nameKey;
+    }
 
     public ObjectDifferences findDifferences(DatabaseObject databaseObject1, DatabaseObject databaseObject2, Database accordingTo, DatabaseObjectComparatorChain chain) {
         ObjectDifferences differences = chain.findDifferences(databaseObject1, databaseObject2, accordingTo);
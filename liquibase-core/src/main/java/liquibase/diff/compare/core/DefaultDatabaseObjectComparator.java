@@ -3,10 +3,10 @@ package liquibase.diff.compare.core;
 import liquibase.database.Database;
 import liquibase.diff.ObjectDifferences;
 import liquibase.structure.DatabaseObject;
-import liquibase.diff.compare.DatabaseObjectComparator;
 import liquibase.diff.compare.DatabaseObjectComparatorChain;
+import liquibase.diff.compare.IdentityKeyedComparator;
 
-public final class DefaultDatabaseObjectComparator implements DatabaseObjectComparator {
+public final class DefaultDatabaseObjectComparator implements IdentityKeyedComparator {
     public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
         return PRIORITY_DEFAULT;
     }
@@ -19,6 +19,10 @@ public final class DefaultDatabaseObjectComparator implements DatabaseObjectComp
 
     }
 
+    public String getIdentityKey(DatabaseObject databaseObject, Database accordingTo, DatabaseObjectComparatorChain chain) {
+        return accordingTo.correctObjectName(databaseObject.getName(), databaseObject.getClass());
+    }
+
     public ObjectDifferences findDifferences(DatabaseObject databaseObject1, DatabaseObject databaseObject2, Database accordingTo, DatabaseObjectComparatorChain chain) {
         String object1Name = accordingTo.correctObjectName(databaseObject1.getName(), databaseObject1.getClass());
         String object2Name = accordingTo.correctObjectName(databaseObject2.getName(), databaseObject2.getClass());
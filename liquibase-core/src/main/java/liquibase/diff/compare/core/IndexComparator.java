@@ -6,11 +6,11 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.Index;
-import liquibase.diff.compare.DatabaseObjectComparator;
 import liquibase.diff.compare.DatabaseObjectComparatorChain;
+import liquibase.diff.compare.IdentityKeyedComparator;
 import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 
-public class IndexComparator implements DatabaseObjectComparator {
+public class IndexComparator implements IdentityKeyedComparator {
     public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
         if (Index.class.isAssignableFrom(objectType)) {
             return PRIORITY_TYPE;
@@ -51,6 +51,9 @@ public class IndexComparator implements DatabaseObjectComparator {
         return true;
     }
 
+    public String getIdentityKey(DatabaseObject databaseObject, Database accordingTo, DatabaseObjectComparatorChain chain) {
+        return null; //indexes match on name or on table and columns, which no single key covers
+    }
 
     public ObjectDifferences findDifferences(DatabaseObject databaseObject1, DatabaseObject databaseObject2, Database accordingTo, DatabaseObjectComparatorChain chain) {
         ObjectDifferences differences = chain.findDifferences(databaseObject1, databaseObject2, accordingTo);
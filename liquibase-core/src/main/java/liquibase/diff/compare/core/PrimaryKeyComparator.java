@@ -2,13 +2,13 @@ package liquibase.diff.compare.core;
 
 import liquibase.database.Database;
 import liquibase.diff.ObjectDifferences;
-import liquibase.diff.compare.DatabaseObjectComparator;
 import liquibase.diff.compare.DatabaseObjectComparatorChain;
+import liquibase.diff.compare.IdentityKeyedComparator;
 import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.PrimaryKey;
 
-public class PrimaryKeyComparator implements DatabaseObjectComparator {
+public class PrimaryKeyComparator implements IdentityKeyedComparator {
     public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
         if (PrimaryKey.class.isAssignableFrom(objectType)) {
             return PRIORITY_TYPE;
@@ -27,6 +27,12 @@ public class PrimaryKeyComparator implements DatabaseObjectComparator {
         return DatabaseObjectComparatorFactory.getInstance().isSameObject(thisPrimaryKey.getTable(), otherPrimaryKey.getTable(), accordingTo);
     }
 
+    public String getIdentityKey(DatabaseObject databaseObject, Database accordingTo, DatabaseObjectComparatorChain chain) {
+        if (!(databaseObject instanceof PrimaryKey)) {
+            return null;
+        }
+        return DatabaseObjectComparatorFactory.getInstance().getIdentityKey(((PrimaryKey) databaseObject).getTable(), accordingTo);
+    }
 
     public ObjectDifferences findDifferences(DatabaseObject databaseObject1, DatabaseObject databaseObject2, Database accordingTo, DatabaseObjectComparatorChain chain) {
         ObjectDifferences differences = chain.findDifferences(databaseObject1, databaseObject2, accordingTo);
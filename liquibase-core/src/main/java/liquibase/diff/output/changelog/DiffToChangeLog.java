@@ -14,6 +14,7 @@ import liquibase.logging.LogFactory;
 import liquibase.serializer.ChangeLogSerializer;
 import liquibase.serializer.ChangeLogSerializerFactory;
 import liquibase.serializer.core.xml.XMLChangeLogSerializer;
+import liquibase.serializer.core.xml.XMLChangeLogStreamWriter;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.*;
 import liquibase.util.StringUtils;
@@ -60,6 +61,21 @@ public class DiffToChangeLog {
             FileOutputStream stream = new FileOutputStream(file);
             print(new PrintStream(stream), changeLogSerializer);
             stream.close();
+        } else if (changeLogSerializer instanceof XMLChangeLogSerializer) {
+            LogFactory.getLogger().info(file + " exists, appending");
+            //write each changeSet as it is generated rather than building them all first
+            boolean appended = ((XMLChangeLogSerializer) changeLogSerializer).append(file, new XMLChangeLogSerializer.ChangeSetSource() {
+                public void writeTo(final XMLChangeLogStreamWriter writer) throws IOException {
+                    generateChangeSets(new ChangeSetHandler() {
+                        public void handle(ChangeSet changeSet) throws IOException {
+                            writer.write(changeSet);
+                        }
+                    });
+                }
+            });
+            if (!appended) {
+                LogFactory.getLogger().info("No changes found, nothing to do");
+            }
         } else {
             LogFactory.getLogger().info(file + " exists, appending");
             ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -116,18 +132,46 @@ public class DiffToChangeLog {
      * the reference database
      */
     public void print(PrintStream out, ChangeLogSerializer changeLogSerializer) throws ParserConfigurationException, IOException, DatabaseException {
+        if (changeLogSerializer instanceof XMLChangeLogSerializer) {
+            //write each changeSet as it is generated rather than building them all first
+            final XMLChangeLogStreamWriter writer = ((XMLChangeLogSerializer) changeLogSerializer).createWriter(out);
+            writer.begin();
+            generateChangeSets(new ChangeSetHandler() {
+                public void handle(ChangeSet changeSet) throws IOException {
+                    writer.write(changeSet);
+                }
+            });
+            writer.end();
+        } else {
+            List<ChangeSet> changeSets = generateChangeSets();
 
-        List<ChangeSet> changeSets = generateChangeSets();
-
-        changeLogSerializer.write(changeSets, out);
+            changeLogSerializer.write(changeSets, out);
+        }
 
         out.flush();
     }
 
     public List<ChangeSet> generateChangeSets() {
+        final List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        try {
+            generateChangeSets(new ChangeSetHandler() {
+                public void handle(ChangeSet changeSet) {
+                    changeSets.add(changeSet);
+                }
+            });
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return changeSets;
+    }
+
+    /**
+     * Generates the changeSets in the same order as {@link #generateChangeSets()}, passing each one to the handler as soon as it is generated
+     * so they do not all need to be held in memory.
+     */
+    public void generateChangeSets(ChangeSetHandler changeSets) throws IOException {
         final ChangeGeneratorFactory changeGeneratorFactory = ChangeGeneratorFactory.getInstance();
 
-        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
         List<Class<? extends DatabaseObject>> types = getOrderedOutputTypes(MissingObjectChangeGenerator.class);
         for (Class<? extends DatabaseObject> type : types) {
             ObjectQuotingStrategy quotingStrategy = ObjectQuotingStrategy.LEGACY;
@@ -178,7 +222,6 @@ public class DiffToChangeLog {
                 }
             }
         }
-        return changeSets;
     }
 
     private List<Class<? extends DatabaseObject>> getOrderedOutputTypes(Class<? extends ChangeGenerator> generatorType) {
@@ -202,10 +245,10 @@ public class DiffToChangeLog {
         return types;
     }
 
-    private void addToChangeSets(Change[] changes, List<ChangeSet> changeSets, ObjectQuotingStrategy quotingStrategy) {
+    private void addToChangeSets(Change[] changes, ChangeSetHandler changeSets, ObjectQuotingStrategy quotingStrategy) throws IOException {
         if (changes != null) {
             for (Change change : changes) {
-                changeSets.add(generateChangeSet(change, quotingStrategy));
+                changeSets.handle(generateChangeSet(change, quotingStrategy));
             }
         }
     }
@@ -523,4 +566,11 @@ public class DiffToChangeLog {
             }
         }
     }
+
+    /**
+     * Receives changeSets as they are generated by {@link DiffToChangeLog#generateChangeSets(ChangeSetHandler)}.
+     */
+    public interface ChangeSetHandler {
+        void handle(ChangeSet changeSet) throws IOException;
+    }
 }
@@ -0,0 +1,322 @@
+package liquibase.lockservice;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LockException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.logging.LogFactory;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.LockDatabaseChangeLogStatement;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.statement.core.RenewDatabaseChangeLogLockStatement;
+import liquibase.statement.core.UnlockDatabaseChangeLogStatement;
+import liquibase.util.NetUtil;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LockService that treats the changelog lock as a lease.
+ * While the lock is held, a background heartbeat renews LOCKGRANTED every heartbeat interval over its own connection from the
+ * {@link #setHeartbeatDataSource(DataSource) heartbeat DataSource}, so the lease stays held however long a changeSet runs.
+ * A lock whose LOCKGRANTED is older than the lease duration is considered abandoned and is taken over by the next process to ask for it.
+ * Waiting processes retry with exponential backoff and jitter rather than at a fixed interval.
+ * <p>
+ * Without a heartbeat DataSource the lease cannot be renewed while changeSets run, so locks are neither renewed nor taken over, as with {@link LockServiceImpl}.
+ * All processes sharing a changelog lock table should be configured alike.
+ * LOCKGRANTED is set from, and compared against, the database clock, so differences between the clocks of the clients do not matter.
+ * <p>
+ * Enabled by setting the "liquibase.lockService.lease" system property to true, in which case it takes priority over {@link LockServiceImpl}.
+ * The "liquibase.lockService.leaseDuration" and "liquibase.lockService.heartbeatInterval" system properties set the defaults, in milliseconds.
+ */
+public class LeaseLockService extends LockServiceImpl {
+
+    public static final String ENABLED_PROPERTY = "liquibase.lockService.lease";
+
+    private static final long MIN_RECHECK_TIME = 100;
+
+    private long leaseDuration = Long.getLong("liquibase.lockService.leaseDuration", 1000 * 60 * 5);  //default to 5 mins
+    private long heartbeatInterval = Long.getLong("liquibase.lockService.heartbeatInterval", 1000 * 30);  //default to every 30 seconds
+    private String lockedBy;
+    private Random random = new Random();
+    private DataSource heartbeatDataSource;
+    private ScheduledExecutorService heartbeat;
+    private volatile boolean leaseLost;
+
+    public LeaseLockService() {
+        String host;
+        try {
+            InetAddress localHost = NetUtil.getLocalHost();
+            host = localHost.getHostName() + " (" + localHost.getHostAddress() + ")";
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        lockedBy = host + " #" + Long.toHexString(random.nextLong() & Long.MAX_VALUE);
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DEFAULT + 1;
+    }
+
+    @Override
+    public boolean supports(Database database) {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    public long getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public void setLeaseDuration(long leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+
+    public long getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(long heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public DataSource getHeartbeatDataSource() {
+        return heartbeatDataSource;
+    }
+
+    /**
+     * Sets the DataSource the heartbeat renews the lease over. It must connect to the same database as the service's {@link Database}.
+     * If null, which is the default, leases are not used.
+     */
+    public void setHeartbeatDataSource(DataSource heartbeatDataSource) {
+        this.heartbeatDataSource = heartbeatDataSource;
+    }
+
+    /**
+     * Returns false once the heartbeat found the lease was taken over by another process.
+     */
+    @Override
+    public boolean hasChangeLogLock() {
+        return super.hasChangeLogLock() && !leaseLost;
+    }
+
+    /**
+     * Returns the LOCKEDBY value this service locks with. It is unique to this service instance.
+     */
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    /**
+     * Waits twice as long after each failed attempt, starting at 100ms and capped at the recheck time, with the wait randomized over its upper half.
+     */
+    @Override
+    protected long getRecheckTime(int attempt) {
+        long maxRecheckTime = Math.max(MIN_RECHECK_TIME, getChangeLogLockRecheckTime());
+        long recheckTime = MIN_RECHECK_TIME << Math.min(attempt, 30);
+        if (recheckTime <= 0 || recheckTime > maxRecheckTime) {
+            recheckTime = maxRecheckTime;
+        }
+        return recheckTime / 2 + (long) (random.nextDouble() * (recheckTime / 2));
+    }
+
+    @Override
+    public boolean acquireLock() throws LockException {
+        if (hasChangeLogLock()) {
+            return true;
+        }
+
+        Database database = getDatabase();
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+
+        try {
+            database.rollback();
+            database.checkDatabaseChangeLogLockTable();
+
+            Date expiredBefore = null;
+            if (heartbeatDataSource != null) {
+                long expiredBeforeTime = getDatabaseTime().getTime() - leaseDuration;
+                expiredBeforeTime -= expiredBeforeTime % 1000; //whole seconds, so it compares the same however the database rounds timestamp literals
+                expiredBefore = new Date(expiredBeforeTime);
+            }
+            executor.comment("Lock Database");
+            int rowsUpdated = executor.update(new LockDatabaseChangeLogStatement(lockedBy, expiredBefore));
+            if (rowsUpdated > 1) {
+                throw new LockException("Did not update change log lock correctly");
+            }
+            if (rowsUpdated == 0) {
+                // locked by another node with an unexpired lease
+                return false;
+            }
+            database.commit();
+            LogFactory.getLogger().info("Successfully acquired change log lock");
+
+            leaseLost = false;
+            setHasChangeLogLock(true);
+            startHeartbeat();
+
+            database.setCanCacheLiquibaseTableInfo(true);
+            return true;
+        } catch (LockException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LockException(e);
+        } finally {
+            try {
+                database.rollback();
+            } catch (DatabaseException e) {
+                ;
+            }
+        }
+    }
+
+    /**
+     * Returns the current time of the database clock, which lease expiry is measured against.
+     */
+    protected Date getDatabaseTime() throws DatabaseException {
+        Database database = getDatabase();
+        String liquibaseCatalog = database.getLiquibaseCatalogName();
+        String liquibaseSchema = database.getLiquibaseSchemaName();
+        String lockTable = database.getDatabaseChangeLogLockTableName();
+        String sql = "SELECT " + database.getCurrentDateTimeFunction() + " FROM " + database.escapeTableName(liquibaseCatalog, liquibaseSchema, lockTable)
+                + " WHERE " + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, lockTable, "ID") + " = 1";
+        Date databaseTime = (Date) ExecutorService.getInstance().getExecutor(database).queryForObject(new RawSqlStatement(sql), Timestamp.class);
+        if (databaseTime == null) {
+            throw new DatabaseException("Cannot read the current time from " + lockTable);
+        }
+        return databaseTime;
+    }
+
+    /**
+     * Starts renewing the lease every heartbeat interval on a daemon thread, if a heartbeat DataSource is set.
+     */
+    private synchronized void startHeartbeat() {
+        if (heartbeatDataSource == null || heartbeat != null) {
+            return;
+        }
+        if (!ExecutorService.getInstance().getExecutor(getDatabase()).updatesDatabase()) { //only generating sql
+            return;
+        }
+        heartbeat = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Liquibase lock heartbeat " + lockedBy);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        long interval = Math.max(1, heartbeatInterval);
+        heartbeat.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    renewLease();
+                } catch (LockException e) {
+                    LogFactory.getLogger().severe(e.getMessage(), e);
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopHeartbeat() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+            heartbeat = null;
+        }
+    }
+
+    /**
+     * Renews the lease over a connection from the heartbeat DataSource if this service holds the lock.
+     * Called by the heartbeat every heartbeat interval; does nothing if no heartbeat DataSource is set.
+     *
+     * @throws LockException if the lease expired and was taken over by another process
+     */
+    public void renewLease() throws LockException {
+        if (heartbeatDataSource == null || !hasChangeLogLock()) {
+            return;
+        }
+
+        int rowsUpdated = 0;
+        try {
+            Connection connection = heartbeatDataSource.getConnection();
+            try {
+                for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(new RenewDatabaseChangeLogLockStatement(lockedBy), getDatabase())) {
+                    Statement statement = connection.createStatement();
+                    try {
+                        rowsUpdated += statement.executeUpdate(sql.toSql());
+                    } finally {
+                        statement.close();
+                    }
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+            } finally {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            throw new LockException(e);
+        }
+        if (rowsUpdated != 1) {
+            leaseLost = true;
+            stopHeartbeat();
+            throw new LockException("Change log lock lease held by " + lockedBy + " expired and was taken over by another process");
+        }
+    }
+
+    /**
+     * Releases the lock only if it is still held by this service, so a lease that was taken over is not released.
+     */
+    @Override
+    public void releaseLock() throws LockException {
+        stopHeartbeat();
+        Database database = getDatabase();
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        try {
+            if (database.hasDatabaseChangeLogLockTable()) {
+                executor.comment("Release Database Lock");
+                database.rollback();
+                int updatedRows = executor.update(new UnlockDatabaseChangeLogStatement(lockedBy));
+                if (updatedRows != 1) {
+                    LogFactory.getLogger().warning("Change log lock was no longer held by " + lockedBy + ", not releasing it");
+                }
+                database.commit();
+            }
+        } catch (Exception e) {
+            throw new LockException(e);
+        } finally {
+            try {
+                setHasChangeLogLock(false);
+
+                database.setCanCacheLiquibaseTableInfo(false);
+
+                LogFactory.getLogger().info("Successfully released change log lock");
+                database.rollback();
+            } catch (DatabaseException e) {
+                ;
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        stopHeartbeat();
+        super.reset();
+    }
+
+    @Override
+    public void forceReleaseLock() throws LockException, DatabaseException {
+        getDatabase().checkDatabaseChangeLogLockTable();
+        super.releaseLock();
+    }
+}
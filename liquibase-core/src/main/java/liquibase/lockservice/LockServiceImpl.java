@@ -42,6 +42,14 @@ public class LockServiceImpl implements LockService {
         this.database = database;
     }
 
+    protected Database getDatabase() {
+        return database;
+    }
+
+    protected void setHasChangeLogLock(boolean hasChangeLogLock) {
+        this.hasChangeLogLock = hasChangeLogLock;
+    }
+
     public void setChangeLogLockWaitTime(long changeLogLockWaitTime) {
         this.changeLogLockWaitTime = changeLogLockWaitTime;
     }
@@ -50,6 +58,17 @@ public class LockServiceImpl implements LockService {
         this.changeLogLocRecheckTime = changeLogLocRecheckTime;
     }
 
+    public long getChangeLogLockRecheckTime() {
+        return changeLogLocRecheckTime;
+    }
+
+    /**
+     * Returns how long to wait before the given retry of {@link #acquireLock()}, starting at 0. Defaults to the recheck time for every attempt.
+     */
+    protected long getRecheckTime(int attempt) {
+        return changeLogLocRecheckTime;
+    }
+
     public boolean hasChangeLogLock() {
         return hasChangeLogLock;
     }
@@ -57,13 +76,14 @@ public class LockServiceImpl implements LockService {
     public void waitForLock() throws LockException {
 
         boolean locked = false;
+        int attempt = 0;
         long timeToGiveUp = new Date().getTime() + changeLogLockWaitTime;
         while (!locked && new Date().getTime() < timeToGiveUp) {
             locked = acquireLock();
             if (!locked) {
                 LogFactory.getLogger().info("Waiting for changelog lock....");
                 try {
-                    Thread.sleep(changeLogLocRecheckTime);
+                    Thread.sleep(getRecheckTime(attempt++));
                 } catch (InterruptedException e) {
                     ;
                 }
@@ -3,11 +3,11 @@ package liquibase.logging;
 import liquibase.exception.ServiceNotFoundException;
 import liquibase.servicelocator.ServiceLocator;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class LogFactory {
-    private static Map<String, Logger> loggers = new HashMap<String, Logger>();
+    private static ConcurrentMap<String, Logger> loggers = new ConcurrentHashMap<String, Logger>();
     private static String defaultLoggingLevel = "info";
 
     public static Logger getLogger(String name) {
@@ -20,7 +20,7 @@ public class LogFactory {
             }
             value.setName(name);
             value.setLogLevel(defaultLoggingLevel);
-            loggers.put(name, value);
+            loggers.putIfAbsent(name, value);
         }
 
         return loggers.get(name);
@@ -0,0 +1,137 @@
+package liquibase.parser.core.xml;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import liquibase.change.ChangeFactory;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.precondition.PreconditionFactory;
+import liquibase.resource.ResourceAccessor;
+import liquibase.sql.visitor.SqlVisitorFactory;
+
+/**
+ * Parses the changelogs included by an XML changelog on a bounded pool of threads while the including changelog is still being parsed.
+ * The including changelog adds their changeSets in declaration order once they are parsed.
+ * Enabled by setting the {@value #THREADS_PROPERTY} system property to more than 1.
+ * <p/>
+ * Each included changelog is parsed with a copy of the changelog parameters as they were when its include was read.
+ * That gives the same result as a serial parse unless an included changelog sets parameters, which later changelogs could use,
+ * so then {@link #getSerialParseReason()} is set and the changelog must be parsed again serially.
+ * <p/>
+ * A thread waiting for an included changelog parses it itself if no pool thread has started to,
+ * so included changelogs that include others cannot deadlock the pool.
+ */
+class ParallelIncludeParser {
+
+    public static final String THREADS_PROPERTY = "liquibase.parser.threads";
+
+    private static final ThreadLocal<ParallelIncludeParser> current = new ThreadLocal<ParallelIncludeParser>();
+
+    private ExecutorService executor;
+    private volatile String serialParseReason;
+
+    public ParallelIncludeParser(int threads) {
+        //created up front so the pool threads do not race to create them
+        ChangeLogParserFactory.getInstance();
+        ChangeFactory.getInstance();
+        PreconditionFactory.getInstance();
+        SqlVisitorFactory.getInstance();
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-parser-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Returns the number of threads to parse included changelogs with. Included changelogs are parsed serially if it is 1 or less.
+     */
+    public static int getThreadCount() {
+        return Integer.getInteger(THREADS_PROPERTY, 1);
+    }
+
+    /**
+     * Returns the parser of the changelog being parsed on this thread, or null if it is not being parsed in parallel.
+     */
+    public static ParallelIncludeParser getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * Starts parsing an included changelog. The parser is looked up first, so a file no parser supports fails straight away as it does when parsing serially.
+     */
+    public FutureTask<DatabaseChangeLog> submit(final String fileName, ChangeLogParameters changeLogParameters, final ResourceAccessor resourceAccessor) throws LiquibaseException {
+        final ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor);
+        final ChangeLogParameters parameters = changeLogParameters.copy();
+
+        FutureTask<DatabaseChangeLog> task = new FutureTask<DatabaseChangeLog>(new Callable<DatabaseChangeLog>() {
+            public DatabaseChangeLog call() throws Exception {
+                if (serialParseReason != null) {
+                    return null; //the result will not be used
+                }
+                ParallelIncludeParser previous = current.get();
+                current.set(ParallelIncludeParser.this);
+                try {
+                    DatabaseChangeLog changeLog = parser.parse(fileName, parameters, resourceAccessor);
+                    if (parameters.hasNewParameters()) {
+                        serialParseReason = fileName + " sets changelog parameters";
+                    }
+                    return changeLog;
+                } finally {
+                    current.set(previous);
+                }
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Returns the changelog parsed by a task from {@link #submit}, parsing it on this thread if it has not been started.
+     * Returns null if the parse was skipped because the changelog has to be parsed serially.
+     */
+    public DatabaseChangeLog get(FutureTask<DatabaseChangeLog> task) throws LiquibaseException {
+        task.run();
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChangeLogParseException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof LiquibaseException) {
+                throw (LiquibaseException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ChangeLogParseException(cause);
+        }
+    }
+
+    /**
+     * Returns why the changelog has to be parsed again serially, or null if the parallel parse gave the same result.
+     */
+    public String getSerialParseReason() {
+        return serialParseReason;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
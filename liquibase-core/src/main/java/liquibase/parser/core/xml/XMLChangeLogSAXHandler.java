@@ -7,6 +7,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Enumeration;
@@ -18,6 +19,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.Stack;
 import java.util.TreeSet;
+import java.util.concurrent.FutureTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.regex.Matcher;
@@ -91,10 +93,27 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 	private Set<String> modifySqlContexts;
 	private boolean modifySqlAppliedOnRollback = false;
 
+	private ParallelIncludeParser includeParser;
+	/**
+	 * Included changelogs still being parsed, and the changeSets that follow them, in declaration order.
+	 */
+	private List<Object> pendingIncludes = new ArrayList<Object>();
+
 	protected XMLChangeLogSAXHandler(String physicalChangeLogLocation,
 			ResourceAccessor resourceAccessor,
 			ChangeLogParameters changeLogParameters) {
+		this(physicalChangeLogLocation, resourceAccessor, changeLogParameters, null);
+	}
+
+	/**
+	 * @param includeParser parses included changelogs in parallel, or null to parse them as they are read
+	 */
+	protected XMLChangeLogSAXHandler(String physicalChangeLogLocation,
+			ResourceAccessor resourceAccessor,
+			ChangeLogParameters changeLogParameters,
+			ParallelIncludeParser includeParser) {
 		log = LogFactory.getLogger();
+		this.includeParser = includeParser;
 		this.resourceAccessor = resourceAccessor;
 
 		databaseChangeLog = new DatabaseChangeLog();
@@ -276,6 +295,7 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 						path = databaseChangeLog.getFilePath();
 					}
 					String author = atts.getValue("changeSetAuthor");
+					finishIncludedChangeLogs();
 					ChangeSet changeSet = databaseChangeLog.getChangeSet(path,
 							author, id);
 					if (changeSet == null) {
@@ -516,8 +536,17 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 				fileName = FilenameUtils.getFullPath(relativeBaseFileName) + fileName;
 			}
 		}
+		if (includeParser != null) {
+			pendingIncludes.add(includeParser.submit(fileName, changeLogParameters, resourceAccessor));
+			return true;
+		}
 		DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor).parse(fileName, changeLogParameters,
 						resourceAccessor);
+		addIncludedChangeLog(changeLog);
+		return true;
+	}
+
+	private void addIncludedChangeLog(DatabaseChangeLog changeLog) {
 		PreconditionContainer preconditions = changeLog.getPreconditions();
 		if (preconditions != null) {
 			if (null == databaseChangeLog.getPreconditions()) {
@@ -529,8 +558,35 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 		for (ChangeSet changeSet : changeLog.getChangeSets()) {
 			handleChangeSet(changeSet);
 		}
+	}
 
-		return true;
+	/**
+	 * Waits for the included changelogs being parsed in parallel and adds their changeSets, and the changeSets declared after them,
+	 * in declaration order.
+	 */
+	@SuppressWarnings("unchecked")
+	void finishIncludedChangeLogs() throws SAXException {
+		List<Object> entries = pendingIncludes;
+		pendingIncludes = new ArrayList<Object>();
+		try {
+			for (Object entry : entries) {
+				if (entry instanceof ChangeSet) {
+					databaseChangeLog.addChangeSet((ChangeSet) entry);
+				} else {
+					DatabaseChangeLog changeLog = includeParser.get((FutureTask<DatabaseChangeLog>) entry);
+					if (changeLog != null) {
+						addIncludedChangeLog(changeLog);
+					}
+				}
+			}
+		} catch (LiquibaseException e) {
+			throw new SAXException(e);
+		}
+	}
+
+	@Override
+	public void endDocument() throws SAXException {
+		finishIncludedChangeLogs();
 	}
 
 	private void setProperty(Object object, String attributeName,
@@ -565,6 +621,7 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 			} else if (rootPrecondition != null) {
 				if ("preConditions".equals(qName)) {
 					if (changeSet == null) {
+						finishIncludedChangeLogs();
 						databaseChangeLog.setPreconditions(rootPrecondition);
 						handlePreCondition(rootPrecondition);
 					} else {
@@ -693,7 +750,11 @@ class XMLChangeLogSAXHandler extends DefaultHandler {
 	}
 
 	protected void handleChangeSet(ChangeSet changeSet) {
-		databaseChangeLog.addChangeSet(changeSet);
+		if (pendingIncludes.size() > 0) {
+			pendingIncludes.add(changeSet);
+		} else {
+			databaseChangeLog.addChangeSet(changeSet);
+		}
 	}
 
 	@Override
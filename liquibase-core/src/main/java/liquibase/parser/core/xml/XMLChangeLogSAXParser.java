@@ -7,6 +7,7 @@ import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
 import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.exception.ChangeLogParseException;
 import liquibase.logging.LogFactory;
@@ -54,11 +55,50 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
         return changeLogFile.endsWith("xml");
     }
 
+    /**
+     * Included changelogs are parsed in parallel if the {@value ParallelIncludeParser#THREADS_PROPERTY} system property is more than 1.
+     * If an included changelog sets changelog parameters, the changelog is parsed again serially so that the result is always the same as a serial parse.
+     */
     public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        ParallelIncludeParser includeParser = ParallelIncludeParser.getCurrent();
+        if (includeParser != null || ParallelIncludeParser.getThreadCount() <= 1) {
+            return parse(physicalChangeLogLocation, changeLogParameters, resourceAccessor, includeParser);
+        }
+
+        includeParser = new ParallelIncludeParser(ParallelIncludeParser.getThreadCount());
+        ChangeLogParameters parallelParameters = changeLogParameters.copy();
+        try {
+            DatabaseChangeLog changeLog = parse(physicalChangeLogLocation, parallelParameters, resourceAccessor, includeParser);
+            if (includeParser.getSerialParseReason() == null) {
+                changeLogParameters.addNewParameters(parallelParameters);
+                changeLog.setChangeLogParameters(changeLogParameters);
+                for (ChangeSet changeSet : changeLog.getChangeSets()) {
+                    if (changeSet.getChangeLogParameters() != null) {
+                        changeSet.setChangeLogParameters(changeLogParameters);
+                    }
+                }
+                return changeLog;
+            }
+        } catch (ChangeLogParseException e) {
+            if (includeParser.getSerialParseReason() == null) {
+                throw e;
+            }
+        } finally {
+            includeParser.shutdown();
+        }
+
+        LogFactory.getLogger().info("Parsing " + physicalChangeLogLocation + " serially because " + includeParser.getSerialParseReason());
+        return parse(physicalChangeLogLocation, changeLogParameters, resourceAccessor, null);
+    }
+
+    private DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor, ParallelIncludeParser includeParser) throws ChangeLogParseException {
 
         InputStream inputStream = null;
         try {
-            SAXParser parser = saxParserFactory.newSAXParser();
+            SAXParser parser;
+            synchronized (saxParserFactory) {
+                parser = saxParserFactory.newSAXParser();
+            }
             try {
                 parser.setProperty("http://java.sun.com/xml/jaxp/properties/schemaLanguage", "http://www.w3.org/2001/XMLSchema");
             } catch (SAXNotRecognizedException e) {
@@ -93,9 +133,15 @@ public class XMLChangeLogSAXParser implements ChangeLogParser {
                 throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
             }
 
-            XMLChangeLogSAXHandler contentHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters);
+            XMLChangeLogSAXHandler contentHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters, includeParser);
             xmlReader.setContentHandler(contentHandler);
-            xmlReader.parse(new InputSource(inputStream));
+            try {
+                xmlReader.parse(new InputSource(inputStream));
+            } catch (SAXException e) {
+                //report a failure in an earlier include first, as a serial parse would
+                contentHandler.finishIncludedChangeLogs();
+                throw e;
+            }
 
             return contentHandler.getDatabaseChangeLog();
         } catch (ChangeLogParseException e) {
@@ -0,0 +1,15 @@
+package liquibase.precondition;
+
+import liquibase.structure.DatabaseObject;
+
+/**
+ * Implemented by preconditions that check for the existence of a database object.
+ * Exposing the object they look for lets the objects checked by many preconditions be read from the database together before any of them are checked.
+ */
+public interface DatabaseObjectPrecondition extends Precondition {
+
+    /**
+     * Returns an example of the database object this precondition checks for, as passed to {@link liquibase.snapshot.SnapshotGeneratorFactory#has}.
+     */
+    public DatabaseObject getExample();
+}
@@ -7,11 +7,11 @@ import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.Schema;
 import liquibase.exception.*;
-import liquibase.precondition.Precondition;
+import liquibase.precondition.DatabaseObjectPrecondition;
 import liquibase.structure.core.Table;
 import liquibase.util.StringUtils;
 
-public class ColumnExistsPrecondition implements Precondition {
+public class ColumnExistsPrecondition implements DatabaseObjectPrecondition {
     private String catalogName;
     private String schemaName;
     private String tableName;
@@ -57,15 +57,18 @@ public class ColumnExistsPrecondition implements Precondition {
         return new ValidationErrors();
     }
 
-    public void check(Database database, DatabaseChangeLog changeLog, ChangeSet changeSet) throws PreconditionFailedException, PreconditionErrorException {
+    public Column getExample() {
         Column example = new Column();
         if (StringUtils.trimToNull(getTableName()) != null) {
             example.setRelation(new Table().setName(getTableName()).setSchema(new Schema(getCatalogName(), getSchemaName())));
         }
         example.setName(getColumnName());
+        return example;
+    }
 
+    public void check(Database database, DatabaseChangeLog changeLog, ChangeSet changeSet) throws PreconditionFailedException, PreconditionErrorException {
         try {
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!SnapshotGeneratorFactory.getInstance().has(getExample(), database)) {
                 throw new PreconditionFailedException("Column '" + database.escapeColumnName(catalogName, schemaName, getTableName(), getColumnName()) + "' does not exist", changeLog, this);
             }
         } catch (LiquibaseException e) {
@@ -6,12 +6,12 @@ import liquibase.database.Database;
 import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.structure.core.ForeignKey;
 import liquibase.exception.*;
-import liquibase.precondition.Precondition;
+import liquibase.precondition.DatabaseObjectPrecondition;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Table;
 import liquibase.util.StringUtils;
 
-public class ForeignKeyExistsPrecondition implements Precondition {
+public class ForeignKeyExistsPrecondition implements DatabaseObjectPrecondition {
     private String catalogName;
     private String schemaName;
     private String foreignKeyTableName;
@@ -57,17 +57,20 @@ public class ForeignKeyExistsPrecondition implements Precondition {
         return new ValidationErrors();
     }
 
+    public ForeignKey getExample() {
+        ForeignKey example = new ForeignKey();
+        example.setName(getForeignKeyName());
+        example.setForeignKeyTable(new Table());
+        if (StringUtils.trimToNull(getForeignKeyTableName()) != null) {
+            example.getForeignKeyTable().setName(getForeignKeyTableName());
+        }
+        example.getForeignKeyTable().setSchema(new Schema(getCatalogName(), getSchemaName()));
+        return example;
+    }
+
     public void check(Database database, DatabaseChangeLog changeLog, ChangeSet changeSet) throws PreconditionFailedException, PreconditionErrorException {
         try {
-            ForeignKey example = new ForeignKey();
-            example.setName(getForeignKeyName());
-            example.setForeignKeyTable(new Table());
-            if (StringUtils.trimToNull(getForeignKeyTableName()) != null) {
-                example.getForeignKeyTable().setName(getForeignKeyTableName());
-            }
-            example.getForeignKeyTable().setSchema(new Schema(getCatalogName(), getSchemaName()));
-
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!SnapshotGeneratorFactory.getInstance().has(getExample(), database)) {
                     throw new PreconditionFailedException("Foreign Key "+database.escapeIndexName(catalogName, schemaName, foreignKeyName)+" does not exist", changeLog, this);
             }
         } catch (PreconditionFailedException e) {
@@ -80,4 +83,4 @@ public class ForeignKeyExistsPrecondition implements Precondition {
     public String getName() {
         return "foreignKeyConstraintExists";
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
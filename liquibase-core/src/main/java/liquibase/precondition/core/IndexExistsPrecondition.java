@@ -8,11 +8,11 @@ import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.structure.core.Index;
 import liquibase.structure.core.Schema;
 import liquibase.exception.*;
-import liquibase.precondition.Precondition;
+import liquibase.precondition.DatabaseObjectPrecondition;
 import liquibase.structure.core.Table;
 import liquibase.util.StringUtils;
 
-public class IndexExistsPrecondition implements Precondition {
+public class IndexExistsPrecondition implements DatabaseObjectPrecondition {
     private String catalogName;
     private String schemaName;
     private String tableName;
@@ -71,22 +71,26 @@ public class IndexExistsPrecondition implements Precondition {
         return validationErrors;
     }
 
+    public Index getExample() {
+        Schema schema = new Schema(getCatalogName(), getSchemaName());
+        Index example = new Index();
+        example.setTable(new Table());
+        if (StringUtils.trimToNull(getTableName()) != null) {
+            example.getTable().setName(getTableName());
+        }
+        example.getTable().setSchema(schema);
+        example.setName(getIndexName());
+        if (StringUtils.trimToNull(getColumnNames()) != null) {
+            for (String column : getColumnNames().split("\\s*,\\s*")) {
+                example.getColumns().add(column);
+            }
+        }
+        return example;
+    }
+
     public void check(Database database, DatabaseChangeLog changeLog, ChangeSet changeSet) throws PreconditionFailedException, PreconditionErrorException {
     	try {
-            Schema schema = new Schema(getCatalogName(), getSchemaName());
-            Index example = new Index();
-            example.setTable(new Table());
-            if (StringUtils.trimToNull(getTableName()) != null) {
-                example.getTable().setName(getTableName());
-            }
-            example.getTable().setSchema(schema);
-            example.setName(getIndexName());
-            if (StringUtils.trimToNull(getColumnNames()) != null) {
-                for (String column : getColumnNames().split("\\s*,\\s*")) {
-                    example.getColumns().add(column);
-                }
-            }
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!SnapshotGeneratorFactory.getInstance().has(getExample(), database)) {
                 String name = "";
 
                 if (getIndexName() != null) {
@@ -111,4 +115,4 @@ public class IndexExistsPrecondition implements Precondition {
     public String getName() {
         return "indexExists";
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -7,11 +7,11 @@ import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.structure.core.PrimaryKey;
 import liquibase.structure.core.Schema;
 import liquibase.exception.*;
-import liquibase.precondition.Precondition;
+import liquibase.precondition.DatabaseObjectPrecondition;
 import liquibase.structure.core.Table;
 import liquibase.util.StringUtils;
 
-public class PrimaryKeyExistsPrecondition implements Precondition {
+public class PrimaryKeyExistsPrecondition implements DatabaseObjectPrecondition {
     private String catalogName;
     private String schemaName;
     private String primaryKeyName;
@@ -57,18 +57,21 @@ public class PrimaryKeyExistsPrecondition implements Precondition {
         return new ValidationErrors();
     }
 
+    public PrimaryKey getExample() {
+        PrimaryKey example = new PrimaryKey();
+        Table table = new Table();
+        table.setSchema(new Schema(getCatalogName(), getSchemaName()));
+        if (StringUtils.trimToNull(getTableName()) != null) {
+            table.setName(getTableName());
+        }
+        example.setTable(table);
+        example.setName(getPrimaryKeyName());
+        return example;
+    }
+
     public void check(Database database, DatabaseChangeLog changeLog, ChangeSet changeSet) throws PreconditionFailedException, PreconditionErrorException {
         try {
-            PrimaryKey example = new PrimaryKey();
-            Table table = new Table();
-            table.setSchema(new Schema(getCatalogName(), getSchemaName()));
-            if (StringUtils.trimToNull(getTableName()) != null) {
-                table.setName(getTableName());
-            }
-            example.setTable(table);
-            example.setName(getPrimaryKeyName());
-
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!SnapshotGeneratorFactory.getInstance().has(getExample(), database)) {
                 if (tableName != null) {
                     throw new PreconditionFailedException("Primary Key does not exist on " + database.escapeStringForDatabase(getTableName()), changeLog, this);
                 } else {
@@ -85,4 +88,4 @@ public class PrimaryKeyExistsPrecondition implements Precondition {
     public String getName() {
         return "primaryKeyExists";
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
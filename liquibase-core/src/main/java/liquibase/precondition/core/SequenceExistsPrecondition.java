@@ -8,10 +8,10 @@ import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Sequence;
 import liquibase.exception.*;
-import liquibase.precondition.Precondition;
+import liquibase.precondition.DatabaseObjectPrecondition;
 import liquibase.snapshot.DatabaseSnapshot;
 
-public class SequenceExistsPrecondition implements Precondition {
+public class SequenceExistsPrecondition implements DatabaseObjectPrecondition {
     private String catalogName;
     private String schemaName;
     private String sequenceName;
@@ -48,11 +48,13 @@ public class SequenceExistsPrecondition implements Precondition {
         return new ValidationErrors();
     }
 
+    public Sequence getExample() {
+        return new Sequence().setName(getSequenceName()).setSchema(new Schema(getCatalogName(), getSchemaName()));
+    }
+
     public void check(Database database, DatabaseChangeLog changeLog, ChangeSet changeSet) throws PreconditionFailedException, PreconditionErrorException {
-        DatabaseSnapshot snapshot;
-        Schema schema = new Schema(getCatalogName(), getSchemaName());
         try {
-            if (!SnapshotGeneratorFactory.getInstance().has(new Sequence().setName(getSequenceName()).setSchema(schema), database)) {
+            if (!SnapshotGeneratorFactory.getInstance().has(getExample(), database)) {
                 throw new PreconditionFailedException("Sequence "+database.escapeSequenceName(getCatalogName(), getSchemaName(), getSequenceName())+" does not exist", changeLog, this);
             }
         } catch (LiquibaseException e) {
@@ -63,4 +65,4 @@ public class SequenceExistsPrecondition implements Precondition {
     public String getName() {
         return "sequenceExists";
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -10,10 +10,10 @@ import liquibase.exception.PreconditionErrorException;
 import liquibase.exception.PreconditionFailedException;
 import liquibase.exception.ValidationErrors;
 import liquibase.exception.Warnings;
-import liquibase.precondition.Precondition;
+import liquibase.precondition.DatabaseObjectPrecondition;
 import liquibase.structure.core.Table;
 
-public class TableExistsPrecondition implements Precondition {
+public class TableExistsPrecondition implements DatabaseObjectPrecondition {
     private String catalogName;
     private String schemaName;
     private String tableName;
@@ -49,9 +49,13 @@ public class TableExistsPrecondition implements Precondition {
     public ValidationErrors validate(Database database) {
         return new ValidationErrors();
     }
+    public Table getExample() {
+        return (Table) new Table().setName(getTableName()).setSchema(new Schema(getCatalogName(), getSchemaName()));
+    }
+
     public void check(Database database, DatabaseChangeLog changeLog, ChangeSet changeSet) throws PreconditionFailedException, PreconditionErrorException {
     	try {
-            if (!SnapshotGeneratorFactory.getInstance().has(new Table().setName(getTableName()).setSchema(new Schema(getCatalogName(), getSchemaName())), database)) {
+            if (!SnapshotGeneratorFactory.getInstance().has(getExample(), database)) {
                 throw new PreconditionFailedException("Table "+database.escapeTableName(getCatalogName(), getSchemaName(), getTableName())+" does not exist", changeLog, this);
             }
         } catch (PreconditionFailedException e) {
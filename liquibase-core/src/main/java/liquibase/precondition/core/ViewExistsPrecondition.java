@@ -7,10 +7,10 @@ import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.structure.core.Schema;
 import liquibase.exception.*;
-import liquibase.precondition.Precondition;
+import liquibase.precondition.DatabaseObjectPrecondition;
 import liquibase.structure.core.View;
 
-public class ViewExistsPrecondition implements Precondition {
+public class ViewExistsPrecondition implements DatabaseObjectPrecondition {
     private String catalogName;
     private String schemaName;
     private String viewName;
@@ -47,14 +47,14 @@ public class ViewExistsPrecondition implements Precondition {
         return new ValidationErrors();
     }
 
+    public View getExample() {
+        return (View) new View().setName(getViewName()).setSchema(new Schema(getCatalogName(), getSchemaName()));
+    }
+
     public void check(Database database, DatabaseChangeLog changeLog, ChangeSet changeSet) throws PreconditionFailedException, PreconditionErrorException {
-    	String currentSchemaName;
-        String currentCatalogName;
     	try {
-            currentCatalogName = getCatalogName();
-            currentSchemaName = getSchemaName();
-            if (!SnapshotGeneratorFactory.getInstance().has(new View().setName(getViewName()).setSchema(new Schema(currentCatalogName, currentSchemaName)), database)) {
-                throw new PreconditionFailedException("View "+database.escapeTableName(currentCatalogName, currentSchemaName, getViewName())+" does not exist", changeLog, this);
+            if (!SnapshotGeneratorFactory.getInstance().has(getExample(), database)) {
+                throw new PreconditionFailedException("View "+database.escapeTableName(getCatalogName(), getSchemaName(), getViewName())+" does not exist", changeLog, this);
             }
         } catch (PreconditionFailedException e) {
             throw e;
@@ -66,4 +66,4 @@ public class ViewExistsPrecondition implements Precondition {
     public String getName() {
         return "viewExists";
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -36,6 +36,13 @@ public class CompositeResourceAccessor implements ResourceAccessor {
         this.openers = Arrays.asList(openers);
     }
 
+    /**
+     * Returns the ResourceAccessors searched, in search order.
+     */
+    public List<ResourceAccessor> getResourceAccessors() {
+        return Collections.unmodifiableList(openers);
+    }
+
     /**
      * Searches through all of the FileOpeners in order for the file.
      * <p/>
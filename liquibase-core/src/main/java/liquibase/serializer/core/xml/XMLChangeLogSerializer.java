@@ -61,6 +61,22 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
     }
 
     public void write(List<ChangeSet> changeSets, OutputStream out) throws IOException {
+        XMLChangeLogStreamWriter writer = createWriter(out);
+        writer.begin();
+        for (ChangeSet changeSet : changeSets) {
+            writer.write(changeSet);
+        }
+        writer.end();
+    }
+
+    /**
+     * Returns a writer that writes a changelog to the stream one changeSet at a time, for changelogs too large to build in memory.
+     */
+    public XMLChangeLogStreamWriter createWriter(OutputStream out) {
+        return new XMLChangeLogStreamWriter(this, out);
+    }
+
+    Document createChangeLogDocument() {
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         DocumentBuilder documentBuilder;
         try {
@@ -78,13 +94,126 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
         changeLogElement.setAttribute("xsi:schemaLocation", "http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-" + XMLChangeLogSAXParser.getSchemaVersion() + ".xsd");
 
         doc.appendChild(changeLogElement);
-        setCurrentChangeLogFileDOM(doc);
+        return doc;
+    }
 
-        for (ChangeSet changeSet : changeSets) {
-            doc.getDocumentElement().appendChild(createNode(changeSet));
+    /**
+     * Appends the changeSets before the closing databaseChangeLog tag of an existing changelog file, in the same format as {@link #write(java.util.List, java.io.OutputStream)}.
+     * The closing tag is found by scanning backwards from the end of the file and the changeSets are written one at a time in its place,
+     * so neither the existing file nor the full output is held in memory.
+     * Only the closing tag and anything after it are kept aside, and they are written back if appending fails part way through.
+     * If the file has no closing tag, it is replaced with a new changelog containing the changeSets.
+     */
+    public void append(final List<ChangeSet> changeSets, File changeLogFile) throws IOException {
+        append(changeLogFile, new ChangeSetSource() {
+            public void writeTo(XMLChangeLogStreamWriter writer) throws IOException {
+                for (ChangeSet changeSet : changeSets) {
+                    writer.write(changeSet);
+                }
+            }
+        });
+    }
+
+    /**
+     * Appends the changeSets the source passes to the writer as they are generated, in the same way as {@link #append(java.util.List, java.io.File)},
+     * so they do not all need to be held in memory.
+     * Returns false and leaves the file unchanged if the source did not write any changeSets.
+     */
+    public boolean append(File changeLogFile, ChangeSetSource changeSets) throws IOException {
+        boolean existed = changeLogFile.exists();
+        boolean appended = false;
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(changeLogFile, "rw");
+        try {
+            long originalLength = randomAccessFile.length();
+            long offset = findClosingTag(randomAccessFile);
+
+            //continue from the end of the last changeSet, the writer adds the line break and indent before each one
+            while (offset > 0) {
+                randomAccessFile.seek(offset - 1);
+                if (!Character.isWhitespace(randomAccessFile.read())) {
+                    break;
+                }
+                offset--;
+            }
+
+            long writeFrom = Math.max(offset, 0);
+            byte[] tail = new byte[(int) (originalLength - writeFrom)];
+            randomAccessFile.seek(writeFrom);
+            randomAccessFile.readFully(tail);
+
+            try {
+                randomAccessFile.seek(writeFrom);
+                OutputStream out = new BufferedOutputStream(new OutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        randomAccessFile.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        randomAccessFile.write(b, off, len);
+                    }
+                });
+
+                XMLChangeLogStreamWriter writer = createWriter(out);
+                if (offset < 0) {
+                    writer.begin();
+                } else {
+                    writer.begin(false);
+                }
+                changeSets.writeTo(writer);
+                writer.end();
+                if (writer.getChangeSetCount() > 0) {
+                    randomAccessFile.setLength(randomAccessFile.getFilePointer());
+                    appended = true;
+                }
+                return appended;
+            } finally {
+                if (!appended) {
+                    randomAccessFile.seek(writeFrom);
+                    randomAccessFile.write(tail);
+                    randomAccessFile.setLength(originalLength);
+                }
+            }
+        } finally {
+            randomAccessFile.close();
+            if (!existed && !appended) {
+                changeLogFile.delete();
+            }
         }
+    }
+
+    /**
+     * Returns the offset of the last closing databaseChangeLog tag in the file, or -1 if there is none.
+     */
+    protected long findClosingTag(RandomAccessFile file) throws IOException {
+        byte[] tag = "</databaseChangeLog>".getBytes("UTF-8");
+        byte[] buffer = new byte[8192];
+
+        long blockEnd = file.length();
+        while (blockEnd > 0) {
+            //overlap blocks so a tag split across a block boundary is found
+            long blockStart = Math.max(0, blockEnd - buffer.length);
+            int length = (int) (blockEnd - blockStart);
+            file.seek(blockStart);
+            file.readFully(buffer, 0, length);
+
+            for (int i = length - tag.length; i >= 0; i--) {
+                int matched = 0;
+                while (matched < tag.length && buffer[i + matched] == tag[matched]) {
+                    matched++;
+                }
+                if (matched == tag.length) {
+                    return blockStart + i;
+                }
+            }
 
-        new DefaultXmlWriter().write(doc, out);
+            if (blockStart == 0) {
+                break;
+            }
+            blockEnd = blockStart + tag.length - 1;
+        }
+        return -1;
     }
 
     public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
@@ -105,6 +234,13 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
         out.close();
     }
 
+    /**
+     * Writes changeSets for {@link #append(java.io.File, ChangeSetSource)}.
+     */
+    public interface ChangeSetSource {
+        void writeTo(XMLChangeLogStreamWriter writer) throws IOException;
+    }
+
     public Element createNode(LiquibaseSerializable object) {
         Element node = currentChangeLogFileDOM.createElementNS(XMLChangeLogSAXParser.getDatabaseChangeLogNameSpace(), object.getSerializedObjectName());
 
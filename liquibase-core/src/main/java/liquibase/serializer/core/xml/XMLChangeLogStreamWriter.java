@@ -0,0 +1,128 @@
+package liquibase.serializer.core.xml;
+
+import liquibase.changelog.ChangeSet;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.parser.core.xml.XMLChangeLogSAXParser;
+import liquibase.util.xml.DefaultXmlWriter;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes an XML changelog one changeSet at a time, so only the changeSet being written is held in memory.
+ * Call {@link #begin()}, then {@link #write(liquibase.changelog.ChangeSet)} for each changeSet, then {@link #end()}.
+ * The output is the same as {@link XMLChangeLogSerializer#write(java.util.List, java.io.OutputStream)}.
+ * <p/>
+ * Each changeSet is serialized as a DOM fragment inside an otherwise empty databaseChangeLog element, which the writer strips off.
+ */
+public class XMLChangeLogStreamWriter {
+
+    private XMLChangeLogSerializer serializer;
+    private OutputStream out;
+    private Document doc;
+    private Transformer transformer;
+    private String footer;
+
+    private boolean begun;
+    private boolean ended;
+    private int changeSetCount;
+
+    public XMLChangeLogStreamWriter(XMLChangeLogSerializer serializer, OutputStream out) {
+        this.serializer = serializer;
+        this.out = out;
+        this.doc = serializer.createChangeLogDocument();
+        serializer.setCurrentChangeLogFileDOM(doc);
+        try {
+            this.transformer = new DefaultXmlWriter().createTransformer();
+        } catch (TransformerException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    /**
+     * Writes the xml declaration and the opening databaseChangeLog tag.
+     */
+    public void begin() throws IOException {
+        begin(true);
+    }
+
+    /**
+     * Starts writing. Without the header, changeSets are written as if continuing an existing changelog from the end of its last changeSet.
+     */
+    void begin(boolean writeHeader) throws IOException {
+        Element placeholder = doc.createElementNS(XMLChangeLogSAXParser.getDatabaseChangeLogNameSpace(), "changeSet");
+        String xml = serializeInChangeLog(placeholder);
+        int bodyStart = getBodyStart(xml);
+        footer = xml.substring(getBodyEnd(xml));
+
+        if (writeHeader) {
+            out.write(xml.substring(0, bodyStart).getBytes("UTF-8"));
+        }
+        begun = true;
+    }
+
+    /**
+     * Writes the changeSet, indented inside the databaseChangeLog element.
+     */
+    public void write(ChangeSet changeSet) throws IOException {
+        if (!begun || ended) {
+            throw new IllegalStateException("ChangeSets can only be written between begin() and end()");
+        }
+        String xml = serializeInChangeLog(serializer.createNode(changeSet));
+        out.write(xml.substring(getBodyStart(xml), getBodyEnd(xml)).getBytes("UTF-8"));
+        changeSetCount++;
+    }
+
+    /**
+     * Returns the number of changeSets written so far.
+     */
+    public int getChangeSetCount() {
+        return changeSetCount;
+    }
+
+    /**
+     * Writes the closing databaseChangeLog tag and flushes the stream. The stream is not closed.
+     */
+    public void end() throws IOException {
+        if (!begun) {
+            throw new IllegalStateException("begin() was not called");
+        }
+        out.write(footer.getBytes("UTF-8"));
+        out.flush();
+        ended = true;
+    }
+
+    private String serializeInChangeLog(Element node) throws IOException {
+        doc.getDocumentElement().appendChild(node);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            new DefaultXmlWriter().write(doc, buffer, transformer);
+        } finally {
+            doc.getDocumentElement().removeChild(node);
+        }
+        return new String(buffer.toByteArray(), "UTF-8");
+    }
+
+    /**
+     * Returns the index just past the opening databaseChangeLog tag.
+     */
+    private int getBodyStart(String xml) {
+        return xml.indexOf('>', xml.indexOf("<databaseChangeLog")) + 1;
+    }
+
+    /**
+     * Returns the index just past the last child, before the whitespace preceding the closing databaseChangeLog tag.
+     */
+    private int getBodyEnd(String xml) {
+        int end = xml.lastIndexOf("</databaseChangeLog>");
+        while (end > 0 && Character.isWhitespace(xml.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+}
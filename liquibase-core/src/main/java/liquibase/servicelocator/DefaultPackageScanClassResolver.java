@@ -5,10 +5,12 @@ import liquibase.logging.LogLevel;
 import liquibase.logging.Logger;
 import liquibase.logging.core.DefaultLogger;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -17,18 +19,32 @@ import java.net.URLConnection;
 import java.net.URLDecoder;
 import java.util.*;
 import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
 
 /**
  * Default implement of {@link PackageScanClassResolver}
+ * <p/>
+ * Jars and directories containing a {@link #INDEX_FILE} list their classes in it, so they are not walked to find classes.
+ * Jars and directories without an index are scanned, as are those whose index does not list every class they contain in the package searched,
+ * such as when classes from several jars are merged into one. That is checked from the jar's directory or the file names, without loading any classes.
+ * Set the "liquibase.scan.useIndex" system property to false to always scan.
  */
 public class DefaultPackageScanClassResolver implements PackageScanClassResolver {
 
+    /**
+     * Resource listing the classes of the jar or directory it is in, one class name per line. Generated by {@link ServiceIndexGenerator}.
+     */
+    public static final String INDEX_FILE = "META-INF/liquibase/services.idx";
+
     private static Map<String, Set<String>> classesByJarUrl = new HashMap<String, Set<String>>();
 
     protected final transient Logger log = new DefaultLogger();
     private Set<ClassLoader> classLoaders;
     private Set<PackageScanFilter> scanFilters;
+    private Map<ClassLoader, Map<String, List<String>>> indexesByClassLoader = new HashMap<ClassLoader, Map<String, List<String>>>();
+    private Map<String, Collection<String>> classesByIndexedRoot = new HashMap<String, Collection<String>>();
+    private Map<String, Boolean> indexCompleteByPackage = new HashMap<String, Boolean>();
 
     public void addClassLoader(ClassLoader classLoader) {
         try {
@@ -118,6 +134,16 @@ public class DefaultPackageScanClassResolver implements PackageScanClassResolver
         log.debug("Searching for: " + test + " in package: " + packageName + " using classloader: "
                 + loader.getClass().getName());
 
+        Map<String, List<String>> indexes = getIndexes(loader);
+        for (List<String> classNames : indexes.values()) {
+            for (String className : classNames) {
+                String path = className.replace('.', '/');
+                if (path.startsWith(packageName + "/")) {
+                    addIfMatching(test, path + ".class", classes);
+                }
+            }
+        }
+
         Enumeration<URL> urls;
         try {
             urls = getResources(loader, packageName);
@@ -135,6 +161,15 @@ public class DefaultPackageScanClassResolver implements PackageScanClassResolver
                 url = urls.nextElement();
                 log.debug("URL from classloader: " + url);
 
+                String indexRoot = getIndexRoot(url, indexes);
+                if (indexRoot != null) {
+                    if (isIndexComplete(indexRoot, packageName, indexes.get(indexRoot))) {
+                        log.debug("Classes in " + url + " are indexed, skipping");
+                        continue;
+                    }
+                    log.debug("Class index in " + indexRoot + " does not list all classes in " + packageName + ", scanning");
+                }
+
                 url = customResourceLocator(url);
 
                 String urlPath = url.getFile();
@@ -256,6 +291,156 @@ public class DefaultPackageScanClassResolver implements PackageScanClassResolver
         return loader.getResources(packageName);
     }
 
+    /**
+     * Returns the class names listed in the {@link #INDEX_FILE}s the classloader can see, keyed by the URL of the jar or directory each index is in.
+     * Returns an empty map if the "liquibase.scan.useIndex" system property is set to false.
+     */
+    protected synchronized Map<String, List<String>> getIndexes(ClassLoader loader) {
+        Map<String, List<String>> indexes = indexesByClassLoader.get(loader);
+        if (indexes != null) {
+            return indexes;
+        }
+
+        indexes = new HashMap<String, List<String>>();
+        if (!"false".equalsIgnoreCase(System.getProperty("liquibase.scan.useIndex"))) {
+            try {
+                Enumeration<URL> indexUrls = loader.getResources(INDEX_FILE);
+                while (indexUrls.hasMoreElements()) {
+                    URL indexUrl = indexUrls.nextElement();
+                    String root = indexUrl.toString();
+                    root = root.substring(0, root.length() - INDEX_FILE.length());
+                    try {
+                        indexes.put(root, readIndex(indexUrl));
+                        log.debug("Using class index " + indexUrl);
+                    } catch (IOException e) {
+                        log.warning("Cannot read class index " + indexUrl + ", scanning instead: " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("Cannot find class indexes in classloader: " + loader, e);
+            }
+        }
+        indexesByClassLoader.put(loader, indexes);
+        return indexes;
+    }
+
+    private List<String> readIndex(URL indexUrl) throws IOException {
+        List<String> classNames = new ArrayList<String>();
+        URLConnection connection = indexUrl.openConnection();
+        connection.setUseCaches(false);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.length() > 0 && !line.startsWith("#")) {
+                    classNames.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return classNames;
+    }
+
+    /**
+     * Returns the root of the index covering the given URL, or null if it is not indexed.
+     */
+    private String getIndexRoot(URL url, Map<String, List<String>> indexes) {
+        String urlString = url.toString();
+        for (String root : indexes.keySet()) {
+            if (urlString.startsWith(root)) {
+                return root;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the index of the given jar or directory lists every class it contains in the package, ignoring anonymous classes.
+     * A stale or partial index would otherwise hide classes from scanning. Roots that cannot be listed without scanning them, such as remote jars, are not trusted.
+     */
+    private synchronized boolean isIndexComplete(String root, String packageName, List<String> indexedClassNames) {
+        String key = root + "|" + packageName;
+        Boolean complete = indexCompleteByPackage.get(key);
+        if (complete == null) {
+            complete = false;
+            Collection<String> rootClassNames = getClassesInIndexedRoot(root);
+            if (rootClassNames != null) {
+                complete = true;
+                Set<String> indexed = new HashSet<String>(indexedClassNames);
+                String packagePrefix = packageName.replace('/', '.') + ".";
+                for (String className : rootClassNames) {
+                    if (className.startsWith(packagePrefix) && !indexed.contains(className) && !ServiceIndexGenerator.isAnonymous(className)) {
+                        log.debug("Class " + className + " is not in the class index of " + root);
+                        complete = false;
+                        break;
+                    }
+                }
+            }
+            indexCompleteByPackage.put(key, complete);
+        }
+        return complete;
+    }
+
+    /**
+     * Returns the names of the classes in the given indexed jar or directory, read from the jar's directory or the file names.
+     * Returns null if the root is not a local jar or directory, or cannot be read.
+     */
+    private Collection<String> getClassesInIndexedRoot(String root) {
+        if (classesByIndexedRoot.containsKey(root)) {
+            return classesByIndexedRoot.get(root);
+        }
+
+        Collection<String> classNames = new ArrayList<String>();
+        try {
+            if (root.startsWith("jar:file:") && root.endsWith("!/")) {
+                JarFile jarFile = new JarFile(new File(new URI(root.substring("jar:".length(), root.length() - "!/".length()))));
+                try {
+                    Enumeration<JarEntry> entries = jarFile.entries();
+                    while (entries.hasMoreElements()) {
+                        String name = entries.nextElement().getName();
+                        if (name.endsWith(".class")) {
+                            classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                        }
+                    }
+                } finally {
+                    jarFile.close();
+                }
+            } else if (root.startsWith("file:")) {
+                findClassesInDirectory(new File(new URI(root)), null, classNames);
+            } else {
+                classNames = null;
+            }
+        } catch (IOException e) {
+            log.debug("Cannot list classes in " + root + ": " + e.getMessage());
+            classNames = null;
+        } catch (URISyntaxException e) {
+            log.debug("Cannot list classes in " + root + ": " + e.getMessage());
+            classNames = null;
+        } catch (IllegalArgumentException e) { //not a hierarchical file URI
+            log.debug("Cannot list classes in " + root + ": " + e.getMessage());
+            classNames = null;
+        }
+        classesByIndexedRoot.put(root, classNames);
+        return classNames;
+    }
+
+    private void findClassesInDirectory(File directory, String packageName, Collection<String> classNames) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                findClassesInDirectory(file, packageName == null ? name : packageName + "." + name, classNames);
+            } else if (packageName != null && name.endsWith(".class")) {
+                classNames.add(packageName + "." + name.substring(0, name.length() - ".class".length()));
+            }
+        }
+    }
+
     private PackageScanFilter getCompositeFilter(PackageScanFilter filter) {
         if (scanFilters != null) {
             CompositePackageScanFilter composite = new CompositePackageScanFilter(scanFilters);
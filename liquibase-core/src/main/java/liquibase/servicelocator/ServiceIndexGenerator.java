@@ -0,0 +1,102 @@
+package liquibase.servicelocator;
+
+import liquibase.util.StringUtils;
+
+import java.io.*;
+import java.util.*;
+import java.util.jar.Manifest;
+
+/**
+ * Writes the {@link DefaultPackageScanClassResolver#INDEX_FILE} for a directory of compiled classes, so the jar built from it does not need to be scanned.
+ * Lists the classes in the packages given by the Liquibase-Package attribute of the directory's META-INF/MANIFEST.MF, or by the packages passed in.
+ * <p/>
+ * Run at build time as: ServiceIndexGenerator &lt;classes directory&gt; [package...]
+ */
+public class ServiceIndexGenerator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: " + ServiceIndexGenerator.class.getName() + " <classes directory> [package...]");
+            System.exit(1);
+        }
+
+        File classesDirectory = new File(args[0]);
+        List<String> packages = new ArrayList<String>(Arrays.asList(args).subList(1, args.length));
+        if (packages.size() == 0) {
+            packages = readPackages(new File(classesDirectory, "META-INF/MANIFEST.MF"));
+        }
+
+        File indexFile = new ServiceIndexGenerator().generate(classesDirectory, packages);
+        System.out.println("Wrote " + indexFile.getAbsolutePath());
+    }
+
+    /**
+     * Returns the packages listed in the Liquibase-Package attribute of the given manifest, or an empty list if there is none.
+     */
+    public static List<String> readPackages(File manifestFile) throws IOException {
+        List<String> packages = new ArrayList<String>();
+        if (!manifestFile.exists()) {
+            return packages;
+        }
+        InputStream stream = new FileInputStream(manifestFile);
+        try {
+            String attribute = StringUtils.trimToNull(new Manifest(stream).getMainAttributes().getValue("Liquibase-Package"));
+            if (attribute != null) {
+                for (String packageName : attribute.split(",")) {
+                    packageName = StringUtils.trimToNull(packageName);
+                    if (packageName != null) {
+                        packages.add(packageName);
+                    }
+                }
+            }
+        } finally {
+            stream.close();
+        }
+        return packages;
+    }
+
+    /**
+     * Writes the index of the classes in the given packages under classesDirectory and returns the index file.
+     * Anonymous classes are left out since they can never be services.
+     */
+    public File generate(File classesDirectory, Collection<String> packages) throws IOException {
+        SortedSet<String> classNames = new TreeSet<String>();
+        for (String packageName : packages) {
+            File packageDirectory = new File(classesDirectory, packageName.replace('.', '/'));
+            findClasses(packageDirectory, packageName, classNames);
+        }
+
+        File indexFile = new File(classesDirectory, DefaultPackageScanClassResolver.INDEX_FILE);
+        indexFile.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(indexFile), "UTF-8");
+        try {
+            writer.write("# Classes in packages " + StringUtils.join(packages, ",") + "\n");
+            for (String className : classNames) {
+                writer.write(className + "\n");
+            }
+        } finally {
+            writer.close();
+        }
+        return indexFile;
+    }
+
+    private void findClasses(File directory, String packageName, Set<String> classNames) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                findClasses(file, packageName + "." + name, classNames);
+            } else if (name.endsWith(".class") && !isAnonymous(name)) {
+                classNames.add(packageName + "." + name.substring(0, name.length() - ".class".length()));
+            }
+        }
+    }
+
+    static boolean isAnonymous(String fileName) {
+        int index = fileName.lastIndexOf('$');
+        return index >= 0 && index + 1 < fileName.length() && Character.isDigit(fileName.charAt(index + 1));
+    }
+}
@@ -0,0 +1,85 @@
+package liquibase.snapshot;
+
+import liquibase.database.Database;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.structure.DatabaseObject;
+
+import java.util.*;
+
+/**
+ * Stores DatabaseObjects by type and {@link DatabaseObjectComparatorFactory#getIdentityKey(DatabaseObject, Database) identity key}
+ * so that finding the object matching an example only calls isSameObject on objects that can match rather than on every object of the type.
+ */
+class DatabaseObjectIdentityMap {
+
+    private Database database;
+    private Map<Class<? extends DatabaseObject>, Map<String, List<DatabaseObject>>> keyedObjects = new HashMap<Class<? extends DatabaseObject>, Map<String, List<DatabaseObject>>>();
+    private Map<Class<? extends DatabaseObject>, List<DatabaseObject>> unkeyedObjects = new HashMap<Class<? extends DatabaseObject>, List<DatabaseObject>>();
+
+    DatabaseObjectIdentityMap(Database database) {
+        this.database = database;
+    }
+
+    public void add(DatabaseObject object) {
+        String key = DatabaseObjectComparatorFactory.getInstance().getIdentityKey(object, database);
+        if (key == null) {
+            List<DatabaseObject> objects = unkeyedObjects.get(object.getClass());
+            if (objects == null) {
+                objects = new ArrayList<DatabaseObject>();
+                unkeyedObjects.put(object.getClass(), objects);
+            }
+            objects.add(object);
+        } else {
+            Map<String, List<DatabaseObject>> objectsByKey = keyedObjects.get(object.getClass());
+            if (objectsByKey == null) {
+                objectsByKey = new HashMap<String, List<DatabaseObject>>();
+                keyedObjects.put(object.getClass(), objectsByKey);
+            }
+            List<DatabaseObject> objects = objectsByKey.get(key);
+            if (objects == null) {
+                objects = new ArrayList<DatabaseObject>(1);
+                objectsByKey.put(key, objects);
+            }
+            objects.add(object);
+        }
+    }
+
+    /**
+     * Returns the stored object of the same type that is the same object as the example, or null if there is none.
+     */
+    public <T extends DatabaseObject> T find(T example) {
+        Map<String, List<DatabaseObject>> objectsByKey = keyedObjects.get(example.getClass());
+        if (objectsByKey != null) {
+            String key = DatabaseObjectComparatorFactory.getInstance().getIdentityKey(example, database);
+            if (key == null) {
+                for (List<DatabaseObject> objects : objectsByKey.values()) {
+                    T found = find(example, objects);
+                    if (found != null) {
+                        return found;
+                    }
+                }
+            } else {
+                T found = find(example, objectsByKey.get(key));
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+
+        return find(example, unkeyedObjects.get(example.getClass()));
+    }
+
+    private <T extends DatabaseObject> T find(T example, List<DatabaseObject> candidates) {
+        if (candidates == null) {
+            return null;
+        }
+        for (DatabaseObject obj : candidates) {
+            if (DatabaseObjectComparatorFactory.getInstance().isSameObject(obj, example, database)) {
+                @SuppressWarnings("unchecked") //candidates are stored by, and looked up with, the exact class of the example
+                T found = (T) obj;
+                return found;
+            }
+        }
+        return null;
+    }
+}
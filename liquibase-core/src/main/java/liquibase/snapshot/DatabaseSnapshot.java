@@ -7,7 +7,6 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.servicelocator.ServiceLocator;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.*;
-import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 
 import java.lang.reflect.Field;
 import java.util.*;
@@ -17,16 +16,18 @@ public abstract class DatabaseSnapshot {
     private SnapshotControl snapshotControl;
     private Database database;
     private Map<Class<? extends DatabaseObject>, Set<DatabaseObject>> allFound = new HashMap<Class<? extends DatabaseObject>, Set<DatabaseObject>>();
-    private Map<Class<? extends DatabaseObject>, Set<DatabaseObject>> knownNull = new HashMap<Class<? extends DatabaseObject>, Set<DatabaseObject>>();
+    private DatabaseObjectIdentityMap allFoundIndex;
+    private DatabaseObjectIdentityMap knownNull;
 
     DatabaseSnapshot(SnapshotControl snapshotControl, Database database) {
         this.database = database;
         this.snapshotControl = snapshotControl;
+        this.allFoundIndex = new DatabaseObjectIdentityMap(database);
+        this.knownNull = new DatabaseObjectIdentityMap(database);
     }
 
     public DatabaseSnapshot(Database database) {
-        this.database = database;
-        this.snapshotControl = new SnapshotControl();
+        this(new SnapshotControl(), database);
     }
 
     public SnapshotControl getSnapshotControl() {
@@ -75,12 +76,7 @@ public abstract class DatabaseSnapshot {
         T object = chain.snapshot(example, this);
 
         if (object == null) {
-            Set<DatabaseObject> collection = knownNull.get(example.getClass());
-            if (collection == null) {
-                collection = new HashSet<DatabaseObject>();
-                knownNull.put(example.getClass(), collection);
-            }
-            collection.add(example);
+            knownNull.add(example);
 
         } else {
             Set<DatabaseObject> collection = allFound.get(object.getClass());
@@ -89,6 +85,7 @@ public abstract class DatabaseSnapshot {
                 allFound.put(object.getClass(), collection);
             }
             collection.add(object);
+            allFoundIndex.add(object);
 
             try {
                 includeNestedObjects(object);
@@ -172,17 +169,7 @@ public abstract class DatabaseSnapshot {
      * Returns the object described by the passed example if it is already included in this snapshot.
      */
     public <DatabaseObjectType extends DatabaseObject> DatabaseObjectType get(DatabaseObjectType example) {
-        Set<DatabaseObject> databaseObjects = allFound.get(example.getClass());
-        if (databaseObjects == null) {
-            return null;
-        }
-        for (DatabaseObject obj : databaseObjects) {
-            if (DatabaseObjectComparatorFactory.getInstance().isSameObject(obj, example, database)) {
-                //noinspection unchecked
-                return (DatabaseObjectType) obj;
-            }
-        }
-        return null;
+        return allFoundIndex.find(example);
     }
 
     /**
@@ -209,15 +196,6 @@ public abstract class DatabaseSnapshot {
     }
 
     private boolean isKnownNull(DatabaseObject example) {
-        Set<DatabaseObject> databaseObjects = knownNull.get(example.getClass());
-        if (databaseObjects == null) {
-            return false;
-        }
-        for (DatabaseObject obj : databaseObjects) {
-            if (DatabaseObjectComparatorFactory.getInstance().isSameObject(obj, example, database)) {
-                return true;
-            }
-        }
-        return false;
+        return knownNull.find(example) != null;
     }
 }
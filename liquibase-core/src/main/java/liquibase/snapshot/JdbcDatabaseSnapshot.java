@@ -1,18 +1,29 @@
 package liquibase.snapshot;
 
+import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
+import liquibase.database.core.OracleDatabase;
 import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
 import liquibase.executor.jvm.ColumnMapRowMapper;
 import liquibase.executor.jvm.RowMapperResultSetExtractor;
+import liquibase.logging.LogFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
 
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
     private CachingDatabaseMetaData cachingDatabaseMetaData;
+    private Set<String> prefetchedSchemas = new HashSet<String>();
 
     public JdbcDatabaseSnapshot(SnapshotControl snapshotControl, Database database) {
         super(snapshotControl, database);
@@ -34,10 +45,58 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         return cachingDatabaseMetaData;
     }
 
+    @Override
+    protected <T extends DatabaseObject> T include(T example) throws DatabaseException, InvalidExampleException {
+        if (example instanceof Schema && shouldPrefetchInParallel()) {
+            prefetchInParallel((Schema) example);
+        }
+        return super.include(example);
+    }
+
+    private boolean shouldPrefetchInParallel() {
+        SnapshotControl snapshotControl = getSnapshotControl();
+        return snapshotControl.getParallelDataSource() != null
+                && snapshotControl.getParallelThreads() > 0
+                && !snapshotControl.isBulkFetch()
+                && snapshotControl.shouldInclude(Table.class)
+                && getDatabase() instanceof AbstractJdbcDatabase
+                && getDatabase().getConnection() instanceof JdbcConnection;
+    }
+
+    /**
+     * Reads the table-level metadata of every table in the schema over the parallel connections so that the serial include() pass is served from the cache.
+     */
+    private void prefetchInParallel(Schema schema) throws DatabaseException {
+        AbstractJdbcDatabase database = (AbstractJdbcDatabase) getDatabase();
+        String catalogName = database.getJdbcCatalogName(schema);
+        String schemaName = database.getJdbcSchemaName(schema);
+        if (!prefetchedSchemas.add(catalogName + ":" + schemaName)) {
+            return;
+        }
+
+        try {
+            List<String> tableNames = new ArrayList<String>();
+            for (CachedRow row : getMetaData().getTables(catalogName, schemaName, null, new String[]{"TABLE"})) {
+                tableNames.add(row.getString("TABLE_NAME"));
+            }
+            getMetaData().prefetchTableMetaData(catalogName, schemaName, tableNames, getSnapshotControl().getParallelDataSource(), getSnapshotControl().getParallelThreads());
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Wraps DatabaseMetaData, caching the results of each call for the life of the snapshot.
+     * <p>
+     * If {@link SnapshotControl#isBulkFetch()} is set, per-table calls are answered from a single schema-wide call per metadata kind
+     * whose rows are bucketed by table name. If the schema-wide call fails, the per-table calls are made instead; if it returns nothing, no table has rows of that kind.
+     */
     public class CachingDatabaseMetaData {
         private DatabaseMetaData databaseMetaData;
 
-        private Map<String, List<CachedRow>> cachedResults = new HashMap<String, List<CachedRow>>();
+        private Map<String, List<CachedRow>> cachedResults = Collections.synchronizedMap(new HashMap<String, List<CachedRow>>());
+        private Map<String, Map<String, List<CachedRow>>> cachedResultsByTable = new HashMap<String, Map<String, List<CachedRow>>>();
+        private Set<String> prefetchedColumnKeys = Collections.synchronizedSet(new HashSet<String>());
 
         public CachingDatabaseMetaData(DatabaseMetaData metaData) {
             this.databaseMetaData = metaData;
@@ -47,7 +106,16 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
             return databaseMetaData;
         }
 
-        public List<CachedRow> getExportedKeys(String catalogName, String schemaName, String table) throws SQLException {
+        public List<CachedRow> getExportedKeys(final String catalogName, final String schemaName, String table) throws SQLException {
+            List<CachedRow> bulkRows = getBulkRows(createKey("getExportedKeys", catalogName, schemaName), "PKTABLE_NAME", table, new BulkQuery() {
+                public List<CachedRow> execute() throws SQLException {
+                    return extractRows(databaseMetaData.getExportedKeys(catalogName, schemaName, null));
+                }
+            });
+            if (bulkRows != null) {
+                return bulkRows;
+            }
+
             String key = createKey("getExportedKeys", catalogName, schemaName, table);
             if (hasCachedValue(key)) {
                 return getCachedValue(key);
@@ -67,6 +135,9 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
             String key = methodName;
             if (params != null) {
                 for (Object param : params) {
+                    if (param instanceof Object[]) {
+                        param = Arrays.asList((Object[]) param);
+                    }
                     key += ":"+param;
                 }
             }
@@ -74,6 +145,14 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
 
         private List<CachedRow> cacheResultSet(String key, ResultSet rs) throws SQLException {
+            List<CachedRow> list = extractRows(rs);
+
+            cachedResults.put(key, list);
+            return list;
+
+        }
+
+        private List<CachedRow> extractRows(ResultSet rs) throws SQLException {
             List list;
             try {
                 list = (List) new RowMapperResultSetExtractor(new ColumnMapRowMapper()).extractData(rs);
@@ -83,13 +162,75 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
             } finally {
                 rs.close();
             }
-
-            cachedResults.put(key, list);
             return list;
+        }
+
+        private boolean isBulkFetch() {
+            return getSnapshotControl() != null && getSnapshotControl().isBulkFetch();
+        }
+
+        /**
+         * Returns the rows of the schema-wide bulkQuery whose tableColumnName value equals the given table.
+         * Returns null if bulk fetching is disabled or not possible, in which case the caller should query the table directly.
+         */
+        private List<CachedRow> getBulkRows(String key, String tableColumnName, String table, BulkQuery bulkQuery) throws SQLException {
+            if (!isBulkFetch() || table == null) {
+                return null;
+            }
+
+            Map<String, List<CachedRow>> rowsByTable;
+            if (cachedResultsByTable.containsKey(key)) {
+                rowsByTable = cachedResultsByTable.get(key);
+            } else {
+                rowsByTable = null;
+                try {
+                    List<CachedRow> rows = bulkQuery.execute();
+                    rowsByTable = new HashMap<String, List<CachedRow>>();
+                    for (CachedRow row : rows) {
+                        String rowTable = row.getString(tableColumnName);
+                        List<CachedRow> tableRows = rowsByTable.get(rowTable);
+                        if (tableRows == null) {
+                            tableRows = new ArrayList<CachedRow>();
+                            rowsByTable.put(rowTable, tableRows);
+                        }
+                        tableRows.add(row);
+                    }
+                } catch (SQLException e) {
+                    LogFactory.getLogger().debug("Cannot fetch "+key+" for all tables, fetching per table: "+e.getMessage());
+                }
+                cachedResultsByTable.put(key, rowsByTable);
+            }
 
+            if (rowsByTable == null) {
+                return null;
+            }
+            List<CachedRow> tableRows = rowsByTable.get(table);
+            if (tableRows == null) {
+                return new ArrayList<CachedRow>();
+            }
+            return tableRows;
         }
 
-        public List<CachedRow> getImportedKeys(String catalogName, String schemaName, String table) throws SQLException {
+        private List<CachedRow> filter(List<CachedRow> rows, String columnName, String value) {
+            List<CachedRow> returnList = new ArrayList<CachedRow>();
+            for (CachedRow row : rows) {
+                if (value.equals(row.getString(columnName))) {
+                    returnList.add(row);
+                }
+            }
+            return returnList;
+        }
+
+        public List<CachedRow> getImportedKeys(final String catalogName, final String schemaName, String table) throws SQLException {
+            List<CachedRow> bulkRows = getBulkRows(createKey("getImportedKeys", catalogName, schemaName), "FKTABLE_NAME", table, new BulkQuery() {
+                public List<CachedRow> execute() throws SQLException {
+                    return extractRows(databaseMetaData.getImportedKeys(catalogName, schemaName, null));
+                }
+            });
+            if (bulkRows != null) {
+                return bulkRows;
+            }
+
             String key = createKey("getImportedKeys", catalogName, schemaName, table);
             if (hasCachedValue(key)) {
                 return getCachedValue(key);
@@ -98,7 +239,16 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
             return cacheResultSet(key, databaseMetaData.getImportedKeys(catalogName, schemaName, table));
         }
 
-        public List<CachedRow> getIndexInfo(String catalogName, String schemaName, String table, boolean unique, boolean approximate) throws SQLException {
+        public List<CachedRow> getIndexInfo(final String catalogName, final String schemaName, String table, final boolean unique, final boolean approximate) throws SQLException {
+            List<CachedRow> bulkRows = getBulkRows(createKey("getIndexInfo", catalogName, schemaName, unique, approximate), "TABLE_NAME", table, new BulkQuery() {
+                public List<CachedRow> execute() throws SQLException {
+                    return extractRows(databaseMetaData.getIndexInfo(catalogName, schemaName, null, unique, approximate));
+                }
+            });
+            if (bulkRows != null) {
+                return bulkRows;
+            }
+
             String key = createKey("getIndexInfo", catalogName, schemaName, table, unique, approximate);
             if (hasCachedValue(key)) {
                 return getCachedValue(key);
@@ -107,11 +257,27 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
             return cacheResultSet(key, databaseMetaData.getIndexInfo(catalogName, schemaName, table, unique, approximate));
         }
 
-        public List<CachedRow> getColumns(String catalogName, String schemaName, String tableNamePattern, String columnNamePattern) throws SQLException {
+        public List<CachedRow> getColumns(final String catalogName, final String schemaName, String tableNamePattern, String columnNamePattern) throws SQLException {
+            List<CachedRow> bulkRows = getBulkRows(createKey("getColumns", catalogName, schemaName), "TABLE_NAME", tableNamePattern, new BulkQuery() {
+                public List<CachedRow> execute() throws SQLException {
+                    return extractRows(databaseMetaData.getColumns(catalogName, schemaName, null, null));
+                }
+            });
+            if (bulkRows != null) {
+                if (columnNamePattern == null) {
+                    return bulkRows;
+                }
+                return filter(bulkRows, "COLUMN_NAME", columnNamePattern);
+            }
+
             String key = createKey("getColumns", catalogName, schemaName, tableNamePattern, columnNamePattern);
             if (hasCachedValue(key)) {
                 return getCachedValue(key);
             }
+            String tableKey = createKey("getColumns", catalogName, schemaName, tableNamePattern, null);
+            if (columnNamePattern != null && prefetchedColumnKeys.contains(tableKey)) { //all the table's columns were already read by prefetchTableMetaData
+                return filter(getCachedValue(tableKey), "COLUMN_NAME", columnNamePattern);
+            }
 
             return cacheResultSet(key, databaseMetaData.getColumns(catalogName, schemaName, tableNamePattern, columnNamePattern));
         }
@@ -125,7 +291,16 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
             return cacheResultSet(key, databaseMetaData.getTables(catalogName, schemaName, tableNamePattern, types));
         }
 
-        public List<CachedRow> getPrimaryKeys(String catalogName, String schemaName, String table) throws SQLException {
+        public List<CachedRow> getPrimaryKeys(final String catalogName, final String schemaName, String table) throws SQLException {
+            List<CachedRow> bulkRows = getBulkRows(createKey("getPrimaryKeys", catalogName, schemaName), "TABLE_NAME", table, new BulkQuery() {
+                public List<CachedRow> execute() throws SQLException {
+                    return extractRows(databaseMetaData.getPrimaryKeys(catalogName, schemaName, null));
+                }
+            });
+            if (bulkRows != null) {
+                return bulkRows;
+            }
+
             String key = createKey("getPrimaryKeys", catalogName, schemaName, table);
             if (hasCachedValue(key)) {
                 return getCachedValue(key);
@@ -147,6 +322,100 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
                 statement.close();
             }
         }
+
+        /**
+         * Returns the rows of a schema-wide catalog query whose tableColumnName value equals the given table.
+         * Used for dialect-specific queries in bulk fetch mode. Returns null if bulk fetching is disabled or the query failed.
+         */
+        public List<CachedRow> queryForTable(final String schemaWideSql, String tableColumnName, String table) throws SQLException {
+            return getBulkRows(createKey("query", schemaWideSql), tableColumnName, table, new BulkQuery() {
+                public List<CachedRow> execute() throws SQLException {
+                    Statement statement = getDatabaseMetaData().getConnection().createStatement();
+                    try {
+                        return extractRows(statement.executeQuery(schemaWideSql));
+                    } finally {
+                        statement.close();
+                    }
+                }
+            });
+        }
+
+        /**
+         * Reads the columns, primary keys, foreign keys and indexes of the given tables over connections from the given DataSource, using up to
+         * the given number of threads, and caches them under the same keys as the per-table methods.
+         * Tables that cannot be read are logged and skipped; they are read over the snapshot connection when the snapshot asks for them.
+         */
+        public void prefetchTableMetaData(final String catalogName, final String schemaName, Collection<String> tableNames, final DataSource dataSource, int threads) {
+            threads = Math.min(threads, tableNames.size());
+            if (threads < 1) {
+                return;
+            }
+
+            final Queue<String> remainingTables = new ConcurrentLinkedQueue<String>(tableNames);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<Future<?>>();
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(new Runnable() {
+                        public void run() {
+                            prefetchTables(catalogName, schemaName, remainingTables, dataSource);
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        LogFactory.getLogger().debug("Error prefetching table metadata: " + e.getCause().getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private void prefetchTables(String catalogName, String schemaName, Queue<String> remainingTables, DataSource dataSource) {
+            Connection connection;
+            try {
+                connection = dataSource.getConnection();
+            } catch (SQLException e) {
+                LogFactory.getLogger().debug("Cannot open connection to prefetch table metadata: " + e.getMessage());
+                return;
+            }
+            try {
+                DatabaseMetaData metaData = connection.getMetaData();
+                String table;
+                while ((table = remainingTables.poll()) != null) {
+                    try {
+                        String columnsKey = createKey("getColumns", catalogName, schemaName, table, null);
+                        cachedResults.put(columnsKey, extractRows(metaData.getColumns(catalogName, schemaName, table, null)));
+                        prefetchedColumnKeys.add(columnsKey);
+                        cachedResults.put(createKey("getPrimaryKeys", catalogName, schemaName, table), extractRows(metaData.getPrimaryKeys(catalogName, schemaName, table)));
+                        cachedResults.put(createKey("getImportedKeys", catalogName, schemaName, table), extractRows(metaData.getImportedKeys(catalogName, schemaName, table)));
+                        cachedResults.put(createKey("getExportedKeys", catalogName, schemaName, table), extractRows(metaData.getExportedKeys(catalogName, schemaName, table)));
+                        if (!(getDatabase() instanceof OracleDatabase)) { //IndexSnapshotGenerator queries ALL_IND_COLUMNS on oracle
+                            cachedResults.put(createKey("getIndexInfo", catalogName, schemaName, table, false, true), extractRows(metaData.getIndexInfo(catalogName, schemaName, table, false, true)));
+                        }
+                    } catch (SQLException e) {
+                        LogFactory.getLogger().debug("Cannot prefetch metadata for table " + table + ": " + e.getMessage());
+                    }
+                }
+            } catch (SQLException e) {
+                LogFactory.getLogger().debug("Cannot prefetch table metadata: " + e.getMessage());
+            } finally {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    //nothing to do
+                }
+            }
+        }
+    }
+
+    private interface BulkQuery {
+        List<CachedRow> execute() throws SQLException;
     }
 
     public class CachedRow {
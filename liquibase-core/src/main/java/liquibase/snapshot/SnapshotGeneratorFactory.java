@@ -22,6 +22,8 @@ public class SnapshotGeneratorFactory {
 
     private List<SnapshotGenerator> generators = new ArrayList<SnapshotGenerator>();
 
+    private Map<Database, SnapshotCache> snapshotCaches = Collections.synchronizedMap(new IdentityHashMap<Database, SnapshotCache>());
+
     private SnapshotGeneratorFactory() {
         Class[] classes;
         try {
@@ -84,7 +86,15 @@ public class SnapshotGeneratorFactory {
 
 
     public boolean has(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
-        if (createSnapshot(example, database, new SnapshotControl(example.getClass())) != null) {
+        SnapshotCache snapshotCache = snapshotCaches.get(database);
+        if (snapshotCache != null) {
+            return hasCached(example, database, snapshotCache);
+        }
+        return hasUncached(example, database);
+    }
+
+    private boolean hasUncached(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
+        if (createSnapshot(example, database, createSingleObjectSnapshotControl(example.getClass())) != null) {
             return true;
         }
         CatalogAndSchema catalogAndSchema;
@@ -102,6 +112,185 @@ public class SnapshotGeneratorFactory {
         return false;
     }
 
+    /**
+     * Answers {@link #has} from a cached snapshot of the example's schema. The snapshot holds every object of the example's type in the schema,
+     * so an example not in it does not exist, as long as the schema has not changed since the snapshot was taken.
+     * Examples with a name passed to {@link #clearSnapshotCache(CatalogAndSchema, Collection, Database)} since, or in a table or view with one, are looked up directly instead.
+     */
+    private boolean hasCached(DatabaseObject example, Database database, SnapshotCache snapshotCache) throws DatabaseException, InvalidExampleException {
+        CatalogAndSchema catalogAndSchema = getCatalogAndSchema(example, database);
+
+        String key = getSchemaSnapshotKey(catalogAndSchema, example.getClass());
+        DatabaseSnapshot snapshot;
+        synchronized (snapshotCache) {
+            if (snapshotCache.isChanged(catalogAndSchema.toString(), example)) {
+                snapshot = null;
+            } else {
+                snapshot = snapshotCache.snapshots.get(key);
+                if (snapshot == null) {
+                    snapshot = createSchemaSnapshot(catalogAndSchema, Collections.<Class<? extends DatabaseObject>>singleton(example.getClass()), database);
+                    snapshotCache.snapshots.put(key, snapshot);
+                }
+            }
+        }
+        if (snapshot == null) {
+            return hasUncached(example, database);
+        }
+
+        if (snapshot.get(example) != null) {
+            return true;
+        }
+        for (DatabaseObject obj : snapshot.get(example.getClass())) { //the example may not have all the identifying fields the index is keyed on, such as the schema
+            if (DatabaseObjectComparatorFactory.getInstance().isSameObject(example, obj, database)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the schemas of the given examples into the cache started with {@link #startSnapshotCache(Database)}, so later {@link #has} calls for them are answered without going to the database.
+     * Each schema is read by one bulk-fetching snapshot of all the types looked for in it. Does nothing if the cache is not started.
+     */
+    public void cacheSnapshots(Collection<? extends DatabaseObject> examples, Database database) throws DatabaseException, InvalidExampleException {
+        SnapshotCache snapshotCache = snapshotCaches.get(database);
+        if (snapshotCache == null) {
+            return;
+        }
+
+        Map<String, CatalogAndSchema> schemas = new LinkedHashMap<String, CatalogAndSchema>();
+        Map<String, Set<Class<? extends DatabaseObject>>> typesBySchema = new HashMap<String, Set<Class<? extends DatabaseObject>>>();
+        for (DatabaseObject example : examples) {
+            CatalogAndSchema catalogAndSchema = getCatalogAndSchema(example, database);
+            String schemaKey = catalogAndSchema.toString();
+            if (!schemas.containsKey(schemaKey)) {
+                schemas.put(schemaKey, catalogAndSchema);
+                typesBySchema.put(schemaKey, new HashSet<Class<? extends DatabaseObject>>());
+            }
+            typesBySchema.get(schemaKey).add(example.getClass());
+        }
+
+        synchronized (snapshotCache) {
+            for (Map.Entry<String, CatalogAndSchema> schema : schemas.entrySet()) {
+                Set<Class<? extends DatabaseObject>> types = typesBySchema.get(schema.getKey());
+                for (Iterator<Class<? extends DatabaseObject>> iterator = types.iterator(); iterator.hasNext(); ) {
+                    if (snapshotCache.snapshots.containsKey(getSchemaSnapshotKey(schema.getValue(), iterator.next()))) {
+                        iterator.remove();
+                    }
+                }
+                if (types.isEmpty()) {
+                    continue;
+                }
+
+                DatabaseSnapshot snapshot = createSchemaSnapshot(schema.getValue(), types, database);
+                for (Class<? extends DatabaseObject> type : types) {
+                    snapshotCache.snapshots.put(getSchemaSnapshotKey(schema.getValue(), type), snapshot);
+                }
+            }
+        }
+    }
+
+    private CatalogAndSchema getCatalogAndSchema(DatabaseObject example, Database database) {
+        CatalogAndSchema catalogAndSchema;
+        if (example.getSchema() == null) {
+            catalogAndSchema = database.getDefaultSchema();
+        } else {
+            catalogAndSchema = example.getSchema().toCatalogAndSchema();
+        }
+        return database.correctSchema(catalogAndSchema);
+    }
+
+    private String getSchemaSnapshotKey(CatalogAndSchema catalogAndSchema, Class<? extends DatabaseObject> type) {
+        return catalogAndSchema.toString() + ":" + type.getName();
+    }
+
+    private DatabaseSnapshot createSchemaSnapshot(CatalogAndSchema catalogAndSchema, Set<Class<? extends DatabaseObject>> types, Database database) throws DatabaseException, InvalidExampleException {
+        Set<Class<? extends DatabaseObject>> snapshotTypes = new HashSet<Class<? extends DatabaseObject>>(types);
+        snapshotTypes.add(Schema.class); //the schema and tables are needed to reach the other types through them
+        snapshotTypes.add(Table.class);
+
+        SnapshotControl snapshotControl = new SnapshotControl(snapshotTypes);
+        snapshotControl.setBulkFetch(true);
+        return createSnapshot(catalogAndSchema, database, snapshotControl);
+    }
+
+    /**
+     * Starts caching the schema snapshots {@link #has} reads for the given database, so existence checks share one snapshot per schema and object type
+     * rather than each reading the whole schema when the object is not found directly. Meant for the length of an update, where preconditions check many objects.
+     * Whenever a schema may have changed, the cache must be told which objects with {@link #clearSnapshotCache(CatalogAndSchema, Collection, Database)},
+     * or cleared with {@link #clearSnapshotCache(Collection, Database)} or {@link #clearSnapshotCache(Database)} if they are not known.
+     *
+     * @return false if the cache was already started, in which case the caller should not stop it
+     */
+    public boolean startSnapshotCache(Database database) {
+        synchronized (snapshotCaches) {
+            if (snapshotCaches.containsKey(database)) {
+                return false;
+            }
+            snapshotCaches.put(database, new SnapshotCache());
+            return true;
+        }
+    }
+
+    /**
+     * Discards the snapshots cached for the given database, if {@link #startSnapshotCache(Database)} was called for it.
+     */
+    public void clearSnapshotCache(Database database) {
+        SnapshotCache snapshotCache = snapshotCaches.get(database);
+        if (snapshotCache != null) {
+            synchronized (snapshotCache) {
+                snapshotCache.snapshots.clear();
+                snapshotCache.changedNames.clear();
+            }
+        }
+    }
+
+    /**
+     * Discards the snapshots cached for the given database of the given schemas, keeping those of other schemas.
+     */
+    public void clearSnapshotCache(Collection<CatalogAndSchema> schemas, Database database) {
+        SnapshotCache snapshotCache = snapshotCaches.get(database);
+        if (snapshotCache != null) {
+            synchronized (snapshotCache) {
+                for (CatalogAndSchema schema : schemas) {
+                    String schemaKey = database.correctSchema(schema).toString();
+                    for (Iterator<String> iterator = snapshotCache.snapshots.keySet().iterator(); iterator.hasNext(); ) {
+                        if (iterator.next().startsWith(schemaKey + ":")) {
+                            iterator.remove();
+                        }
+                    }
+                    snapshotCache.changedNames.remove(schemaKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps the snapshots cached for the given database of the given schema, but stops answering {@link #has} from them for objects with one of the given names,
+     * or in a table or view with one of them. Those are looked up in the database instead, so the rest of the schema does not need to be read again
+     * after a change to a few of its objects.
+     */
+    public void clearSnapshotCache(CatalogAndSchema schema, Collection<String> objectNames, Database database) {
+        SnapshotCache snapshotCache = snapshotCaches.get(database);
+        if (snapshotCache != null) {
+            synchronized (snapshotCache) {
+                String schemaKey = database.correctSchema(schema).toString();
+                Set<String> changedNames = snapshotCache.changedNames.get(schemaKey);
+                if (changedNames == null) {
+                    changedNames = new HashSet<String>();
+                    snapshotCache.changedNames.put(schemaKey, changedNames);
+                }
+                for (String name : objectNames) {
+                    changedNames.add(name.toUpperCase());
+                }
+            }
+        }
+    }
+
+    public void stopSnapshotCache(Database database) {
+        snapshotCaches.remove(database);
+    }
+
     public DatabaseSnapshot createSnapshot(CatalogAndSchema example, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
         return createSnapshot(new CatalogAndSchema[] {example}, database, snapshotControl);
     }
@@ -126,7 +315,20 @@ public class SnapshotGeneratorFactory {
     }
 
     public <T extends DatabaseObject> T createSnapshot(T example, Database database) throws DatabaseException, InvalidExampleException {
-        return createSnapshot(example, database, new SnapshotControl());
+        return createSnapshot(example, database, createSingleObjectSnapshotControl(null));
+    }
+
+    /**
+     * Creates the SnapshotControl used to read a single object, including only the given type or the default types if it is null.
+     */
+    private SnapshotControl createSingleObjectSnapshotControl(Class<? extends DatabaseObject> type) {
+        Set<Class<? extends DatabaseObject>> types = new HashSet<Class<? extends DatabaseObject>>();
+        if (type != null) {
+            types.add(type);
+        }
+        SnapshotControl snapshotControl = new SnapshotControl(types);
+        snapshotControl.setBulkFetch(false); //schema-wide queries cost more than they save for a single object
+        return snapshotControl;
     }
 
     public <T extends DatabaseObject> T createSnapshot(T example, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
@@ -171,4 +373,29 @@ public class SnapshotGeneratorFactory {
     public static void resetAll() {
         instance = null;
     }
+
+    /**
+     * The schema snapshots cached for a database, keyed by schema and object type, and the upper-cased names of the objects changed since, keyed by schema.
+     */
+    private static class SnapshotCache {
+        private Map<String, DatabaseSnapshot> snapshots = new HashMap<String, DatabaseSnapshot>();
+        private Map<String, Set<String>> changedNames = new HashMap<String, Set<String>>();
+
+        private boolean isChanged(String schemaKey, DatabaseObject example) {
+            Set<String> names = changedNames.get(schemaKey);
+            if (names == null) {
+                return false;
+            }
+            if (example.getName() != null && names.contains(example.getName().toUpperCase())) {
+                return true;
+            }
+            for (String attribute : example.getAttributes()) { //such as the table of a column, index or key
+                Object value = example.getAttribute(attribute, Object.class);
+                if (value instanceof Relation && ((Relation) value).getName() != null && names.contains(((Relation) value).getName().toUpperCase())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -155,8 +155,11 @@ public class IndexSnapshotGenerator extends JdbcSnapshotGenerator {
 
                 if (database instanceof OracleDatabase) {
                     //oracle getIndexInfo is buggy and slow.  See Issue 1824548 and http://forums.oracle.com/forums/thread.jspa?messageID=578383&#578383
-                    String sql = "SELECT INDEX_NAME, COLUMN_NAME FROM ALL_IND_COLUMNS WHERE TABLE_OWNER='" + schema.getName() + "' AND TABLE_NAME='" + table.getName() + "'";
-                    rs = databaseMetaData.query(sql);
+                    rs = queryOracleIndexColumnsInBulk(databaseMetaData, schema, table);
+                    if (rs == null) {
+                        String sql = "SELECT INDEX_NAME, COLUMN_NAME FROM ALL_IND_COLUMNS WHERE TABLE_OWNER='" + schema.getName() + "' AND TABLE_NAME='" + table.getName() + "'";
+                        rs = databaseMetaData.query(sql);
+                    }
                 } else {
                     rs = databaseMetaData.getIndexInfo(((AbstractJdbcDatabase) database).getJdbcCatalogName(schema),
                             ((AbstractJdbcDatabase) database).getJdbcSchemaName(schema), table.getName(), false, true);
@@ -227,12 +230,15 @@ public class IndexSnapshotGenerator extends JdbcSnapshotGenerator {
 
                 if (database instanceof OracleDatabase) {
                     //oracle getIndexInfo is buggy and slow.  See Issue 1824548 and http://forums.oracle.com/forums/thread.jspa?messageID=578383&#578383
-                    String sql = "SELECT INDEX_NAME, 3 AS TYPE, TABLE_NAME, COLUMN_NAME, COLUMN_POSITION AS ORDINAL_POSITION, null AS FILTER_CONDITION FROM ALL_IND_COLUMNS WHERE TABLE_OWNER='" + schema.getName() + "' AND TABLE_NAME='" + table.getName() + "'";
-                    if (exampleName != null) {
-                        sql += " AND INDEX_NAME='" + exampleName + "'";
+                    rs = queryOracleIndexColumnsInBulk(databaseMetaData, schema, table);
+                    if (rs == null) {
+                        String sql = "SELECT INDEX_NAME, 3 AS TYPE, TABLE_NAME, COLUMN_NAME, COLUMN_POSITION AS ORDINAL_POSITION, null AS FILTER_CONDITION FROM ALL_IND_COLUMNS WHERE TABLE_OWNER='" + schema.getName() + "' AND TABLE_NAME='" + table.getName() + "'";
+                        if (exampleName != null) {
+                            sql += " AND INDEX_NAME='" + exampleName + "'";
+                        }
+                        sql += " ORDER BY INDEX_NAME, ORDINAL_POSITION";
+                        rs = databaseMetaData.query(sql);
                     }
-                    sql += " ORDER BY INDEX_NAME, ORDINAL_POSITION";
-                    rs = databaseMetaData.query(sql);
                 } else {
                     rs = databaseMetaData.getIndexInfo(((AbstractJdbcDatabase) database).getJdbcCatalogName(schema),
                             ((AbstractJdbcDatabase) database).getJdbcSchemaName(schema),
@@ -348,6 +354,14 @@ public class IndexSnapshotGenerator extends JdbcSnapshotGenerator {
 //        snapshot.removeDatabaseObjects(schema, indexesToRemove.toArray(new Index[indexesToRemove.size()]));
     }
 
+    /**
+     * Returns the ALL_IND_COLUMNS rows for the given table, read with one query for the whole schema. Returns null if the snapshot is not in bulk fetch mode.
+     */
+    protected List<JdbcDatabaseSnapshot.CachedRow> queryOracleIndexColumnsInBulk(JdbcDatabaseSnapshot.CachingDatabaseMetaData databaseMetaData, Schema schema, Table table) throws SQLException {
+        String sql = "SELECT INDEX_NAME, 3 AS TYPE, TABLE_NAME, COLUMN_NAME, COLUMN_POSITION AS ORDINAL_POSITION, null AS FILTER_CONDITION FROM ALL_IND_COLUMNS WHERE TABLE_OWNER='" + schema.getName() + "' ORDER BY TABLE_NAME, INDEX_NAME, ORDINAL_POSITION";
+        return databaseMetaData.queryForTable(sql, "TABLE_NAME", table.getName());
+    }
+
     //METHOD FROM SQLIteDatabaseSnapshotGenerator
     //    protected void readIndexes(DatabaseSnapshot snapshot, String schema, DatabaseMetaData databaseMetaData) throws DatabaseException, SQLException {
 //        Database database = snapshot.getDatabase();
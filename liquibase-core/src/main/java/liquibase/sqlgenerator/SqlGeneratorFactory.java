@@ -12,6 +12,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * SqlGeneratorFactory is a singleton registry of SqlGenerators.
@@ -28,6 +29,10 @@ public class SqlGeneratorFactory {
     private final Map<Class<?>, Type[]> genericInterfacesCache = new HashMap<Class<?>, Type[]>();
     private final Map<Class<?>, Type> genericSuperClassCache = new HashMap<Class<?>, Type>();
 
+    //generators whose declared statement type matches a statement class. Cleared whenever the generators may change.
+    //Read without locking by the threads generating SQL, filled and cleared while holding the factory's lock
+    private final Map<Class<? extends SqlStatement>, List<SqlGenerator>> candidateGeneratorsCache = new ConcurrentHashMap<Class<? extends SqlStatement>, List<SqlGenerator>>();
+
     private SqlGeneratorFactory() {
         Class[] classes;
         try {
@@ -58,15 +63,17 @@ public class SqlGeneratorFactory {
     }
 
 
-    public void register(SqlGenerator generator) {
+    public synchronized void register(SqlGenerator generator) {
         generators.add(generator);
+        candidateGeneratorsCache.clear();
     }
 
-    public void unregister(SqlGenerator generator) {
+    public synchronized void unregister(SqlGenerator generator) {
         generators.remove(generator);
+        candidateGeneratorsCache.clear();
     }
 
-    public void unregister(Class generatorClass) {
+    public synchronized void unregister(Class generatorClass) {
         SqlGenerator toRemove = null;
         for (SqlGenerator existingGenerator : generators) {
             if (existingGenerator.getClass().equals(generatorClass)) {
@@ -78,36 +85,86 @@ public class SqlGeneratorFactory {
     }
 
 
+    /**
+     * Returns the registered generators. Use {@link #register(SqlGenerator)} and {@link #unregister(SqlGenerator)} to change them.
+     */
     protected Collection<SqlGenerator> getGenerators() {
-        return generators;
+        return Collections.unmodifiableCollection(generators);
+    }
+
+    /**
+     * Returns the generator at the head of the chain for the statement, or null if no generator supports it.
+     */
+    public SqlGenerator getGenerator(SqlStatement statement, Database database) {
+        SortedSet<SqlGenerator> generators = getGenerators(statement, database);
+        if (generators.isEmpty()) {
+            return null;
+        }
+        return generators.first();
     }
 
     protected SortedSet<SqlGenerator> getGenerators(SqlStatement statement, Database database) {
         SortedSet<SqlGenerator> validGenerators = new TreeSet<SqlGenerator>(new SqlGeneratorComparator());
 
-        for (SqlGenerator generator : getGenerators()) {
-            Class clazz = generator.getClass();
-            Type classType = null;
-            while (clazz != null) {
-                if (classType instanceof ParameterizedType) {
-                    checkType(classType, statement, generator, database, validGenerators);
+        for (SqlGenerator generator : getCandidateGenerators(statement.getClass())) {
+            //noinspection unchecked
+            if (generator.supports(statement, database)) {
+                validGenerators.add(generator);
+            }
+        }
+        return validGenerators;
+    }
+
+    /**
+     * Returns the registered generators whose declared statement type can handle the given statement class.
+     * The reflection based type check is independent of the database and statement instance, so the result is cached per statement class
+     * and only {@link SqlGenerator#supports(liquibase.statement.SqlStatement, liquibase.database.Database)} needs to be called per statement.
+     */
+    protected List<SqlGenerator> getCandidateGenerators(Class<? extends SqlStatement> statementClass) {
+        List<SqlGenerator> candidates = candidateGeneratorsCache.get(statementClass);
+        if (candidates != null) {
+            return candidates;
+        }
+
+        synchronized (this) { //also guards the generic type caches used by isCandidate
+            candidates = candidateGeneratorsCache.get(statementClass);
+            if (candidates == null) {
+                candidates = new ArrayList<SqlGenerator>();
+                for (SqlGenerator generator : generators) {
+                    if (isCandidate(generator.getClass(), statementClass)) {
+                        candidates.add(generator);
+                    }
+                }
+                candidates = Collections.unmodifiableList(candidates);
+                candidateGeneratorsCache.put(statementClass, candidates);
+            }
+            return candidates;
+        }
+    }
+
+    private boolean isCandidate(Class<?> generatorClass, Class<? extends SqlStatement> statementClass) {
+        Class<?> clazz = generatorClass;
+        Type classType = null;
+        while (clazz != null) {
+            if (classType instanceof ParameterizedType) {
+                if (checkType(classType, statementClass)) {
+                    return true;
                 }
+            }
 
-                for (Type type : getGenericInterfaces(clazz)) {
-                    if (type instanceof ParameterizedType) {
-                        checkType(type, statement, generator, database, validGenerators);
-                    } else if (isTypeEqual(type, SqlGenerator.class)) {
-                        //noinspection unchecked
-                        if (generator.supports(statement, database)) {
-                            validGenerators.add(generator);
-                        }
+            for (Type type : getGenericInterfaces(clazz)) {
+                if (type instanceof ParameterizedType) {
+                    if (checkType(type, statementClass)) {
+                        return true;
                     }
+                } else if (isTypeEqual(type, SqlGenerator.class)) {
+                    return true;
                 }
-                classType = getGenericSuperclass(clazz);
-                clazz = clazz.getSuperclass();
             }
+            classType = getGenericSuperclass(clazz);
+            clazz = clazz.getSuperclass();
         }
-        return validGenerators;
+        return false;
     }
 
     private Type[] getGenericInterfaces(Class<?> clazz) {
@@ -130,30 +187,28 @@ public class SqlGeneratorFactory {
         return genericSuperclass;
     }
 
-    private boolean isTypeEqual(Type aType, Class aClass) {
+    private boolean isTypeEqual(Type aType, Class<?> aClass) {
         if (aType instanceof Class) {
-            return ((Class) aType).getName().equals(aClass.getName());
+            return ((Class<?>) aType).getName().equals(aClass.getName());
         }
         return aType.equals(aClass);
     }
 
-    private void checkType(Type type, SqlStatement statement, SqlGenerator generator, Database database, SortedSet<SqlGenerator> validGenerators) {
+    private boolean checkType(Type type, Class<? extends SqlStatement> statementClass) {
         for (Type typeClass : ((ParameterizedType) type).getActualTypeArguments()) {
             if (typeClass instanceof TypeVariable) {
-                typeClass = ((TypeVariable) typeClass).getBounds()[0];
+                typeClass = ((TypeVariable<?>) typeClass).getBounds()[0];
             }
 
             if (isTypeEqual(typeClass, SqlStatement.class)) {
-                return;
+                return false;
             }
 
-            if (((Class) typeClass).isAssignableFrom(statement.getClass())) {
-                if (generator.supports(statement, database)) {
-                    validGenerators.add(generator);
-                }
+            if (((Class<?>) typeClass).isAssignableFrom(statementClass)) {
+                return true;
             }
         }
-
+        return false;
     }
 
     private SqlGeneratorChain createGeneratorChain(SqlStatement statement, Database database) {
@@ -226,5 +281,4 @@ public class SqlGeneratorFactory {
         return affectedObjects;
 
     }
-
 }
@@ -30,6 +30,17 @@ public class MarkChangeSetRanGenerator extends AbstractSqlGenerator<MarkChangeSe
     }
 
     public Sql[] generateSql(MarkChangeSetRanStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        SqlStatement runStatement = generateRunStatement(statement, database);
+        if (runStatement == null) {
+            return new Sql[0]; //don't mark
+        }
+        return SqlGeneratorFactory.getInstance().generateSql(runStatement, database);
+    }
+
+    /**
+     * Returns the insert or update of the DATABASECHANGELOG row for the statement, or null if the changeSet is not recorded.
+     */
+    public SqlStatement generateRunStatement(MarkChangeSetRanStatement statement, Database database) {
         String dateValue = database.getCurrentDateTimeFunction();
 
         ChangeSet changeSet = statement.getChangeSet();
@@ -37,7 +48,7 @@ public class MarkChangeSetRanGenerator extends AbstractSqlGenerator<MarkChangeSe
         SqlStatement runStatement;
         try {
             if (statement.getExecType().equals(ChangeSet.ExecType.FAILED) || statement.getExecType().equals(ChangeSet.ExecType.SKIPPED)) {
-                return new Sql[0]; //don't mark
+                return null;
             } else  if (statement.getExecType().ranBefore) {
                 runStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
                         .addNewColumnValue("DATEEXECUTED", new DatabaseFunction(dateValue))
@@ -75,7 +86,7 @@ public class MarkChangeSetRanGenerator extends AbstractSqlGenerator<MarkChangeSe
             throw new UnexpectedLiquibaseException(e);
         }
 
-        return SqlGeneratorFactory.getInstance().generateSql(runStatement, database);
+        return runStatement;
     }
 
     private String limitSize(String string) {
@@ -0,0 +1,34 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.DatabaseFunction;
+import liquibase.statement.core.RenewDatabaseChangeLogLockStatement;
+import liquibase.statement.core.UpdateStatement;
+
+public class RenewDatabaseChangeLogLockGenerator extends AbstractSqlGenerator<RenewDatabaseChangeLogLockStatement> {
+
+    public ValidationErrors validate(RenewDatabaseChangeLogLockStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("lockedBy", statement.getLockedBy());
+        return validationErrors;
+    }
+
+    public Sql[] generateSql(RenewDatabaseChangeLogLockStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String liquibaseSchema = database.getLiquibaseSchemaName();
+        String liquibaseCatalog = database.getLiquibaseCatalogName();
+
+        UpdateStatement updateStatement = new UpdateStatement(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogLockTableName());
+        updateStatement.addNewColumnValue("LOCKGRANTED", new DatabaseFunction(database.getCurrentDateTimeFunction()));
+        updateStatement.setWhereClause(database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogLockTableName(), "ID") + " = 1 AND "
+                + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogLockTableName(), "LOCKED") + " = " + DataTypeFactory.getInstance().fromDescription("boolean").objectToSql(true, database) + " AND "
+                + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogLockTableName(), "LOCKEDBY") + " = ?");
+        updateStatement.addWhereParameter(statement.getLockedBy());
+
+        return SqlGeneratorFactory.getInstance().generateSql(updateStatement, database);
+    }
+}
@@ -22,7 +22,13 @@ public class UnlockDatabaseChangeLogGenerator extends AbstractSqlGenerator<Unloc
         releaseStatement.addNewColumnValue("LOCKED", false);
         releaseStatement.addNewColumnValue("LOCKGRANTED", null);
         releaseStatement.addNewColumnValue("LOCKEDBY", null);
-        releaseStatement.setWhereClause(database.escapeColumnName(database.getLiquibaseCatalogName(), liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID")+" = 1");
+        if (statement.getLockedBy() == null) {
+            releaseStatement.setWhereClause(database.escapeColumnName(database.getLiquibaseCatalogName(), liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID")+" = 1");
+        } else {
+            releaseStatement.setWhereClause(database.escapeColumnName(database.getLiquibaseCatalogName(), liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID")+" = 1 AND "
+                    + database.escapeColumnName(database.getLiquibaseCatalogName(), liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKEDBY")+" = ?");
+            releaseStatement.addWhereParameter(statement.getLockedBy());
+        }
 
         return SqlGeneratorFactory.getInstance().generateSql(releaseStatement, database);
     }
@@ -21,14 +21,20 @@ public class UpdateChangeSetChecksumGenerator extends AbstractSqlGenerator<Updat
     }
 
     public Sql[] generateSql(UpdateChangeSetChecksumStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        SqlStatement runStatement = generateUpdateStatement(statement, database);
+
+        return SqlGeneratorFactory.getInstance().generateSql(runStatement, database);
+    }
+
+    /**
+     * Returns the update of the checksum in the DATABASECHANGELOG row for the statement.
+     */
+    public UpdateStatement generateUpdateStatement(UpdateChangeSetChecksumStatement statement, Database database) {
         ChangeSet changeSet = statement.getChangeSet();
 
-        SqlStatement runStatement = null;
-        runStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
+        return new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
                 .addNewColumnValue("MD5SUM", changeSet.generateCheckSum().toString())
                 .setWhereClause("ID=? AND AUTHOR=? AND FILENAME=?")
                 .addWhereParameters(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath());
-
-        return SqlGeneratorFactory.getInstance().generateSql(runStatement, database);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
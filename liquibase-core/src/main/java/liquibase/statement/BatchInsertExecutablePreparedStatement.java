@@ -0,0 +1,166 @@
+package liquibase.statement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import liquibase.change.ColumnConfig;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.logging.LogFactory;
+
+/**
+ * Handles batched INSERT execution of a stream of rows.
+ * A single <code>PreparedStatement</code> is created for the columns and re-bound for each row, which is sent with
+ * <code>addBatch</code>/<code>executeBatch</code> every <code>batchSize</code> rows. Rows are pulled from the iterator as they are
+ * executed, so they are never held in memory together.
+ * Each row must contain one value <code>ColumnConfig</code> per column, in the same order as the columns.
+ * All rows are read once before the first batch is sent to check that every value can be bound as a parameter, so a bad row
+ * fails the statement before anything is inserted. String and NULL values are bound with the JDBC type the driver reports for the parameter.
+ * <p/>
+ * If a commitInterval is given, rows are committed in the middle of the changeSet, so it must only be used in changeSets that do not run in a transaction.
+ */
+public class BatchInsertExecutablePreparedStatement extends InsertExecutablePreparedStatement {
+
+	private Iterable<List<ColumnConfig>> rows;
+	private int batchSize;
+	private Integer commitInterval;
+
+	public BatchInsertExecutablePreparedStatement(Database database, String catalogName, String schemaName, String tableName, List<ColumnConfig> columns, Iterable<List<ColumnConfig>> rows, int batchSize, Integer commitInterval) {
+		super(database, catalogName, schemaName, tableName, columns);
+		if(batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be greater than 0");
+		}
+		this.rows = rows;
+		this.batchSize = batchSize;
+		this.commitInterval = commitInterval;
+	}
+
+	@Override
+	public void execute(PreparedStatementFactory factory) throws DatabaseException {
+		List<ColumnConfig> cols = new ArrayList<ColumnConfig>(getColumns().size());
+		String sql = generateSql(cols);
+
+		boolean[] bound = new boolean[getColumns().size()];
+		for(int i = 0; i < bound.length; i++) {
+			bound[i] = cols.contains(getColumns().get(i));
+		}
+		validateRows(bound);
+
+		PreparedStatement stmt = factory.create(sql);
+		Iterator<List<ColumnConfig>> rowIterator = null;
+		try {
+			Integer[] sqlTypes = getParameterSqlTypes(stmt, cols.size());
+			rowIterator = rows.iterator();
+			int rowsInBatch = 0;
+			int rowsSinceCommit = 0;
+			while(rowIterator.hasNext()) {
+				List<ColumnConfig> row = rowIterator.next();
+				int parameterIndex = 1;  // index starts from 1
+				for(int i = 0; i < bound.length; i++) {
+					if(bound[i]) {
+						applyColumnParameter(stmt, parameterIndex, row.get(i), sqlTypes[parameterIndex - 1]);
+						parameterIndex++;
+					}
+				}
+				stmt.addBatch();
+				rowsInBatch++;
+				rowsSinceCommit++;
+
+				if(rowsInBatch >= batchSize) {
+					stmt.executeBatch();
+					closeStreams();
+					rowsInBatch = 0;
+				}
+				if(commitInterval != null && rowsSinceCommit >= commitInterval) {
+					if(rowsInBatch > 0) {
+						stmt.executeBatch();
+						closeStreams();
+						rowsInBatch = 0;
+					}
+					database.commit();
+					rowsSinceCommit = 0;
+				}
+			}
+			if(rowsInBatch > 0) {
+				stmt.executeBatch();
+			}
+		} catch(SQLException e) {
+			throw new DatabaseException(e);
+		} finally {
+			closeStreams();
+			factory.release(stmt);
+			close(rowIterator);
+		}
+	}
+
+	/**
+	 * Reads all rows and checks that each has a value for every column and that no value is computed by the database,
+	 * as a function or sequence value cannot be bound as a parameter.
+	 */
+	protected void validateRows(boolean[] bound) throws DatabaseException {
+		Iterator<List<ColumnConfig>> rowIterator = rows.iterator();
+		try {
+			int rowNumber = 0;
+			while(rowIterator.hasNext()) {
+				List<ColumnConfig> row = rowIterator.next();
+				rowNumber++;
+				if(row.size() != bound.length) {
+					throw new DatabaseException("Row " + rowNumber + " for " + getTableName() + " has " + row.size() + " values, expected " + bound.length);
+				}
+				for(int i = 0; i < bound.length; i++) {
+					ColumnConfig value = row.get(i);
+					if(bound[i] && (value.getValueComputed() != null || value.getValueSequenceNext() != null || value.getValueSequenceCurrent() != null)) {
+						throw new DatabaseException("Value " + value.getValueObject() + " for column " + getColumns().get(i).getName() + " in row " + rowNumber + " cannot be bound as a parameter");
+					}
+				}
+			}
+		} finally {
+			close(rowIterator);
+		}
+	}
+
+	/**
+	 * Returns the JDBC type of each parameter of the prepared statement, or null where it is not known.
+	 * All are null if the driver does not report parameter metadata.
+	 */
+	protected Integer[] getParameterSqlTypes(PreparedStatement stmt, int parameterCount) {
+		Integer[] sqlTypes = new Integer[parameterCount];
+		try {
+			ParameterMetaData metaData = stmt.getParameterMetaData();
+			if(metaData != null) {
+				for(int i = 0; i < sqlTypes.length; i++) {
+					sqlTypes[i] = metaData.getParameterType(i + 1);
+				}
+			}
+		} catch(SQLException e) {
+			LogFactory.getLogger().debug("Cannot read the parameter types of the insert into " + getTableName() + ", binding values as strings: " + e.getMessage());
+			return new Integer[parameterCount];
+		}
+		return sqlTypes;
+	}
+
+	private void close(Iterator<List<ColumnConfig>> rowIterator) {
+		if(rowIterator instanceof Closeable) {
+			try {
+				((Closeable) rowIterator).close();
+			} catch(IOException e) {
+				;
+			}
+		}
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public Integer getCommitInterval() {
+		return commitInterval;
+	}
+}
@@ -2,14 +2,17 @@ package liquibase.statement;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,6 +28,7 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
 	private String schemaName;
 	private String tableName;
 	private List<ColumnConfig> columns;
+	private List<Closeable> openStreams = new ArrayList<Closeable>();
 
 	protected ExecutablePreparedStatementBase(Database database, String catalogName, String schemaName, String tableName, List<ColumnConfig> columns) {
 		this.database = database;
@@ -55,14 +59,30 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
 	        stmt.execute();
 	    } catch(SQLException e) {
 	        throw new DatabaseException(e);
+	    } finally {
+	        closeStreams();
+	        factory.release(stmt);
 	    }
 	}
 
 	protected abstract String generateSql(List<ColumnConfig> cols);
 	
-	private void applyColumnParameter(PreparedStatement stmt, int i, ColumnConfig col) throws SQLException, DatabaseException {
+	protected void applyColumnParameter(PreparedStatement stmt, int i, ColumnConfig col) throws SQLException, DatabaseException {
+		applyColumnParameter(stmt, i, col, null);
+	}
+
+	/**
+	 * Binds the column's value. String values are converted to the given JDBC type of the target column by the driver if it is a numeric,
+	 * boolean or date/time type, as the database does for literals in generated SQL. Strictly typed databases reject VARCHAR parameters for such columns.
+	 * NULL values are bound with the given type when it is known.
+	 */
+	protected void applyColumnParameter(PreparedStatement stmt, int i, ColumnConfig col, Integer sqlType) throws SQLException, DatabaseException {
 		if(col.getValue() != null) {
-		    stmt.setString(i, col.getValue());
+		    if(sqlType != null && isConvertedFromString(sqlType)) {
+		        stmt.setObject(i, col.getValue(), sqlType);
+		    } else {
+		        stmt.setString(i, col.getValue());
+		    }
 		} else if(col.getValueBoolean() != null) {
 		    stmt.setBoolean(i, col.getValueBoolean());
 		} else if(col.getValueNumeric() != null) {
@@ -81,25 +101,72 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
 		        stmt.setInt(i, number.intValue());
 		    }
 		} else if(col.getValueDate() != null) {
-		    stmt.setDate(i, new java.sql.Date(col.getValueDate().getTime()));
+		    if(col.getValueDate() instanceof java.sql.Timestamp) {
+		        stmt.setTimestamp(i, (java.sql.Timestamp) col.getValueDate());
+		    } else if(col.getValueDate() instanceof java.sql.Time) {
+		        stmt.setTime(i, (java.sql.Time) col.getValueDate());
+		    } else {
+		        stmt.setDate(i, new java.sql.Date(col.getValueDate().getTime()));
+		    }
 		} else if(col.getValueBlobFile() != null) {
 		    try {
 		        File file = new File(col.getValueBlobFile());
-		        stmt.setBinaryStream(i, new BufferedInputStream(new FileInputStream(file)), (int) file.length());
+		        BufferedInputStream stream = new BufferedInputStream(new FileInputStream(file));
+		        openStreams.add(stream);
+		        stmt.setBinaryStream(i, stream, (int) file.length());
 		    } catch (FileNotFoundException e) {
 		        throw new DatabaseException(e.getMessage(), e); // wrap
 		    }
 		} else if(col.getValueClobFile() != null) {
 		    try {
 		        File file = new File(col.getValueClobFile());
-		        stmt.setCharacterStream(i, new BufferedReader(new FileReader(file)), (int) file.length());
+		        BufferedReader reader = new BufferedReader(new FileReader(file));
+		        openStreams.add(reader);
+		        stmt.setCharacterStream(i, reader, (int) file.length());
 		    } catch(FileNotFoundException e) {
 		        throw new DatabaseException(e.getMessage(), e); // wrap
 		    }
 		} else {
 			// NULL values might intentionally be set into a change, we must also add them to the prepared statement  
-			stmt.setNull(i, java.sql.Types.NULL);
+			stmt.setNull(i, sqlType == null ? java.sql.Types.NULL : sqlType);
+		}
+	}
+
+	private boolean isConvertedFromString(int sqlType) {
+		switch(sqlType) {
+		    case Types.BIT:
+		    case Types.BOOLEAN:
+		    case Types.TINYINT:
+		    case Types.SMALLINT:
+		    case Types.INTEGER:
+		    case Types.BIGINT:
+		    case Types.FLOAT:
+		    case Types.REAL:
+		    case Types.DOUBLE:
+		    case Types.NUMERIC:
+		    case Types.DECIMAL:
+		    case Types.DATE:
+		    case Types.TIME:
+		    case Types.TIMESTAMP:
+		        return true;
+		    default:
+		        return false;
+		}
+	}
+
+	/**
+	 * Closes the blob and clob file streams opened by {@link #applyColumnParameter(java.sql.PreparedStatement, int, liquibase.change.ColumnConfig)}.
+	 * Call once the statement they were bound to has been executed.
+	 */
+	protected void closeStreams() {
+		for(Closeable stream : openStreams) {
+			try {
+				stream.close();
+			} catch(IOException e) {
+				;
+			}
 		}
+		openStreams.clear();
 	}
 
 	public boolean skipOnUnsupported() {
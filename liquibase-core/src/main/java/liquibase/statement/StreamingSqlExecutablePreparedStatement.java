@@ -0,0 +1,104 @@
+package liquibase.statement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.logging.LogFactory;
+import liquibase.util.JdbcUtils;
+
+/**
+ * Handles execution of a stream of raw SQL statements, such as those read from a large SQL file.
+ * Statements are pulled from the iterator as they are executed, so they are never held in memory together.
+ * When <code>batchSize</code> is greater than 1, runs of consecutive INSERT, UPDATE, DELETE and MERGE statements are sent with
+ * <code>addBatch</code>/<code>executeBatch</code>, <code>batchSize</code> at a time. Other statements are executed on their own once the
+ * batch before them has been sent.
+ */
+public class StreamingSqlExecutablePreparedStatement implements ExecutablePreparedStatement {
+
+	private static final String[] DML_KEYWORDS = {"INSERT", "UPDATE", "DELETE", "MERGE"};
+
+	private Database database;
+	private Iterable<String> statements;
+	private Integer batchSize;
+
+	public StreamingSqlExecutablePreparedStatement(Database database, Iterable<String> statements, Integer batchSize) {
+		this.database = database;
+		this.statements = statements;
+		this.batchSize = batchSize;
+	}
+
+	public void execute(PreparedStatementFactory factory) throws DatabaseException {
+		Statement stmt = ((JdbcConnection) database.getConnection()).createStatement();
+		Iterator<String> statementIterator = statements.iterator();
+		String sql = null;
+		try {
+			int statementsInBatch = 0;
+			while(statementIterator.hasNext()) {
+				sql = statementIterator.next();
+				if(database instanceof OracleDatabase) {
+					sql = sql.replaceFirst("/\\s*/\\s*$", ""); //remove duplicated /'s
+				}
+
+				if(batchSize != null && batchSize > 1 && isDml(sql) && !sql.contains("?")) {
+					stmt.addBatch(sql);
+					statementsInBatch++;
+					if(statementsInBatch >= batchSize) {
+						stmt.executeBatch();
+						statementsInBatch = 0;
+					}
+				} else {
+					if(statementsInBatch > 0) {
+						stmt.executeBatch();
+						statementsInBatch = 0;
+					}
+					LogFactory.getLogger().debug("Executing EXECUTE database command: " + sql);
+					stmt.setEscapeProcessing(!sql.contains("?"));
+					stmt.execute(sql);
+				}
+			}
+			if(statementsInBatch > 0) {
+				stmt.executeBatch();
+			}
+		} catch(SQLException e) {
+			throw new DatabaseException("Error executing SQL " + sql + ": " + e.getMessage(), e);
+		} finally {
+			JdbcUtils.closeStatement(stmt);
+			if(statementIterator instanceof Closeable) {
+				try {
+					((Closeable) statementIterator).close();
+				} catch(IOException e) {
+					;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the statement starts with a keyword of a statement that can be batched.
+	 */
+	protected boolean isDml(String sql) {
+		for(String keyword : DML_KEYWORDS) {
+			if(sql.regionMatches(true, 0, keyword, 0, keyword.length())
+					&& (sql.length() == keyword.length() || Character.isWhitespace(sql.charAt(keyword.length())))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public boolean skipOnUnsupported() {
+		return false;
+	}
+
+	public Integer getBatchSize() {
+		return batchSize;
+	}
+}
@@ -2,6 +2,31 @@ package liquibase.statement.core;
 
 import liquibase.statement.AbstractSqlStatement;
 
+import java.util.Date;
+
 public class LockDatabaseChangeLogStatement extends AbstractSqlStatement {
-    
+
+    private String lockedBy;
+    private Date expiredLockGrantedBefore;
+
+    public LockDatabaseChangeLogStatement() {
+    }
+
+    /**
+     * @param lockedBy value to store in LOCKEDBY. If null, the host name and address are used.
+     * @param expiredLockGrantedBefore if not null, a lock granted before this time, by the database clock, is treated as expired and is taken over.
+     *                                 LOCKGRANTED is then set from the database clock rather than the client's.
+     */
+    public LockDatabaseChangeLogStatement(String lockedBy, Date expiredLockGrantedBefore) {
+        this.lockedBy = lockedBy;
+        this.expiredLockGrantedBefore = expiredLockGrantedBefore;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public Date getExpiredLockGrantedBefore() {
+        return expiredLockGrantedBefore;
+    }
 }
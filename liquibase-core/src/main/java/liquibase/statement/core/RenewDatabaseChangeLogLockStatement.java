@@ -0,0 +1,19 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+/**
+ * Updates LOCKGRANTED to the current time if the lock is still held by the given LOCKEDBY value.
+ */
+public class RenewDatabaseChangeLogLockStatement extends AbstractSqlStatement {
+
+    private String lockedBy;
+
+    public RenewDatabaseChangeLogLockStatement(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+}
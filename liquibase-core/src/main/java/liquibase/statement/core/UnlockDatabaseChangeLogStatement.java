@@ -3,5 +3,20 @@ package liquibase.statement.core;
 import liquibase.statement.AbstractSqlStatement;
 
 public class UnlockDatabaseChangeLogStatement extends AbstractSqlStatement {
-}
 
+    private String lockedBy;
+
+    public UnlockDatabaseChangeLogStatement() {
+    }
+
+    /**
+     * @param lockedBy if not null, the lock is only released if it is held by this LOCKEDBY value
+     */
+    public UnlockDatabaseChangeLogStatement(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+}
@@ -214,6 +214,11 @@ public class Column extends AbstractDatabaseObject {
         public BigInteger getIncrementBy() {
             return incrementBy;
         }
+
+        @Override
+        public String toString() {
+            return "AUTO INCREMENT START WITH " + startWith + " INCREMENT BY " + incrementBy;
+        }
     }
 }
 
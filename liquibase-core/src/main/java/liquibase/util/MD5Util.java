@@ -2,9 +2,13 @@ package liquibase.util;
 
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
+import liquibase.logging.LogLevel;
+import liquibase.logging.Logger;
 
+import java.io.FileInputStream;
 import java.io.InputStream;
-import java.security.DigestInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.MessageDigest;
 
 /**
@@ -12,6 +16,8 @@ import java.security.MessageDigest;
  */
 public class MD5Util {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /**
      * Used to build output as Hex
      */
@@ -24,29 +30,39 @@ public class MD5Util {
         if (input == null) {
             return null;
         }
-        MessageDigest digest;
-        try {
-            digest = MessageDigest.getInstance("MD5");
-            digest.update(input.getBytes("UTF-8"));
-        } catch (Exception e) {
-            throw new UnexpectedLiquibaseException(e);
-        }
-        byte[] digestBytes = digest.digest();
+        MD5Writer writer = new MD5Writer();
+        writer.write(input);
+        String returnString = writer.getMD5();
 
-        String returnString = new String(encodeHex(digestBytes));
-        LogFactory.getLogger().debug("Computed checksum for "+input+" as "+returnString);
+        Logger logger = LogFactory.getLogger();
+        if (logger.getLogLevel() == LogLevel.DEBUG) {
+            logger.debug("Computed checksum for "+input+" as "+returnString);
+        }
         return returnString;
 
     }
 
+    /**
+     * Computes the md5 of the remaining contents of the stream. The stream is read in blocks, and file streams are read through their channel.
+     * The stream is not closed.
+     */
     public static String computeMD5(InputStream stream) {
-        MessageDigest digest;
+        MessageDigest digest = createDigest();
         try {
-            digest = MessageDigest.getInstance("MD5");
-
-            DigestInputStream digestStream = new DigestInputStream(stream, digest);
-            while (digestStream.read() != -1) {
-                ; //digest is updating
+            if (stream instanceof FileInputStream) {
+                FileChannel channel = ((FileInputStream) stream).getChannel();
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            } else {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -55,10 +71,18 @@ public class MD5Util {
 
         String returnString = new String(encodeHex(digestBytes));
 
-        LogFactory.getLogger().debug("Computed checksum for "+returnString+" as "+returnString);
+        LogFactory.getLogger().debug("Computed checksum for stream as "+returnString);
         return returnString;
     }
 
+    static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
     /**
      * Converts an array of bytes into an array of characters representing the hexadecimal values of each byte in order.
      * The returned array will be double the length of the passed array, as it takes two characters to represent any
@@ -68,7 +92,7 @@ public class MD5Util {
      *            a byte[] to convert to Hex characters
      * @return A char[] containing hexadecimal characters
      */
-    private static char[] encodeHex(byte[] data) {
+    static char[] encodeHex(byte[] data) {
 
         int l = data.length;
 
@@ -0,0 +1,119 @@
+package liquibase.util;
+
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.security.MessageDigest;
+
+/**
+ * Writer that computes the md5 of the UTF-8 encoding of everything written to it, without building the full text or its bytes in memory.
+ * The result is the same as {@link MD5Util#computeMD5(String)} of the concatenated text.
+ */
+public class MD5Writer extends Writer {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private MessageDigest digest = MD5Util.createDigest();
+    private CharsetEncoder encoder = Charset.forName("UTF-8").newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private ByteBuffer bytes = ByteBuffer.allocate((int) (BUFFER_SIZE * encoder.maxBytesPerChar()));
+    private String md5;
+
+    @Override
+    public void write(int c) {
+        checkOpen();
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        checkOpen();
+        while (len > 0) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            int length = Math.min(len, chars.remaining());
+            chars.put(cbuf, off, length);
+            off += length;
+            len -= length;
+        }
+    }
+
+    @Override
+    public void write(String str) {
+        write(str, 0, str.length());
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        checkOpen();
+        while (len > 0) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            int length = Math.min(len, chars.remaining());
+            chars.put(str, off, off + length);
+            off += length;
+            len -= length;
+        }
+    }
+
+    @Override
+    public MD5Writer append(CharSequence csq) {
+        write(String.valueOf(csq));
+        return this;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        getMD5();
+    }
+
+    /**
+     * Returns the md5 of everything written. Nothing more can be written once it is called.
+     */
+    public String getMD5() {
+        if (md5 == null) {
+            encode(true);
+            encoder.flush(bytes);
+            updateDigest();
+            md5 = new String(MD5Util.encodeHex(digest.digest()));
+        }
+        return md5;
+    }
+
+    private void encode(boolean endOfInput) {
+        chars.flip();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            updateDigest();
+        } while (result.isOverflow());
+        chars.compact();
+    }
+
+    private void updateDigest() {
+        bytes.flip();
+        digest.update(bytes);
+        bytes.clear();
+    }
+
+    private void checkOpen() {
+        if (md5 != null) {
+            throw new IllegalStateException("MD5 already computed");
+        }
+    }
+}
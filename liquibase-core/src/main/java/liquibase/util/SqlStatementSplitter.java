@@ -0,0 +1,398 @@
+package liquibase.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits SQL read from a Reader into statements in a single pass, returning them one at a time from {@link #nextStatement()}
+ * so only the statement being read is held in memory.
+ * <p/>
+ * Delimiters and comments inside 'single quoted', "double quoted" and `back quoted` text and inside $tag$ dollar quoted text are left alone.
+ * With {@link #setBackslashEscapes(boolean)}, a backslash inside single or double quotes escapes the character after it, as in MySQL,
+ * so 'O\'Brien' is read as one quoted string. Otherwise a backslash is an ordinary character, so 'C:\' ends at its second quote.
+ * Comments start with -- or /*, or, as MySQL line comments, with a # that is the first non-whitespace character of its line.
+ * With no end delimiter, statements end at a ; followed by the end of its line, and at a line containing only GO and whitespace.
+ * An end delimiter of "go" only splits on GO lines, and any other end delimiter is matched literally,
+ * except that one containing regular expression characters is applied as a regular expression to the whole of the SQL, as it always has been.
+ * <p/>
+ * Line endings are normalized to \n and statements are trimmed. Empty statements are skipped.
+ */
+public class SqlStatementSplitter {
+
+    private static final int EOF = -1;
+    private static final String REGEX_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private Reader reader;
+    private boolean stripComments;
+    private boolean splitStatements;
+    private String endDelimiter;
+    private boolean goDelimiter;
+    private boolean semicolonDelimiter;
+    private boolean dollarQuoting;
+    private boolean backslashEscapes;
+
+    private char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private int previousChar = '\n';
+    private boolean lineStart = true;
+
+    private List<String> regexSplit;
+
+    public SqlStatementSplitter(Reader reader, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        this.reader = reader;
+        this.stripComments = stripComments;
+        this.splitStatements = splitStatements;
+
+        if (endDelimiter == null) {
+            this.semicolonDelimiter = true;
+            this.goDelimiter = true;
+        } else if (endDelimiter.equalsIgnoreCase("go")) {
+            this.goDelimiter = true;
+        } else if (endDelimiter.length() > 0 && !isRegex(endDelimiter)) {
+            this.endDelimiter = endDelimiter;
+        } else if (splitStatements) {
+            this.regexSplit = new ArrayList<String>();
+            this.endDelimiter = endDelimiter;
+        }
+        this.dollarQuoting = this.endDelimiter == null || this.endDelimiter.indexOf('$') < 0;
+    }
+
+    /**
+     * Sets whether a backslash inside single or double quotes escapes the next character, as it does in MySQL. Defaults to false.
+     */
+    public void setBackslashEscapes(boolean backslashEscapes) {
+        this.backslashEscapes = backslashEscapes;
+    }
+
+    /**
+     * Splits the given SQL into a list of statements.
+     */
+    public static List<String> split(String sql, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        return split(sql, stripComments, splitStatements, endDelimiter, false);
+    }
+
+    /**
+     * Splits the given SQL into a list of statements, reading backslashes in quotes as escapes if backslashEscapes is true.
+     */
+    public static List<String> split(String sql, boolean stripComments, boolean splitStatements, String endDelimiter, boolean backslashEscapes) {
+        SqlStatementSplitter splitter = new SqlStatementSplitter(new StringReader(sql), stripComments, splitStatements, endDelimiter);
+        splitter.setBackslashEscapes(backslashEscapes);
+        List<String> statements = new ArrayList<String>();
+        try {
+            String statement;
+            while ((statement = splitter.nextStatement()) != null) {
+                statements.add(statement);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); //cannot happen with a StringReader
+        }
+        return statements;
+    }
+
+    /**
+     * Returns the next statement, or null once all statements have been read.
+     */
+    public String nextStatement() throws IOException {
+        if (regexSplit != null) {
+            return nextRegexSplitStatement();
+        }
+
+        StringBuilder statement = new StringBuilder();
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == '\'' || c == '"' || c == '`') {
+                statement.append((char) c);
+                readQuoted((char) c, statement);
+            } else if (c == '$' && dollarQuoting && !isIdentifierPart(previousChar) && readDollarQuoted(statement)) {
+                //appended
+            } else if (c == '-' && peek(0) == '-') {
+                readLineComment((char) c, statement);
+            } else if (c == '#' && lineStart) {
+                readLineComment((char) c, statement);
+            } else if (c == '/' && peek(0) == '*') {
+                readBlockComment(statement);
+            } else if (splitStatements && isDelimiter(c)) {
+                String trimmed = statement.toString().trim();
+                if (trimmed.length() > 0) {
+                    return trimmed;
+                }
+                statement.setLength(0);
+            } else {
+                statement.append((char) c);
+            }
+            previousChar = c;
+            if (c == '\n') {
+                lineStart = true;
+            } else if (c != ' ' && c != '\t' && c != '\f') {
+                lineStart = false;
+            }
+        }
+
+        String trimmed = statement.toString().trim();
+        if (trimmed.length() > 0) {
+            return trimmed;
+        }
+        return null;
+    }
+
+    /**
+     * Reads up to and including the closing quote. A doubled quote is read as a closing quote followed by an opening quote.
+     * With backslash escapes, in single and double quotes a backslash and the character after it are read together, so an escaped quote does not close the quote.
+     */
+    private void readQuoted(char quote, StringBuilder statement) throws IOException {
+        int c;
+        while ((c = read()) != EOF) {
+            statement.append((char) c);
+            if (c == quote) {
+                return;
+            }
+            if (c == '\\' && backslashEscapes && quote != '`') {
+                c = read();
+                if (c == EOF) {
+                    return;
+                }
+                statement.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Reads $tag$...$tag$ text, where the tag may be empty. Returns false, reading nothing, if the $ does not start a dollar quote.
+     */
+    private boolean readDollarQuoted(StringBuilder statement) throws IOException {
+        int length = 0;
+        int c;
+        while ((c = peek(length)) != EOF && c != '$') {
+            if (!(Character.isLetter((char) c) || c == '_' || (length > 0 && Character.isDigit((char) c)))) {
+                return false;
+            }
+            length++;
+        }
+        if (c == EOF) {
+            return false;
+        }
+
+        StringBuilder tag = new StringBuilder("$");
+        for (int i = 0; i <= length; i++) {
+            tag.append((char) read());
+        }
+        statement.append(tag);
+
+        int matched = 0;
+        while ((c = read()) != EOF) {
+            statement.append((char) c);
+            if (c == tag.charAt(matched)) {
+                matched++;
+                if (matched == tag.length()) {
+                    return true;
+                }
+            } else {
+                matched = c == '$' ? 1 : 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a -- or # comment, starting with the given character, up to, but not including, the end of the line.
+     * A stripped comment also removes the whitespace before it.
+     */
+    private void readLineComment(char start, StringBuilder statement) throws IOException {
+        if (stripComments) {
+            trimTrailingWhitespace(statement);
+        } else {
+            statement.append(start);
+        }
+        int c;
+        while ((c = peek(0)) != EOF && c != '\n') {
+            read();
+            if (!stripComments) {
+                statement.append((char) c);
+            }
+        }
+    }
+
+    private void readBlockComment(StringBuilder statement) throws IOException {
+        read(); //the * of the opening /*
+        if (!stripComments) {
+            statement.append("/*");
+        }
+        int c;
+        int previous = EOF;
+        while ((c = read()) != EOF) {
+            if (!stripComments) {
+                statement.append((char) c);
+            }
+            if (c == '/' && previous == '*') {
+                return;
+            }
+            previous = c;
+        }
+    }
+
+    /**
+     * Returns true, having read past the delimiter, if c starts a delimiter.
+     */
+    private boolean isDelimiter(int c) throws IOException {
+        if (semicolonDelimiter && c == ';') {
+            int offset = skipSpaces(0);
+            int next = peek(offset);
+            return next == EOF || next == '\n' || (next == '-' && peek(offset + 1) == '-');
+        }
+        if (goDelimiter && c == '\n') {
+            int start = skipSpaces(0);
+            int first = peek(start);
+            int second = peek(start + 1);
+            if ((first == 'g' || first == 'G') && (second == 'o' || second == 'O')) {
+                int offset = skipSpaces(start + 2);
+                int next = peek(offset);
+                if (next == EOF || next == '\n') {
+                    skip(offset);
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (endDelimiter != null && c == endDelimiter.charAt(0)) {
+            for (int i = 1; i < endDelimiter.length(); i++) {
+                if (peek(i - 1) != endDelimiter.charAt(i)) {
+                    return false;
+                }
+            }
+            skip(endDelimiter.length() - 1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the offset of the first character at or after the given offset that is not a space or tab.
+     */
+    private int skipSpaces(int offset) throws IOException {
+        int c;
+        while ((c = peek(offset)) == ' ' || c == '\t' || c == '\f') {
+            offset++;
+        }
+        return offset;
+    }
+
+    private void trimTrailingWhitespace(StringBuilder statement) {
+        int length = statement.length();
+        while (length > 0 && Character.isWhitespace(statement.charAt(length - 1))) {
+            length--;
+        }
+        statement.setLength(length);
+    }
+
+    private String nextRegexSplitStatement() throws IOException {
+        if (reader != null) {
+            SqlStatementSplitter unsplit = new SqlStatementSplitter(reader, stripComments, false, null);
+            String sql = unsplit.nextStatement();
+            reader = null;
+            if (sql != null) {
+                for (String statement : sql.split(endDelimiter)) {
+                    statement = statement.trim();
+                    if (statement.length() > 0) {
+                        regexSplit.add(statement);
+                    }
+                }
+            }
+        }
+        if (regexSplit.size() == 0) {
+            return null;
+        }
+        return regexSplit.remove(0);
+    }
+
+    private boolean isRegex(String delimiter) {
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (REGEX_CHARACTERS.indexOf(delimiter.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isIdentifierPart(int c) {
+        return Character.isLetterOrDigit((char) c) || c == '_';
+    }
+
+    /**
+     * Reads the next character, with \r\n and \r read as \n.
+     */
+    private int read() throws IOException {
+        if (!fill(1)) {
+            return EOF;
+        }
+        char c = buffer[position++];
+        if (c == '\r') {
+            if (fill(1) && buffer[position] == '\n') {
+                position++;
+            }
+            return '\n';
+        }
+        return c;
+    }
+
+    /**
+     * Returns the character the given number of characters ahead of the next one, without reading it.
+     * Line endings are normalized as by {@link #read()}.
+     */
+    private int peek(int offset) throws IOException {
+        int index = 0; //relative to position, since fill() can move the buffered characters
+        for (int i = 0; ; i++) {
+            if (!fill(index + 1)) {
+                return EOF;
+            }
+            char c = buffer[position + index++];
+            if (c == '\r') {
+                if (fill(index + 1) && buffer[position + index] == '\n') {
+                    index++;
+                }
+                c = '\n';
+            }
+            if (i == offset) {
+                return c;
+            }
+        }
+    }
+
+    private void skip(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            read();
+        }
+    }
+
+    /**
+     * Makes sure at least the given number of unread characters are buffered, returning false if the input ends first.
+     */
+    private boolean fill(int count) throws IOException {
+        while (limit - position < count) {
+            if (endOfInput) {
+                return false;
+            }
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                limit -= position;
+                position = 0;
+            }
+            if (limit == buffer.length) {
+                char[] newBuffer = new char[buffer.length * 2];
+                System.arraycopy(buffer, 0, newBuffer, 0, limit);
+                buffer = newBuffer;
+            }
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                limit += read;
+            }
+        }
+        return true;
+    }
+}
@@ -39,57 +39,45 @@ public class StringUtils {
     }
     
     /**
-     * Removes any comments from multiple line SQL using {@link #stripComments(String)}
-     *  and then extracts each individual statement using {@link #splitSQL(String, String)}.
+     * Removes any comments from multiple line SQL and then extracts each individual statement, using a {@link SqlStatementSplitter}.
      * 
      * @param multiLineSQL A String containing all the SQL statements
      * @param stripComments If true then comments will be stripped, if false then they will be left in the code
      */
     public static String[] processMutliLineSQL(String multiLineSQL,boolean stripComments, boolean splitStatements, String endDelimiter) {
-        
-        String stripped = stripComments ? stripComments(multiLineSQL) : multiLineSQL;
-	if (splitStatements) {
-	    return splitSQL(stripped, endDelimiter);
-	} else {
-	    return new String[]{stripped};
-	}
+        if (!stripComments && !splitStatements) {
+            return new String[]{multiLineSQL};
+        }
+        List<String> statements = SqlStatementSplitter.split(multiLineSQL, stripComments, splitStatements, endDelimiter);
+        if (!splitStatements && statements.size() == 0) {
+            return new String[]{""};
+        }
+        return statements.toArray(new String[statements.size()]);
     }
 
     /**
      * Splits a (possible) multi-line SQL statement along ;'s and "go"'s.
+     * Delimiters inside quoted text and comments are ignored.
      */
     public static String[] splitSQL(String multiLineSQL, String endDelimiter) {
-        if (endDelimiter == null) {
-            endDelimiter = ";\\s*\n|;$|\n[gG][oO]\\s*\n|\n[Gg][oO]\\s*$";
-        } else {
-            if (endDelimiter.equalsIgnoreCase("go")) {
-                endDelimiter = "\n[gG][oO]\\s*\n|\n[Gg][oO]\\s*$";
-            }
-        }
-        String[] initialSplit = multiLineSQL.split(endDelimiter);
-        List<String> strings = new ArrayList<String>();
-        for (String anInitialSplit : initialSplit) {
-            String singleLineSQL = anInitialSplit.trim();
-            if (singleLineSQL.length() > 0) {
-                strings.add(singleLineSQL);
-            }
-        }
-
-        return strings.toArray(new String[strings.size()]);
+        List<String> statements = SqlStatementSplitter.split(multiLineSQL, false, true, endDelimiter);
+        return statements.toArray(new String[statements.size()]);
     }
 
     /**
      * Searches through a String which contains SQL code and strips out
      * any comments that are between \/**\/ or anything that matches
      * SP--SP<text>\n (to support the ANSI standard commenting of --
-     * at the end of a line).
+     * at the end of a line). Comment markers inside quoted text are left alone.
      * 
      * @return The String without the comments in
      */
     public static String stripComments(String multiLineSQL) {
-        String strippedSingleLines = Pattern.compile("\\s*\\-\\-.*\n").matcher(multiLineSQL).replaceAll("\n");
-        strippedSingleLines = Pattern.compile("\\s*\\-\\-.*$").matcher(strippedSingleLines).replaceAll("\n");
-        return Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL).matcher(strippedSingleLines).replaceAll("").trim();
+        List<String> statements = SqlStatementSplitter.split(multiLineSQL, true, false, null);
+        if (statements.size() == 0) {
+            return "";
+        }
+        return statements.get(0);
     }
 
     public static String join(String[] array, String delimiter) {
@@ -16,22 +16,38 @@ public class DefaultXmlWriter implements XmlWriter {
 
     public void write(Document doc, OutputStream outputStream) throws IOException {
         try {
-            TransformerFactory factory = TransformerFactory.newInstance();
-            try {
-                factory.setAttribute("indent-number", 4);
-            } catch (Exception e) {
-                ; //guess we can't set it, that's ok
-            }
-
-            Transformer transformer = factory.newTransformer();
-            transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+            write(doc, outputStream, createTransformer());
+        } catch (TransformerException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
 
+    /**
+     * Writes the document with a transformer from {@link #createTransformer()}, so one transformer can be reused for many documents.
+     */
+    public void write(Document doc, OutputStream outputStream, Transformer transformer) throws IOException {
+        try {
             //need to nest outputStreamWriter to get around JDK 5 bug.  See http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=6296446
-            transformer.transform(new DOMSource(doc), new StreamResult(new OutputStreamWriter(outputStream, "utf-8")));
+            OutputStreamWriter writer = new OutputStreamWriter(outputStream, "utf-8");
+            transformer.transform(new DOMSource(doc), new StreamResult(writer));
+            writer.flush();
         } catch (TransformerException e) {
             throw new IOException(e.getMessage());
         }
     }
+
+    public Transformer createTransformer() throws TransformerException {
+        TransformerFactory factory = TransformerFactory.newInstance();
+        try {
+            factory.setAttribute("indent-number", 4);
+        } catch (Exception e) {
+            ; //guess we can't set it, that's ok
+        }
+
+        Transformer transformer = factory.newTransformer();
+        transformer.setOutputProperty(OutputKeys.METHOD, "xml");
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        return transformer;
+    }
 }
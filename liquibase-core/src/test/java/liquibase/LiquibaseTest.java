@@ -3,23 +3,38 @@ package liquibase;
 import liquibase.database.Database;
 import liquibase.database.DatabaseConnection;
 import liquibase.database.DatabaseFactory;
+import liquibase.database.core.HsqlDatabase;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.OracleDatabase;
 import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.FileSystemResourceAccessor;
 import liquibase.resource.ResourceAccessor;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.core.Table;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.classextension.EasyMock.*;
 import static org.junit.Assert.*;
 import org.junit.Before;
+import org.hsqldb.jdbc.JDBCDataSource;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileWriter;
 import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.net.URL;
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.Enumeration;
 import java.util.List;
 
@@ -99,6 +114,100 @@ public class LiquibaseTest {
         assertTrue("Postgres not in Implemented Databases", foundPostgres);
     }
 
+    @Test
+    public void update_preReadSnapshotsAreKeptUntilChanged() throws Exception {
+        int oneChangeSetCalls = countMetaDataCallsOfUpdate(1);
+        int fiveChangeSetCalls = countMetaDataCallsOfUpdate(5);
+
+        assertTrue(oneChangeSetCalls > 0);
+        assertEquals("Preconditions of later changeSets are answered from the snapshots read before the update", oneChangeSetCalls, fiveChangeSetCalls);
+    }
+
+    /**
+     * Runs an update of a changelog whose changeSets each check for an existing table and column and create a new table,
+     * and returns the number of metadata queries made.
+     */
+    private int countMetaDataCallsOfUpdate(int changeSetCount) throws Exception {
+        File dir = File.createTempFile("liquibase-update", "");
+        dir.delete();
+        dir.mkdirs();
+        StringBuilder changeLog = new StringBuilder("<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"\n" +
+                "        xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+                "        xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.0.xsd\">\n");
+        for (int i = 0; i < changeSetCount; i++) {
+            changeLog.append("    <changeSet id=\"").append(i).append("\" author=\"test\">\n")
+                    .append("        <preConditions>\n")
+                    .append("            <tableExists tableName=\"PERSON\"/>\n")
+                    .append("            <columnExists tableName=\"PERSON\" columnName=\"NAME\"/>\n")
+                    .append("            <not><tableExists tableName=\"TABLE_").append(i).append("\"/></not>\n")
+                    .append("        </preConditions>\n")
+                    .append("        <createTable tableName=\"TABLE_").append(i).append("\"><column name=\"ID\" type=\"int\"/></createTable>\n")
+                    .append("    </changeSet>\n");
+        }
+        changeLog.append("</databaseChangeLog>\n");
+        FileWriter writer = new FileWriter(new File(dir, "changelog.xml"));
+        try {
+            writer.write(changeLog.toString());
+        } finally {
+            writer.close();
+        }
+
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setDatabase("jdbc:hsqldb:mem:updatetest" + changeSetCount);
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+        final Connection connection = dataSource.getConnection();
+        try {
+            Statement statement = connection.createStatement();
+            statement.execute("CREATE TABLE PERSON (ID INT NOT NULL PRIMARY KEY, NAME VARCHAR(50))");
+            statement.close();
+
+            final int[] metaDataCalls = new int[1];
+            Connection countingConnection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    Object result = invokeOn(connection, method, args);
+                    if (!method.getName().equals("getMetaData")) {
+                        return result;
+                    }
+                    final DatabaseMetaData metaData = (DatabaseMetaData) result;
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{DatabaseMetaData.class}, new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            if (method.getReturnType().equals(ResultSet.class)) {
+                                metaDataCalls[0]++;
+                            }
+                            return invokeOn(metaData, method, args);
+                        }
+                    });
+                }
+            });
+
+            HsqlDatabase database = new HsqlDatabase();
+            database.setConnection(new JdbcConnection(countingConnection));
+            new Liquibase("changelog.xml", new FileSystemResourceAccessor(dir.getAbsolutePath()), database).update(null);
+            int updateMetaDataCalls = metaDataCalls[0];
+
+            for (int i = 0; i < changeSetCount; i++) {
+                assertTrue(SnapshotGeneratorFactory.getInstance().has(new Table().setName("TABLE_" + i), database));
+            }
+            return updateMetaDataCalls;
+        } finally {
+            Statement statement = connection.createStatement();
+            statement.execute("SHUTDOWN");
+            statement.close();
+            connection.close();
+            new File(dir, "changelog.xml").delete();
+            dir.delete();
+        }
+    }
+
+    private Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
     private class TestLiquibase extends Liquibase {
         private String url;
         // instead use super.database 
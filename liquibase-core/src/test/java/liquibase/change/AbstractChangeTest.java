@@ -5,6 +5,7 @@ import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.exception.*;
+import liquibase.executor.ExecutorService;
 import liquibase.resource.ResourceAccessor;
 import liquibase.serializer.LiquibaseSerializable;
 import liquibase.serializer.core.string.StringChangeLogSerializer;
@@ -110,6 +111,11 @@ public class AbstractChangeTest {
         assertNull("Properties with no write method should not be included", paramNoWriteMethodMetaData);
     }
 
+    @Test
+    public void getChangeMetaData_sharedByInstances() {
+        assertSame(new ExampleAbstractChange().getChangeMetaData(), new ExampleAbstractChange().getChangeMetaData());
+    }
+
     @Test
     public void createChangeMetaData_noParams() {
         ExampleParamlessAbstractChange change = new ExampleParamlessAbstractChange();
@@ -203,6 +209,103 @@ public class AbstractChangeTest {
         }.generateStatementsVolatile(mock(Database.class)));
     }
 
+    @Test
+    public void generateStatementsCached() throws UnsupportedChangeException {
+        Database database = mock(Database.class);
+        final SqlStatement statement = mock(SqlStatement.class);
+
+        mockStatic(SqlGeneratorFactory.class);
+        when(SqlGeneratorFactory.getInstance()).thenReturn(mock(SqlGeneratorFactory.class));
+
+        final int[] generated = new int[1];
+        AbstractChange change = new ExampleAbstractChange() {
+            @Override
+            public SqlStatement[] generateStatements(Database database) throws UnsupportedChangeException {
+                generated[0]++;
+                return new SqlStatement[]{statement};
+            }
+
+            @Override
+            protected boolean cachesStatements() {
+                return true;
+            }
+        };
+
+        try {
+            change.warn(database);
+            change.validate(database);
+            change.supports(database);
+            change.generateRollbackStatementsVolatile(database);
+            assertEquals("Validation fills and reuses the cache", 1, generated[0]);
+
+            SqlStatement[] statements = change.generateStatementsCached(database);
+            assertSame(statements, change.generateStatementsCached(database));
+            assertEquals(1, generated[0]);
+
+            change.clearStatementCache();
+            change.generateStatementsCached(database);
+            assertEquals(2, generated[0]);
+
+            change.setChangeSet(new ChangeSet("1", "test", false, false, "com/example/test.xml", null, null));
+            change.generateStatementsCached(database);
+            assertEquals(3, generated[0]);
+        } finally {
+            ExecutorService.getInstance().clearExecutor(database);
+        }
+    }
+
+    @Test
+    public void generateStatementsCached_notCachedByDefault() throws UnsupportedChangeException {
+        Database database = mock(Database.class);
+        final SqlStatement statement = mock(SqlStatement.class);
+
+        final int[] generated = new int[1];
+        AbstractChange change = new ExampleAbstractChange() {
+            @Override
+            public SqlStatement[] generateStatements(Database database) throws UnsupportedChangeException {
+                generated[0]++;
+                return new SqlStatement[]{statement};
+            }
+        };
+
+        change.generateStatementsCached(database);
+        change.generateStatementsCached(database);
+        assertEquals(2, generated[0]);
+    }
+
+    @Test
+    public void generateStatementsCached_volatile() throws UnsupportedChangeException {
+        Database database = mock(Database.class);
+        final SqlStatement statement = mock(SqlStatement.class);
+
+        SqlGeneratorFactory generatorFactory = mock(SqlGeneratorFactory.class);
+        when(generatorFactory.generateStatementsVolatile(statement, database)).thenReturn(true);
+        mockStatic(SqlGeneratorFactory.class);
+        when(SqlGeneratorFactory.getInstance()).thenReturn(generatorFactory);
+
+        final int[] generated = new int[1];
+        AbstractChange change = new ExampleAbstractChange() {
+            @Override
+            public SqlStatement[] generateStatements(Database database) throws UnsupportedChangeException {
+                generated[0]++;
+                return new SqlStatement[]{statement};
+            }
+
+            @Override
+            protected boolean cachesStatements() {
+                return true;
+            }
+        };
+
+        try {
+            change.generateStatementsCached(database);
+            change.generateStatementsCached(database);
+            assertTrue(generated[0] > 1);
+        } finally {
+            ExecutorService.getInstance().clearExecutor(database);
+        }
+    }
+
     @Test
     public void generateRollbackStatementsVolatile() throws UnsupportedChangeException {
         Database database = mock(Database.class);
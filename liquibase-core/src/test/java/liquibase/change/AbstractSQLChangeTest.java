@@ -4,6 +4,8 @@ import liquibase.database.Database;
 import liquibase.database.DatabaseConnection;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.exception.DatabaseException;
+import liquibase.exception.UnsupportedChangeException;
+import liquibase.executor.ExecutorService;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.RawSqlStatement;
 import org.junit.Test;
@@ -89,6 +91,13 @@ public class AbstractSQLChangeTest {
         assertFalse(sql.toString().equals(sqlDifferent.toString()));
     }
 
+    @Test
+    public void generateCheckSum_sameAsNormalizedString() {
+        ExampleAbstractSQLChange change = new ExampleAbstractSQLChange("LINE 1;\r\nLINE 2;\rLINE 3;\n\r\r\nLINE 4;");
+        String normalized = change.getEndDelimiter() + ":" + change.isSplitStatements() + ":" + change.isStripComments() + ":" + "LINE 1;\nLINE 2;\nLINE 3;\n\n\nLINE 4;";
+        assertEquals(CheckSum.compute(normalized), change.generateCheckSum());
+    }
+
     @Test
     public void generateCheckSum_nullSql() {
         assertNotNull(new ExampleAbstractSQLChange().generateCheckSum());
@@ -129,6 +138,25 @@ public class AbstractSQLChangeTest {
         assertEquals("LINE 3", ((RawSqlStatement) statements[2]).getSql());
     }
 
+    @Test
+    public void generateStatementsCached_clearedBySetters() throws UnsupportedChangeException {
+        Database database = mock(Database.class);
+        ExampleAbstractSQLChange change = new ExampleAbstractSQLChange("LINE 1;\nLINE 2;");
+        try {
+            SqlStatement[] statements = change.generateStatementsCached(database);
+            assertEquals(2, statements.length);
+            assertSame(statements, change.generateStatementsCached(database));
+
+            change.setSplitStatements(false);
+            assertEquals(1, change.generateStatementsCached(database).length);
+
+            change.setSql("LINE 3");
+            assertEquals("LINE 3", ((RawSqlStatement) change.generateStatementsCached(database)[0]).getSql());
+        } finally {
+            ExecutorService.getInstance().clearExecutor(database);
+        }
+    }
+
     @Test
     public void generateStatements_crlfEndingStandardizes() {
         ExampleAbstractSQLChange change = new ExampleAbstractSQLChange("LINE 1;\r\n--a comment\r\nLINE 2;\r\nLINE 3;");
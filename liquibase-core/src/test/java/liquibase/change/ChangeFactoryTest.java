@@ -12,6 +12,7 @@ import liquibase.change.core.CreateTableChange;
 import liquibase.change.core.DropTableChange;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.servicelocator.LiquibaseService;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -31,6 +32,11 @@ public class ChangeFactoryTest {
         SometimesExceptionThrowingChange.timesCalled = 0;
     }
 
+    @After
+    public void cleanup() {
+        ChangeFactory.reset();
+    }
+
     @Test
     public void constructor() {
         ChangeFactory instance = ChangeFactory.getInstance();
@@ -86,13 +92,16 @@ public class ChangeFactoryTest {
         changeFactory.register(ExceptionThrowingChange.class);
     }
 
-    @Test(expected = UnexpectedLiquibaseException.class)
-    public void register_badClassLaterInComparator() {
+    @Test
+    public void register_comparatorDoesNotCreateInstances() {
         ChangeFactory changeFactory = ChangeFactory.getInstance();
 
         changeFactory.register(SometimesExceptionThrowingChange.class);
         changeFactory.register(Priority5Change.class);
         changeFactory.register(Priority10Change.class);
+
+        assertEquals(1, SometimesExceptionThrowingChange.timesCalled);
+        assertEquals(SometimesExceptionThrowingChange.class, changeFactory.getRegistry().get("createTable").iterator().next());
     }
 
     @Test
@@ -156,14 +165,19 @@ public class ChangeFactoryTest {
 
     }
 
-    @Test(expected = UnexpectedLiquibaseException.class)
+    @Test
     public void create_badClass() {
         ChangeFactory.getInstance().register(SometimesExceptionThrowingChange.class);
         Change change = ChangeFactory.getInstance().create("createTable");
 
-        assertNotNull(change);
-        assertTrue(change instanceof CreateTableChange);
+        assertTrue(change instanceof SometimesExceptionThrowingChange);
 
+        try {
+            ChangeFactory.getInstance().create("createTable");
+            fail("Did not throw exception");
+        } catch (UnexpectedLiquibaseException e) {
+            //expected, the constructor throws from the third instance on
+        }
     }
 
     @LiquibaseService(skip = true)
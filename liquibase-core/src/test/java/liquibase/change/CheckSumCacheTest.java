@@ -0,0 +1,140 @@
+package liquibase.change;
+
+import liquibase.resource.FileSystemResourceAccessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class CheckSumCacheTest {
+
+    private File dataFile;
+    private File cacheFile;
+
+    @Before
+    public void setup() throws IOException {
+        dataFile = File.createTempFile("liquibase-data", ".csv");
+        cacheFile = File.createTempFile("liquibase-checksums", ".properties");
+        cacheFile.delete();
+        write(dataFile, "id,name\n1,a\n");
+        dataFile.setLastModified(System.currentTimeMillis() - 60000);
+    }
+
+    @After
+    public void cleanup() {
+        dataFile.delete();
+        cacheFile.delete();
+    }
+
+    @Test
+    public void compute_disabled() throws IOException {
+        CheckSumCache cache = new CheckSumCache(null);
+        assertFalse(cache.isEnabled());
+        assertEquals(CheckSum.compute("id,name\n1,a\n"), cache.compute(new FileSystemResourceAccessor(), dataFile.getAbsolutePath()));
+        assertFalse(cacheFile.exists());
+    }
+
+    @Test
+    public void compute_missingResource() throws IOException {
+        assertNull(new CheckSumCache(cacheFile).compute(new FileSystemResourceAccessor(), dataFile.getAbsolutePath() + ".missing"));
+    }
+
+    @Test
+    public void compute_cachedAcrossInstances() throws IOException {
+        CheckSumCache cache = new CheckSumCache(cacheFile);
+        CheckSum checkSum = cache.compute(new FileSystemResourceAccessor(), dataFile.getAbsolutePath());
+        assertEquals(CheckSum.compute("id,name\n1,a\n"), checkSum);
+        assertFalse("Only written by write()", cacheFile.exists());
+        cache.write();
+        assertTrue(cacheFile.exists());
+
+        //same size and modification time, so the cached value is used without reading the file
+        long lastModified = dataFile.lastModified();
+        write(dataFile, "id,name\n1,b\n");
+        dataFile.setLastModified(lastModified);
+
+        assertEquals(checkSum, new CheckSumCache(cacheFile).compute(new FileSystemResourceAccessor(), dataFile.getAbsolutePath()));
+    }
+
+    @Test
+    public void compute_changedFileIsRecomputed() throws IOException {
+        CheckSumCache cache = new CheckSumCache(cacheFile);
+        CheckSum original = cache.compute(new FileSystemResourceAccessor(), dataFile.getAbsolutePath());
+
+        write(dataFile, "id,name\n1,a\n2,b\n");
+        CheckSum changed = cache.compute(new FileSystemResourceAccessor(), dataFile.getAbsolutePath());
+
+        assertFalse(original.equals(changed));
+        assertEquals(CheckSum.compute("id,name\n1,a\n2,b\n"), changed);
+    }
+
+    @Test
+    public void compute_recentlyModifiedFileIsNotCached() throws IOException {
+        dataFile.setLastModified(System.currentTimeMillis());
+        CheckSumCache cache = new CheckSumCache(cacheFile);
+        cache.compute(new FileSystemResourceAccessor(), dataFile.getAbsolutePath());
+        cache.write();
+
+        assertFalse(cacheFile.exists());
+    }
+
+    @Test
+    public void write_dropsStaleEntries() throws IOException {
+        CheckSumCache cache = new CheckSumCache(cacheFile);
+        cache.compute(new FileSystemResourceAccessor(), dataFile.getAbsolutePath());
+        cache.write();
+        assertEquals(1, readCacheFile().size());
+
+        write(dataFile, "id,name\n1,a\n2,b\n");
+        dataFile.setLastModified(System.currentTimeMillis() - 30000);
+        cache = new CheckSumCache(cacheFile);
+        CheckSum checkSum = cache.compute(new FileSystemResourceAccessor(), dataFile.getAbsolutePath());
+        cache.write();
+
+        Properties entries = readCacheFile();
+        assertEquals(1, entries.size());
+        assertEquals(checkSum.toString(), entries.getProperty(dataFile.getAbsolutePath() + "|" + dataFile.length() + "|" + dataFile.lastModified()));
+
+        dataFile.delete();
+        cache = new CheckSumCache(cacheFile);
+        File otherFile = File.createTempFile("liquibase-data", ".csv");
+        try {
+            otherFile.setLastModified(System.currentTimeMillis() - 60000);
+            cache.compute(new FileSystemResourceAccessor(), otherFile.getAbsolutePath());
+            cache.write();
+            entries = readCacheFile();
+            assertEquals(1, entries.size());
+            assertTrue(entries.keySet().iterator().next().toString().startsWith(otherFile.getAbsolutePath() + "|"));
+        } finally {
+            otherFile.delete();
+        }
+    }
+
+    private Properties readCacheFile() throws IOException {
+        Properties properties = new Properties();
+        InputStream stream = new FileInputStream(cacheFile);
+        try {
+            properties.load(stream);
+        } finally {
+            stream.close();
+        }
+        return properties;
+    }
+
+    private void write(File file, String contents) throws IOException {
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(contents);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package liquibase.change.core;
 
+import liquibase.change.CheckSum;
 import liquibase.change.StandardChangeTest;
+import liquibase.changelog.ChangeSet;
 import liquibase.database.core.MockDatabase;
 import liquibase.resource.ClassLoaderResourceAccessor;
 import liquibase.statement.SqlStatement;
@@ -9,6 +11,9 @@ import liquibase.statement.core.InsertStatement;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * Tests for {@link liquibase.change.core.AlterSequenceChange}
  */
@@ -69,6 +74,36 @@ public class LoadDataChangeTest extends StandardChangeTest {
 
 
 
+    @Test
+    public void generateStatement_batchSizeWithoutJdbcConnection() throws Exception {
+        LoadDataChange refactoring = new LoadDataChange();
+        refactoring.setSchemaName("SCHEMA_NAME");
+        refactoring.setTableName("TABLE_NAME");
+        refactoring.setFile("liquibase/change/core/sample.data1.csv");
+        refactoring.setBatchSize(100);
+        refactoring.setResourceAccessor(new ClassLoaderResourceAccessor());
+
+        SqlStatement[] sqlStatements = refactoring.generateStatements(new MockDatabase());
+
+        stdAssertOfLoaded(sqlStatements);
+    }
+
+    @Test
+    public void validate_commitIntervalRequiresNoTransaction() throws Exception {
+        LoadDataChange refactoring = new LoadDataChange();
+        refactoring.setTableName("TABLE_NAME");
+        refactoring.setFile("liquibase/change/core/sample.data1.csv");
+        refactoring.setBatchSize(100);
+        refactoring.setCommitInterval(1000);
+        refactoring.setResourceAccessor(new ClassLoaderResourceAccessor());
+
+        refactoring.setChangeSet(new ChangeSet("1", "test", false, false, "changelog.xml", null, null, true));
+        assertTrue(refactoring.validate(new MockDatabase()).hasErrors());
+
+        refactoring.setChangeSet(new ChangeSet("1", "test", false, false, "changelog.xml", null, null, false));
+        assertFalse(refactoring.validate(new MockDatabase()).hasErrors());
+    }
+
 	private void stdAssertOfLoaded(SqlStatement[] sqlStatements) {
 		assertEquals(2, sqlStatements.length);
         assertTrue(sqlStatements[0] instanceof InsertStatement);
@@ -170,6 +205,29 @@ public class LoadDataChangeTest extends StandardChangeTest {
         assertEquals(md5sum2, refactoring.generateCheckSum().toString());
     }
 
+    @Test
+    public void generateCheckSum_readsFileOnce() throws Exception {
+        final int[] reads = new int[1];
+        LoadDataChange refactoring = new LoadDataChange();
+        refactoring.setTableName("TABLE_NAME");
+        refactoring.setFile("liquibase/change/core/sample.data1.csv");
+        refactoring.setResourceAccessor(new ClassLoaderResourceAccessor() {
+            @Override
+            public InputStream getResourceAsStream(String file) throws IOException {
+                reads[0]++;
+                return super.getResourceAsStream(file);
+            }
+        });
+
+        CheckSum checkSum = refactoring.generateCheckSum();
+        assertEquals(checkSum, refactoring.generateCheckSum());
+        assertEquals(1, reads[0]);
+
+        refactoring.setResourceAccessor(new ClassLoaderResourceAccessor());
+        assertEquals(checkSum, refactoring.generateCheckSum());
+        assertEquals(1, reads[0]);
+    }
+
     @Override
     public void isSupported() throws Exception {
         // todo: test with file opener
@@ -179,4 +237,4 @@ public class LoadDataChangeTest extends StandardChangeTest {
     public void validate() throws Exception {
         // todo: test with file opener
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -2,22 +2,35 @@ package liquibase.change.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.Map;
 
 import liquibase.change.StandardChangeTest;
 import liquibase.change.AbstractSQLChange;
 import liquibase.change.Change;
+import liquibase.change.CheckSum;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
 import liquibase.database.core.MockDatabase;
 import liquibase.database.core.OracleDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.SetupException;
+import liquibase.executor.ExecutorService;
 import liquibase.resource.ClassLoaderResourceAccessor;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.StreamingSqlExecutablePreparedStatement;
+
+import org.hsqldb.jdbc.JDBCDataSource;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -63,7 +76,7 @@ public class SQLFileChangeTest extends StandardChangeTest {
         change.setSplitStatements(true);                 
         change.setStripComments(true);
         SqlStatement[] out = change.generateStatements(new MockDatabase());
-        assertEquals(2, out.length);
+        assertEquals(1, out.length);
         assertEquals("UPDATE tablename SET column = 1", out[0].toString());
     }
 
@@ -215,4 +228,97 @@ public class SQLFileChangeTest extends StandardChangeTest {
       String expected = "create prfx_customer (nofx INTEGER NOT NULL, PRIMARY KEY (nofx));";
       assertEquals(expected, change.getSql());
    }
+
+    @Test
+    public void stream_checkSumMatchesLoadedFile() throws Exception {
+        SQLFileChange loaded = createStreamTestChange(false);
+        SQLFileChange streamed = createStreamTestChange(true);
+
+        assertEquals(null, streamed.getSql());
+        assertEquals(loaded.generateCheckSum(), streamed.generateCheckSum());
+    }
+
+    @Test
+    public void stream_checkSumIsKept() throws Exception {
+        final int[] opened = new int[1];
+        SQLFileChange change = createStreamTestChange(true);
+        change.setResourceAccessor(new ClassLoaderResourceAccessor() {
+            @Override
+            public InputStream getResourceAsStream(String file) throws IOException {
+                opened[0]++;
+                return super.getResourceAsStream(file);
+            }
+        });
+
+        CheckSum checkSum = change.generateCheckSum();
+        assertEquals(checkSum, change.generateCheckSum());
+        assertEquals(1, opened[0]);
+
+        change.setPath(change.getPath());
+        assertEquals(checkSum, change.generateCheckSum());
+        assertEquals(2, opened[0]);
+    }
+
+    @Test
+    public void stream_generateStatementsWithoutConnection() throws Exception {
+        Database database = new MockDatabase();
+        SqlStatement[] loaded = createStreamTestChange(false).generateStatements(database);
+        SqlStatement[] streamed = createStreamTestChange(true).generateStatements(database);
+
+        assertEquals(5, streamed.length);
+        for (int i = 0; i < loaded.length; i++) {
+            assertEquals(loaded[i].toString(), streamed[i].toString());
+        }
+    }
+
+    @Test
+    public void stream_executesStatementsAsTheyAreRead() throws Exception {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setDatabase("jdbc:hsqldb:mem:sqlfilestreamtest");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+        Connection connection = dataSource.getConnection();
+        Database database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+        try {
+            SQLFileChange change = createStreamTestChange(true);
+            change.setBatchSize(2);
+            SqlStatement[] statements = change.generateStatements(database);
+            assertEquals(1, statements.length);
+            assertTrue(statements[0] instanceof StreamingSqlExecutablePreparedStatement);
+
+            ExecutorService.getInstance().getExecutor(database).execute(statements[0]);
+
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("select name from stream_test order by id");
+            StringBuilder names = new StringBuilder();
+            while (resultSet.next()) {
+                names.append(resultSet.getString(1)).append(",");
+            }
+            statement.close();
+            assertEquals("d,streamed,c,", names.toString());
+            assertEquals(createStreamTestChange(false).generateCheckSum(), change.generateCheckSum());
+        } finally {
+            ExecutorService.getInstance().clearExecutor(database);
+            Statement statement = connection.createStatement();
+            statement.execute("SHUTDOWN");
+            statement.close();
+            connection.close();
+        }
+    }
+
+    private SQLFileChange createStreamTestChange(boolean stream) throws SetupException {
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters();
+        changeLogParameters.set("stream.name", "streamed");
+        ChangeSet changeSet = new ChangeSet("x", "y", true, true, null, null, null);
+        changeSet.setChangeLogParameters(changeLogParameters);
+
+        SQLFileChange change = new SQLFileChange();
+        change.setChangeSet(changeSet);
+        change.setResourceAccessor(new ClassLoaderResourceAccessor());
+        change.setPath("liquibase/change/core/SQLFileStreamTestData.sql");
+        change.setStream(stream);
+        change.finishInitialization();
+        return change;
+    }
 }
@@ -1,6 +1,7 @@
 package liquibase.changelog;
 
 import liquibase.changelog.filter.ContextChangeSetFilter;
+import liquibase.changelog.filter.CountChangeSetFilter;
 import liquibase.changelog.filter.DbmsChangeSetFilter;
 import liquibase.changelog.visitor.ChangeSetVisitor;
 import liquibase.database.Database;
@@ -10,6 +11,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 public class ChangeLogIteratorTest {
@@ -69,6 +71,23 @@ public class ChangeLogIteratorTest {
         assertEquals("1", testChangeLogVisitor.visitedChangeSets.get(2).getId());
     }
 
+    @Test
+    public void runChangeSet_ranChangeSetListOnLargeChangeLog() throws Exception {
+        int changeSetCount = 50000;
+        DatabaseChangeLog largeChangeLog = new DatabaseChangeLog("path/changelog");
+        List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+        for (int i = 0; i < changeSetCount; i++) {
+            largeChangeLog.addChangeSet(new ChangeSet(String.valueOf(i), "nvoxland", false, false, "path/changelog", null, null));
+            ranChangeSets.add(new RanChangeSet("path/changelog", String.valueOf(i), "nvoxland", null, new Date(), null, null, null));
+        }
+
+        TestChangeSetVisitor testChangeLogVisitor = new ReverseChangeSetVisitor();
+        ChangeLogIterator iterator = new ChangeLogIterator(ranChangeSets, largeChangeLog, new CountChangeSetFilter(changeSetCount));
+        iterator.run(testChangeLogVisitor, null);
+        assertEquals(changeSetCount, testChangeLogVisitor.visitedChangeSets.size());
+        assertEquals(String.valueOf(changeSetCount - 1), testChangeLogVisitor.visitedChangeSets.get(0).getId());
+    }
+
     private static class TestChangeSetVisitor implements ChangeSetVisitor {
 
         public List<ChangeSet> visitedChangeSets = new ArrayList<ChangeSet>();
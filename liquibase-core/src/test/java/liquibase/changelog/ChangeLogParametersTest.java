@@ -64,4 +64,45 @@ public class ChangeLogParametersTest {
 
         assertEquals("originalValue", changeLogParameters.getValue("doubleSet"));
     }
+
+    @Test
+    public void getParameterValue_ignoresCase() {
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters();
+
+        changeLogParameters.set("MixedCase", "value");
+
+        assertEquals("value", changeLogParameters.getValue("mixedcase"));
+        assertEquals("value", changeLogParameters.getValue("MIXEDCASE"));
+        assertTrue(changeLogParameters.hasValue("mixedCase"));
+        assertFalse(changeLogParameters.hasValue("otherCase"));
+        assertNull(changeLogParameters.getValue(null));
+    }
+
+    @Test
+    public void getParameterValue_contextChangedAfterLookup() {
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters(new H2Database());
+        changeLogParameters.setContexts(Arrays.asList("junit"));
+        changeLogParameters.set("contextParam", "otherValue", "other", null);
+        changeLogParameters.set("contextParam", "junitValue", "junit", null);
+
+        assertEquals("junitValue", changeLogParameters.getValue("contextParam"));
+
+        changeLogParameters.setContexts(Arrays.asList("other"));
+        assertEquals("otherValue", changeLogParameters.getValue("contextParam"));
+
+        changeLogParameters.setContexts(Arrays.asList("none"));
+        assertNull(changeLogParameters.getValue("contextParam"));
+
+        changeLogParameters.addContext("junit");
+        assertEquals("junitValue", changeLogParameters.getValue("contextParam"));
+    }
+
+    @Test
+    public void getParameterValue_setAfterLookup() {
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters();
+
+        assertNull(changeLogParameters.getValue("lateParam"));
+        changeLogParameters.set("lateParam", "value");
+        assertEquals("value", changeLogParameters.getValue("lateParam"));
+    }
 }
\ No newline at end of file
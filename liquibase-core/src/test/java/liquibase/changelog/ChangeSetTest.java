@@ -4,9 +4,15 @@ import liquibase.change.CheckSum;
 import liquibase.change.core.AddDefaultValueChange;
 import liquibase.change.core.CreateTableChange;
 import liquibase.change.core.InsertDataChange;
+import liquibase.change.core.RawSQLChange;
+import liquibase.changelog.filter.ContextChangeSetFilter;
+import liquibase.sql.visitor.AppendSqlVisitor;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+
 /**
  * Tests for {@link liquibase.changelog.ChangeSet}
  */
@@ -52,6 +58,45 @@ public class ChangeSetTest {
         assertFalse(md5Sum1.equals(md5Sum2));
     }
 
+    @Test
+    public void generateCheckSum_changeModified() {
+        ChangeSet changeSet = new ChangeSet("testId", "testAuthor", false, false,null, null, null);
+        AddDefaultValueChange change = new AddDefaultValueChange();
+        change.setTableName("TABLE_NAME");
+        changeSet.addChange(change);
+
+        CheckSum checkSum = changeSet.generateCheckSum();
+        assertSame(checkSum, changeSet.generateCheckSum());
+
+        change.setTableName("TABLE_NAME2");
+        changeSet.clearCheckSum();
+        CheckSum modifiedCheckSum = changeSet.generateCheckSum();
+        assertFalse(checkSum.equals(modifiedCheckSum));
+
+        changeSet.addChange(new AddDefaultValueChange());
+        CheckSum addedChangeCheckSum = changeSet.generateCheckSum();
+        assertFalse(modifiedCheckSum.equals(addedChangeCheckSum));
+
+        RawSQLChange sqlChange = new RawSQLChange("SELECT 1");
+        changeSet.addChange(sqlChange);
+        CheckSum sqlCheckSum = changeSet.generateCheckSum();
+        assertFalse(addedChangeCheckSum.equals(sqlCheckSum));
+
+        sqlChange.setSql("SELECT 2");
+        CheckSum modifiedSqlCheckSum = changeSet.generateCheckSum();
+        assertFalse(sqlCheckSum.equals(modifiedSqlCheckSum));
+
+        AppendSqlVisitor visitor = new AppendSqlVisitor();
+        visitor.setValue(" FOR UPDATE");
+        visitor.setContexts(new HashSet<String>(Arrays.asList("test")));
+        changeSet.addSqlVisitor(visitor);
+        CheckSum visitorCheckSum = changeSet.generateCheckSum();
+        assertFalse(modifiedSqlCheckSum.equals(visitorCheckSum));
+
+        new ContextChangeSetFilter("prod").accepts(changeSet);
+        assertEquals(modifiedSqlCheckSum, changeSet.generateCheckSum());
+    }
+
     @Test
     public void isCheckSumValid_validCheckSum() {
         ChangeSet changeSet = new ChangeSet("1", "2",false, false, "/test.xml",null, null);
@@ -77,4 +122,4 @@ public class ChangeSetTest {
 
         assertTrue(changeSet.isCheckSumValid(checkSum));
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package liquibase.changelog;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.ListIterator;
+
+/**
+ * Tests for {@link liquibase.changelog.DatabaseChangeLog}
+ */
+public class DatabaseChangeLogTest {
+
+    @Test
+    public void getChangeSet() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/changelog");
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters();
+        changeLogParameters.set("database.typeName", "mysql");
+        changeLog.setChangeLogParameters(changeLogParameters);
+
+        ChangeSet oracleChangeSet = new ChangeSet("1", "testAuthor", false, false, "path/changelog", null, "oracle");
+        ChangeSet mysqlChangeSet = new ChangeSet("1", "testAuthor", false, false, "path/changelog", null, "mysql");
+        ChangeSet anyChangeSet = new ChangeSet("2", "testAuthor", false, false, "path/changelog", null, null);
+        changeLog.addChangeSet(oracleChangeSet);
+        changeLog.addChangeSet(mysqlChangeSet);
+        changeLog.addChangeSet(anyChangeSet);
+
+        assertSame(mysqlChangeSet, changeLog.getChangeSet("path/changelog", "testAuthor", "1"));
+        assertSame(anyChangeSet, changeLog.getChangeSet("PATH/CHANGELOG", "TESTAUTHOR", "2"));
+        assertNull(changeLog.getChangeSet("path/changelog", "testAuthor", "3"));
+        assertNull(changeLog.getChangeSet("other/changelog", "testAuthor", "2"));
+    }
+
+    @Test
+    public void getChangeSet_listModifiedDirectly() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/changelog");
+        changeLog.addChangeSet(new ChangeSet("1", "testAuthor", false, false, "path/changelog", null, null));
+        assertNotNull(changeLog.getChangeSet("path/changelog", "testAuthor", "1"));
+
+        ChangeSet changeSet = new ChangeSet("2", "testAuthor", false, false, "path/changelog", null, null);
+        changeLog.getChangeSets().add(changeSet);
+        assertSame(changeSet, changeLog.getChangeSet("path/changelog", "testAuthor", "2"));
+
+        ChangeSet replacement = new ChangeSet("3", "testAuthor", false, false, "path/changelog", null, null);
+        changeLog.getChangeSets().set(1, replacement);
+        assertNull(changeLog.getChangeSet("path/changelog", "testAuthor", "2"));
+        assertSame(replacement, changeLog.getChangeSet("path/changelog", "testAuthor", "3"));
+
+        ChangeSet duplicate = new ChangeSet("1", "testAuthor", false, false, "path/changelog", null, null);
+        changeLog.getChangeSets().set(1, duplicate);
+        Collections.reverse(changeLog.getChangeSets());
+        assertSame("first of the matching changeSets after reordering", duplicate, changeLog.getChangeSet("path/changelog", "testAuthor", "1"));
+
+        changeLog.getChangeSets().remove(0);
+        changeLog.addChangeSet(changeSet);
+        assertNotSame(duplicate, changeLog.getChangeSet("path/changelog", "testAuthor", "1"));
+        assertSame(changeSet, changeLog.getChangeSet("path/changelog", "testAuthor", "2"));
+
+        ChangeSet subListReplacement = new ChangeSet("4", "testAuthor", false, false, "path/changelog", null, null);
+        changeLog.getChangeSets().subList(0, 1).set(0, subListReplacement);
+        assertSame(subListReplacement, changeLog.getChangeSet("path/changelog", "testAuthor", "4"));
+
+        ChangeSet iteratorReplacement = new ChangeSet("5", "testAuthor", false, false, "path/changelog", null, null);
+        ListIterator<ChangeSet> iterator = changeLog.getChangeSets().listIterator();
+        iterator.next();
+        iterator.set(iteratorReplacement);
+        assertNull(changeLog.getChangeSet("path/changelog", "testAuthor", "4"));
+        assertSame(iteratorReplacement, changeLog.getChangeSet("path/changelog", "testAuthor", "5"));
+    }
+
+    @Test
+    public void getChangeSet_separatorInFields() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/changelog");
+        ChangeSet changeSet = new ChangeSet("1", "a::b", false, false, "path/changelog", null, null);
+        changeLog.addChangeSet(changeSet);
+
+        assertSame(changeSet, changeLog.getChangeSet("path/changelog", "a::b", "1"));
+        assertNull(changeLog.getChangeSet("path/changelog::a", "b", "1"));
+        assertNull(changeLog.getChangeSet("path/changelog", "a", "b::1"));
+    }
+}
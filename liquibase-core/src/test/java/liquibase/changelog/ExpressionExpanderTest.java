@@ -49,6 +49,25 @@ public class ExpressionExpanderTest {
         assertEquals("A string no expressions ${notset.orParams} set", handler.expandExpressions("A string no expressions ${notset.orParams} set"));
     }
     
+    @Test
+    public void expandExpressions_noExpressionReturnsSameString() {
+        String text = "A Simple String with $ and { and }";
+        assertSame(text, handler.expandExpressions(text));
+    }
+
+    @Test
+    public void expandExpressions_incompleteExpressions() {
+        changeLogParameters.set("here", 4);
+        assertEquals("${} 4 ${here", handler.expandExpressions("${} ${here} ${here"));
+        assertEquals("$4 ${${here}", handler.expandExpressions("$${here} ${${here}"));
+    }
+
+    @Test
+    public void expandExpressions_sameExpressionTwice() {
+        changeLogParameters.set("here", 4);
+        assertEquals("4 and 4 and ${notset}", handler.expandExpressions("${here} and ${HERE} and ${notset}"));
+    }
+
     @Test
     public void expandExpressions_escapedSimple() {
     	this.handler = new ChangeLogParameters.ExpressionExpander(changeLogParameters, true);
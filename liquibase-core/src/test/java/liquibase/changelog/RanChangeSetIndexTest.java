@@ -0,0 +1,74 @@
+package liquibase.changelog;
+
+import liquibase.change.CheckSum;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests for {@link liquibase.changelog.RanChangeSetIndex}
+ */
+public class RanChangeSetIndexTest {
+
+    @Test
+    public void get() {
+        List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+        ranChangeSets.add(new RanChangeSet("path/changelog", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null));
+        ranChangeSets.add(new RanChangeSet("path/changelog", "2", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null));
+
+        RanChangeSetIndex index = new RanChangeSetIndex(ranChangeSets);
+        assertEquals(2, index.size());
+
+        assertSame(ranChangeSets.get(0), index.get(new ChangeSet("1", "testAuthor", false, false, "path/changelog", null, null)));
+        assertSame(ranChangeSets.get(1), index.get(new ChangeSet("2", "testAuthor", false, false, "path/changelog", null, null)));
+
+        //case and separators are normalized
+        assertSame(ranChangeSets.get(0), index.get(new ChangeSet("1", "TESTAUTHOR", false, false, "PATH\\changelog", null, null)));
+
+        assertNull(index.get(new ChangeSet("3", "testAuthor", false, false, "path/changelog", null, null)));
+        assertNull(index.get(new ChangeSet("1", "otherAuthor", false, false, "path/changelog", null, null)));
+        assertNull(index.get(new ChangeSet("1", "testAuthor", false, false, "other/changelog", null, null)));
+    }
+
+    @Test
+    public void get_keyMatchesIsSameAs() {
+        List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+        ranChangeSets.add(new RanChangeSet("a::b", "c", "d", null, new Date(), null, null, null));
+        ranChangeSets.add(new RanChangeSet("path/changelog", "1", "testAuthor", null, new Date(), null, null, null));
+        ranChangeSets.add(new RanChangeSet("PATH/changelog", "1", "TESTAUTHOR", null, new Date(), null, null, null));
+        RanChangeSetIndex index = new RanChangeSetIndex(ranChangeSets);
+
+        assertNull("Fields are not joined into one string", index.get(new ChangeSet("b::c", "d", false, false, "a", null, null)));
+        assertSame(ranChangeSets.get(0), index.get(new ChangeSet("c", "d", false, false, "a::b", null, null)));
+        assertSame("The first matching ran changeSet is used", ranChangeSets.get(1), index.get(new ChangeSet("1", "testauthor", false, false, "path/changelog", null, null)));
+
+        for (RanChangeSet ranChangeSet : ranChangeSets) {
+            for (RanChangeSet other : ranChangeSets) {
+                ChangeSet changeSet = new ChangeSet(other.getId(), other.getAuthor(), false, false, other.getChangeLog(), null, null);
+                assertEquals(ranChangeSet.isSameAs(changeSet), RanChangeSetIndex.createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor())
+                        .equals(RanChangeSetIndex.createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor())));
+            }
+        }
+    }
+
+    @Test
+    public void addAndRemove() {
+        RanChangeSetIndex index = new RanChangeSetIndex();
+        ChangeSet changeSet = new ChangeSet("1", "testAuthor", false, false, "path/changelog", null, null);
+        assertFalse(index.contains(changeSet));
+
+        index.add(new RanChangeSet("path/changelog", "1", "testAuthor", null, new Date(), null, null, null));
+        assertTrue(index.contains(changeSet));
+
+        RanChangeSet rerun = new RanChangeSet("path/changelog", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null);
+        index.add(rerun);
+        assertEquals(1, index.size());
+        assertSame(rerun, index.get(changeSet));
+
+        assertSame(rerun, index.remove(changeSet));
+        assertFalse(index.contains(changeSet));
+    }
+}
@@ -69,5 +69,10 @@ public class ShouldRunChangeSetFilterTest  {
 
         //different path
         assertTrue(filter.accepts(new ChangeSet("1", "testAuthor", false, false, "other/changelog", null, null)));
+
+        //matched as RanChangeSet.isSameAs does, like the other filters
+        assertFalse(filter.accepts(new ChangeSet("1", "testAuthor", false, false, "PATH\\changelog", null, null)));
+        assertFalse(filter.accepts(new ChangeSet("1", "TESTAUTHOR", false, false, "path/changelog", null, null)));
+        assertFalse(filter.accepts(new ChangeSet("2", "testauthor", false, false, "path/changelog", null, null)));
     }
 }
@@ -0,0 +1,87 @@
+package liquibase.changelog.visitor;
+
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.FileSystemResourceAccessor;
+
+import java.io.*;
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+/**
+ * Measures futureRollbackSQL, unexpected changeSet listing and dbDoc generation on a generated changelog with half of its changeSets marked ran
+ * in an in-memory HSQL database. Not run as part of the test suite.
+ * <p/>
+ * java liquibase.changelog.visitor.ChangeLogVisitorBenchmark [changeSets] [iterations]
+ */
+public class ChangeLogVisitorBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int changeSets = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        File dir = File.createTempFile("liquibase-visitor-benchmark", "");
+        dir.delete();
+        dir.mkdir();
+        File changeLogFile = new File(dir, "changelog.xml");
+        Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:visitorbenchmark", "sa", "");
+        try {
+            writeChangeLog(changeLogFile, changeSets);
+
+            Database database = new HsqlDatabase();
+            database.setConnection(new JdbcConnection(connection));
+            Liquibase liquibase = new Liquibase(changeLogFile.getName(), new FileSystemResourceAccessor(dir.getAbsolutePath()), database);
+
+            long start = System.nanoTime();
+            liquibase.changeLogSync("ran");
+            report("changeLogSync", changeSets / 2, start);
+
+            for (int i = 0; i < iterations; i++) {
+                start = System.nanoTime();
+                liquibase.futureRollbackSQL(changeSets / 4, null, new StringWriter());
+                report("futureRollbackSQL", changeSets, start);
+
+                start = System.nanoTime();
+                liquibase.listUnexpectedChangeSets(null);
+                report("listUnexpectedChangeSets", changeSets, start);
+
+                start = System.nanoTime();
+                liquibase.generateDocumentation(new File(dir, "dbdoc").getAbsolutePath());
+                report("generateDocumentation", changeSets, start);
+            }
+        } finally {
+            connection.createStatement().execute("SHUTDOWN");
+            connection.close();
+            changeLogFile.delete();
+            dir.delete();
+        }
+    }
+
+    /**
+     * Writes a changelog where every other changeSet has the "ran" context, so changeLogSync("ran") marks half of them ran.
+     */
+    private static void writeChangeLog(File file, int changeSets) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"\n");
+            writer.write("        xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n");
+            writer.write("        xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.0.xsd\">\n");
+            for (int i = 0; i < changeSets; i++) {
+                writer.write("    <changeSet id=\"" + i + "\" author=\"benchmark\"" + (i % 2 == 0 ? " context=\"ran\"" : "") + ">\n");
+                writer.write("        <createTable tableName=\"table_" + i + "\"><column name=\"id\" type=\"int\"/></createTable>\n");
+                writer.write("    </changeSet>\n");
+            }
+            writer.write("</databaseChangeLog>\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void report(String name, int changeSets, long start) {
+        double seconds = (System.nanoTime() - start) / 1000000000.0;
+        System.out.println(String.format("%-26s %8.2f s  %10.0f changeSets/s", name, seconds, changeSets / seconds));
+    }
+}
@@ -0,0 +1,31 @@
+package liquibase.changelog.visitor;
+
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.RanChangeSet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExpectedChangesVisitorTest {
+
+    @Test
+    public void visit() throws Exception {
+        RanChangeSet ran1 = new RanChangeSet("path\\changelog.xml", "1", "testAuthor", null, new Date(), null, ChangeSet.ExecType.EXECUTED, null);
+        RanChangeSet ran2 = new RanChangeSet("path/changelog.xml", "2", "testAuthor", null, new Date(), null, ChangeSet.ExecType.EXECUTED, null);
+        RanChangeSet ran3 = new RanChangeSet("path/changelog.xml", "3", "testAuthor", null, new Date(), null, ChangeSet.ExecType.EXECUTED, null);
+
+        ExpectedChangesVisitor visitor = new ExpectedChangesVisitor(Arrays.asList(ran1, ran2, ran3));
+        visitor.visit(new ChangeSet("1", "TESTAUTHOR", false, false, "PATH/changelog.xml", null, null), null, null);
+        visitor.visit(new ChangeSet("3", "testAuthor", false, false, "path/changelog.xml", null, null), null, null);
+        visitor.visit(new ChangeSet("4", "testAuthor", false, false, "path/changelog.xml", null, null), null, null);
+
+        List<RanChangeSet> unexpectedChangeSets = new ArrayList<RanChangeSet>(visitor.getUnexpectedChangeSets());
+        assertEquals(1, unexpectedChangeSets.size());
+        assertSame(ran2, unexpectedChangeSets.get(0));
+    }
+}
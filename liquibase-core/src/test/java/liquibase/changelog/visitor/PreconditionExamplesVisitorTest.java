@@ -0,0 +1,45 @@
+package liquibase.changelog.visitor;
+
+import liquibase.changelog.ChangeSet;
+import liquibase.precondition.core.ColumnExistsPrecondition;
+import liquibase.precondition.core.NotPrecondition;
+import liquibase.precondition.core.PreconditionContainer;
+import liquibase.precondition.core.SqlPrecondition;
+import liquibase.precondition.core.TableExistsPrecondition;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.Table;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PreconditionExamplesVisitorTest {
+
+    @Test
+    public void visit() throws Exception {
+        TableExistsPrecondition tableExists = new TableExistsPrecondition();
+        tableExists.setTableName("person");
+
+        ColumnExistsPrecondition columnExists = new ColumnExistsPrecondition();
+        columnExists.setTableName("person");
+        columnExists.setColumnName("name");
+        NotPrecondition not = new NotPrecondition();
+        not.addNestedPrecondition(columnExists);
+
+        PreconditionContainer preconditions = new PreconditionContainer();
+        preconditions.addNestedPrecondition(tableExists);
+        preconditions.addNestedPrecondition(not);
+        preconditions.addNestedPrecondition(new SqlPrecondition());
+
+        ChangeSet changeSet = new ChangeSet("1", "test", false, false, "path", null, null);
+        changeSet.setPreconditions(preconditions);
+
+        PreconditionExamplesVisitor visitor = new PreconditionExamplesVisitor();
+        visitor.visit(new ChangeSet("2", "test", false, false, "path", null, null), null, null);
+        visitor.visit(changeSet, null, null);
+
+        assertEquals(2, visitor.getExamples().size());
+        assertEquals("person", ((Table) visitor.getExamples().get(0)).getName());
+        assertEquals("name", ((Column) visitor.getExamples().get(1)).getName());
+        assertEquals("person", ((Column) visitor.getExamples().get(1)).getRelation().getName());
+    }
+}
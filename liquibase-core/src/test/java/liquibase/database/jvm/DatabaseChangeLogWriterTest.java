@@ -0,0 +1,157 @@
+package liquibase.database.jvm;
+
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.executor.ExecutorService;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.MarkChangeSetRanGenerator;
+import liquibase.statement.core.CreateDatabaseChangeLogTableStatement;
+import liquibase.statement.core.MarkChangeSetRanStatement;
+import liquibase.statement.core.RawSqlStatement;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class DatabaseChangeLogWriterTest {
+
+    private Connection connection;
+    private Database database;
+    private DatabaseChangeLogWriter writer;
+
+    @Before
+    public void setup() throws Exception {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setDatabase("jdbc:hsqldb:mem:changelogwritertest");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+        connection = dataSource.getConnection();
+
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+        ExecutorService.getInstance().getExecutor(database).execute(new CreateDatabaseChangeLogTableStatement());
+        database.commit();
+
+        writer = new DatabaseChangeLogWriter(database, (JdbcConnection) database.getConnection());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        ExecutorService.getInstance().clearExecutor(database);
+        Statement statement = connection.createStatement();
+        statement.execute("SHUTDOWN");
+        statement.close();
+        connection.close();
+    }
+
+    @Test
+    public void markChangeSetRan_sameAsStatement() throws Exception {
+        ChangeSet written = createChangeSet("1");
+        ChangeSet executed = createChangeSet("2");
+
+        writer.markChangeSetRan(written, ChangeSet.ExecType.EXECUTED);
+        ExecutorService.getInstance().getExecutor(database).execute(new MarkChangeSetRanStatement(executed, ChangeSet.ExecType.EXECUTED));
+
+        String columns = "AUTHOR, FILENAME, MD5SUM, DESCRIPTION, COMMENTS, EXECTYPE, LIQUIBASE, TAG";
+        assertEquals(query("SELECT " + columns + " FROM DATABASECHANGELOG WHERE ID='2'"), query("SELECT " + columns + " FROM DATABASECHANGELOG WHERE ID='1'"));
+        assertEquals("1,2", query("SELECT ORDEREXECUTED FROM DATABASECHANGELOG ORDER BY ID"));
+    }
+
+    @Test
+    public void markChangeSetRan_ranBeforeUpdatesRow() throws Exception {
+        ChangeSet changeSet = createChangeSet("1");
+        writer.markChangeSetRan(changeSet, ChangeSet.ExecType.EXECUTED);
+        writer.markChangeSetRan(changeSet, ChangeSet.ExecType.RERAN);
+
+        assertEquals("RERAN", query("SELECT EXECTYPE FROM DATABASECHANGELOG"));
+    }
+
+    @Test
+    public void markChangeSetRan_failedIsNotRecorded() throws Exception {
+        writer.markChangeSetRan(createChangeSet("1"), ChangeSet.ExecType.FAILED);
+
+        assertEquals("", query("SELECT ID FROM DATABASECHANGELOG"));
+    }
+
+    @Test
+    public void markChangeSetRan_replacedGeneratorIsNotBypassed() throws Exception {
+        MarkChangeSetRanGenerator replacement = new MarkChangeSetRanGenerator() {
+            @Override
+            public int getPriority() {
+                return PRIORITY_DATABASE;
+            }
+        };
+        SqlGeneratorFactory.getInstance().register(replacement);
+        try {
+            assertFalse(writer.markChangeSetRan(createChangeSet("1"), ChangeSet.ExecType.EXECUTED));
+        } finally {
+            SqlGeneratorFactory.getInstance().unregister(replacement);
+        }
+
+        assertEquals("", query("SELECT ID FROM DATABASECHANGELOG"));
+        assertTrue(writer.markChangeSetRan(createChangeSet("1"), ChangeSet.ExecType.EXECUTED));
+        assertEquals("1", query("SELECT ID FROM DATABASECHANGELOG"));
+    }
+
+    @Test
+    public void updateCheckSums() throws Exception {
+        ChangeSet changeSet1 = createChangeSet("1");
+        ChangeSet changeSet2 = createChangeSet("2");
+        writer.markChangeSetRan(changeSet1, ChangeSet.ExecType.EXECUTED);
+        writer.markChangeSetRan(changeSet2, ChangeSet.ExecType.EXECUTED);
+        ExecutorService.getInstance().getExecutor(database).execute(new RawSqlStatement("UPDATE DATABASECHANGELOG SET MD5SUM=NULL"));
+
+        writer.updateCheckSums(Arrays.asList(changeSet1, changeSet2));
+
+        String checkSum = changeSet1.generateCheckSum().toString();
+        assertEquals(checkSum + "," + checkSum, query("SELECT MD5SUM FROM DATABASECHANGELOG ORDER BY ID"));
+    }
+
+    @Test
+    public void updateCheckSums_usesConnectionStatementCache() throws Exception {
+        ChangeSet changeSet = createChangeSet("1");
+        writer.markChangeSetRan(changeSet, ChangeSet.ExecType.EXECUTED);
+
+        PreparedStatementCache cache = ((JdbcConnection) database.getConnection()).getPreparedStatementCache();
+        long misses = cache.getMisses();
+        writer.updateCheckSums(Arrays.asList(changeSet));
+        writer.updateCheckSums(Arrays.asList(changeSet));
+
+        assertEquals(misses + 1, cache.getMisses());
+        assertEquals(changeSet.generateCheckSum().toString(), query("SELECT MD5SUM FROM DATABASECHANGELOG"));
+    }
+
+    private ChangeSet createChangeSet(String id) {
+        return new ChangeSet(id, "test", false, false, "com/example/changelog.xml", null, null, true);
+    }
+
+    /**
+     * Returns the values of the result set, comma separated.
+     */
+    private String query(String sql) throws Exception {
+        Statement statement = connection.createStatement();
+        try {
+            ResultSet resultSet = statement.executeQuery(sql);
+            StringBuilder values = new StringBuilder();
+            while (resultSet.next()) {
+                for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
+                    if (values.length() > 0) {
+                        values.append(",");
+                    }
+                    values.append(resultSet.getString(i));
+                }
+            }
+            return values.toString();
+        } finally {
+            statement.close();
+        }
+    }
+}
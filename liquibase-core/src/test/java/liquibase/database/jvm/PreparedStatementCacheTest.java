@@ -0,0 +1,111 @@
+package liquibase.database.jvm;
+
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+public class PreparedStatementCacheTest {
+
+    private Connection connection;
+    private JdbcConnection jdbcConnection;
+
+    @Before
+    public void setup() throws Exception {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setDatabase("jdbc:hsqldb:mem:preparedstatementcachetest");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+        connection = dataSource.getConnection();
+        jdbcConnection = new JdbcConnection(connection);
+
+        Statement statement = connection.createStatement();
+        statement.execute("CREATE TABLE test_table (id INT, name VARCHAR(20))");
+        statement.close();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        Statement statement = connection.createStatement();
+        statement.execute("SHUTDOWN");
+        statement.close();
+        connection.close();
+    }
+
+    @Test
+    public void get_reusesStatementForSameSql() throws Exception {
+        PreparedStatementCache cache = new PreparedStatementCache(jdbcConnection, 2);
+
+        PreparedStatement stmt = cache.get("INSERT INTO test_table (id) VALUES (?)");
+        cache.release(stmt);
+        assertSame(stmt, cache.get("INSERT INTO test_table (id) VALUES (?)"));
+        assertNotSame(stmt, cache.get("INSERT INTO test_table (name) VALUES (?)"));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void get_evictsAndClosesLeastRecentlyUsed() throws Exception {
+        PreparedStatementCache cache = new PreparedStatementCache(jdbcConnection, 2);
+
+        PreparedStatement first = cache.get("SELECT id FROM test_table");
+        PreparedStatement second = cache.get("SELECT name FROM test_table");
+        cache.get("SELECT id FROM test_table");
+        cache.get("SELECT id, name FROM test_table");
+
+        assertEquals(2, cache.size());
+        assertTrue(second.isClosed());
+        assertFalse(first.isClosed());
+        assertSame(first, cache.get("SELECT id FROM test_table"));
+    }
+
+    @Test
+    public void release_clearsParameters() throws Exception {
+        PreparedStatementCache cache = new PreparedStatementCache(jdbcConnection, 2);
+
+        PreparedStatement stmt = cache.get("INSERT INTO test_table (id, name) VALUES (?, ?)");
+        stmt.setInt(1, 1);
+        stmt.setString(2, "a");
+        stmt.execute();
+        cache.release(stmt);
+
+        stmt = cache.get("INSERT INTO test_table (id, name) VALUES (?, ?)");
+        stmt.setInt(1, 2);
+        try {
+            stmt.execute();
+            fail("Parameter from the previous execution was kept");
+        } catch (java.sql.SQLException e) {
+            //expected, second parameter is not set
+        }
+    }
+
+    @Test
+    public void release_closesWhenNotCaching() throws Exception {
+        PreparedStatementCache cache = new PreparedStatementCache(jdbcConnection, 0);
+
+        PreparedStatement stmt = cache.get("SELECT id FROM test_table");
+        cache.release(stmt);
+
+        assertTrue(stmt.isClosed());
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void close_closesCachedStatements() throws Exception {
+        PreparedStatement stmt = jdbcConnection.getPreparedStatementCache().get("SELECT id FROM test_table");
+
+        jdbcConnection.getPreparedStatementCache().close();
+
+        assertTrue(stmt.isClosed());
+        assertEquals(0, jdbcConnection.getPreparedStatementCache().size());
+    }
+}
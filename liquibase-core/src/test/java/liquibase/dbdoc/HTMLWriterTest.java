@@ -0,0 +1,148 @@
+package liquibase.dbdoc;
+
+import liquibase.change.Change;
+import liquibase.change.CheckSum;
+import liquibase.change.core.CreateTableChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.core.MockDatabase;
+import liquibase.util.StreamUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class HTMLWriterTest {
+
+    private File outputDir;
+
+    @Before
+    public void setup() throws IOException {
+        outputDir = File.createTempFile("liquibase-dbdoc", "");
+        outputDir.delete();
+        outputDir.mkdirs();
+    }
+
+    @After
+    public void cleanup() {
+        delete(outputDir);
+    }
+
+    @Test
+    public void writeHTML_skipsPagesWithUnchangedInputs() throws Exception {
+        ChangeSet changeSet = new ChangeSet("1", "bob", false, false, "changelog.xml", null, null);
+        Map<ChangeSet, ChangeSet.RunStatus> runStatuses = new HashMap<ChangeSet, ChangeSet.RunStatus>();
+        runStatuses.put(changeSet, ChangeSet.RunStatus.NOT_RAN);
+        List<Change> changes = new ArrayList<Change>();
+        changes.add(createTableChange(changeSet, "person"));
+
+        DBDocManifest manifest = new DBDocManifest(outputDir);
+        HTMLWriter writer = new AuthorWriter(outputDir, new MockDatabase());
+        writer.setRunStatuses(runStatuses);
+        writer.setManifest(manifest);
+
+        File page = writer.getFile("bob");
+        writer.writeHTML("bob", null, changes, "changelog.xml");
+        assertTrue(read(page).contains("person"));
+
+        write(page, "unchanged");
+        writer.writeHTML("bob", null, changes, "changelog.xml");
+        assertEquals("unchanged", read(page));
+
+        changes.add(createTableChange(changeSet, "address"));
+        writer.writeHTML("bob", null, changes, "changelog.xml");
+        assertTrue(read(page).contains("address"));
+
+        manifest.write();
+        write(page, "unchanged");
+        writer.setManifest(new DBDocManifest(outputDir));
+        assertFalse("Read and then deleted until written again", new File(outputDir, DBDocManifest.FILE_NAME).exists());
+        writer.writeHTML("bob", null, changes, "changelog.xml");
+        assertEquals("unchanged", read(page));
+
+        runStatuses.put(changeSet, ChangeSet.RunStatus.RUN_AGAIN);
+        writer.writeHTML("bob", null, changes, "changelog.xml");
+        assertTrue(read(page).contains("WILL RUN AGAIN"));
+
+        page.delete();
+        writer.writeHTML("bob", null, changes, "changelog.xml");
+        assertTrue(page.exists());
+    }
+
+    @Test
+    public void writeHTML_usesCollectedRanDatesAndCheckSums() throws Exception {
+        ChangeSet changeSet = new ChangeSet("1", "bob", false, false, "changelog.xml", null, null);
+        Map<ChangeSet, ChangeSet.RunStatus> runStatuses = new HashMap<ChangeSet, ChangeSet.RunStatus>();
+        runStatuses.put(changeSet, ChangeSet.RunStatus.ALREADY_RAN);
+        Map<ChangeSet, Date> ranDates = new HashMap<ChangeSet, Date>();
+        ranDates.put(changeSet, new Date(0));
+        List<Change> changes = new ArrayList<Change>();
+        changes.add(createTableChange(changeSet, "person"));
+        Map<Change, CheckSum> checkSums = new HashMap<Change, CheckSum>();
+        checkSums.put(changes.get(0), CheckSum.compute("1"));
+
+        HTMLWriter writer = new AuthorWriter(outputDir, new MockDatabase()); //which returns no ran dates
+        writer.setRunStatuses(runStatuses);
+        writer.setRanDates(ranDates);
+        writer.setCheckSums(checkSums);
+        writer.setManifest(new DBDocManifest(outputDir));
+
+        File page = writer.getFile("bob");
+        writer.writeHTML("bob", changes, null, "changelog.xml");
+        assertTrue(read(page).contains("Executed " + DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(new Date(0))));
+
+        write(page, "unchanged");
+        writer.writeHTML("bob", changes, null, "changelog.xml");
+        assertEquals("unchanged", read(page));
+
+        checkSums.put(changes.get(0), CheckSum.compute("2"));
+        writer.writeHTML("bob", changes, null, "changelog.xml");
+        assertTrue(read(page).contains("person"));
+    }
+
+    private Change createTableChange(ChangeSet changeSet, String tableName) {
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName(tableName);
+        change.setChangeSet(changeSet);
+        return change;
+    }
+
+    private String read(File file) throws IOException {
+        FileReader reader = new FileReader(file);
+        try {
+            return StreamUtil.getReaderContents(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void write(File file, String contents) throws IOException {
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(contents);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,166 @@
+package liquibase.lockservice;
+
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LockException;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class LeaseLockServiceTest {
+
+    private JDBCDataSource dataSource;
+    private Connection connection1;
+    private Connection connection2;
+
+    private LeaseLockService lockService1;
+    private LeaseLockService lockService2;
+
+    @Before
+    public void setup() throws Exception {
+        dataSource = new JDBCDataSource();
+        dataSource.setDatabase("jdbc:hsqldb:mem:leaselocktest");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+
+        connection1 = dataSource.getConnection();
+        connection2 = dataSource.getConnection();
+
+        lockService1 = createLockService(connection1, new LeaseLockService());
+        lockService2 = createLockService(connection2, new LeaseLockService());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        lockService1.reset();
+        lockService2.reset();
+        Statement statement = connection1.createStatement();
+        statement.execute("SHUTDOWN");
+        statement.close();
+        connection1.close();
+        connection2.close();
+    }
+
+    private LeaseLockService createLockService(Connection connection, LeaseLockService lockService) {
+        Database database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+
+        lockService.setDatabase(database);
+        lockService.setHeartbeatDataSource(dataSource);
+        return lockService;
+    }
+
+    @Test
+    public void acquireLock_heldLeaseIsNotTakenOver() throws Exception {
+        assertTrue(lockService1.acquireLock());
+        assertFalse(lockService2.acquireLock());
+
+        DatabaseChangeLogLock[] locks = lockService2.listLocks();
+        assertEquals(1, locks.length);
+        assertEquals(lockService1.getLockedBy(), locks[0].getLockedBy());
+
+        lockService1.releaseLock();
+        assertTrue(lockService2.acquireLock());
+    }
+
+    @Test
+    public void acquireLock_expiredLeaseIsTakenOver() throws Exception {
+        assertTrue(lockService1.acquireLock());
+
+        LeaseLockService laterLockService = createLockService(connection2, new LeaseLockService() {
+            @Override
+            protected Date getDatabaseTime() throws DatabaseException {
+                return new Date(super.getDatabaseTime().getTime() + getLeaseDuration() - 1000);
+            }
+        });
+        assertFalse("Lease has not expired yet", laterLockService.acquireLock());
+
+        lockService2 = createLockService(connection2, new LeaseLockService() {
+            @Override
+            protected Date getDatabaseTime() throws DatabaseException {
+                return new Date(super.getDatabaseTime().getTime() + getLeaseDuration() + 2000);
+            }
+        });
+        assertTrue(lockService2.acquireLock());
+        assertEquals(lockService2.getLockedBy(), lockService2.listLocks()[0].getLockedBy());
+
+        try {
+            lockService1.renewLease();
+            fail("Did not detect the lease was taken over");
+        } catch (LockException e) {
+            //expected
+        }
+        assertFalse(lockService1.hasChangeLogLock());
+
+        //does not release the lock taken over by the other service
+        lockService1.releaseLock();
+        assertEquals(lockService2.getLockedBy(), lockService2.listLocks()[0].getLockedBy());
+    }
+
+    @Test
+    public void renewLease_keepsLeaseFromExpiring() throws Exception {
+        lockService1.setHeartbeatInterval(Long.MAX_VALUE);
+        assertTrue(lockService1.acquireLock());
+
+        expireLease();
+
+        lockService1.renewLease();
+
+        assertFalse(lockService2.acquireLock());
+        assertTrue(lockService1.hasChangeLogLock());
+    }
+
+    @Test
+    public void heartbeat_renewsLeaseWhileLockIsHeld() throws Exception {
+        lockService1.setHeartbeatInterval(50);
+        assertTrue(lockService1.acquireLock());
+
+        expireLease();
+        Thread.sleep(500);
+
+        assertFalse(lockService2.acquireLock());
+        assertTrue(lockService1.hasChangeLogLock());
+
+        lockService1.releaseLock();
+        assertTrue(lockService2.acquireLock());
+    }
+
+    @Test
+    public void acquireLock_withoutHeartbeatLockIsNotTakenOver() throws Exception {
+        lockService1.setHeartbeatDataSource(null);
+        lockService2.setHeartbeatDataSource(null);
+        assertTrue(lockService1.acquireLock());
+
+        expireLease();
+
+        assertFalse(lockService2.acquireLock());
+        assertTrue(lockService1.hasChangeLogLock());
+    }
+
+    private void expireLease() throws Exception {
+        Statement statement = connection2.createStatement();
+        statement.execute("UPDATE DATABASECHANGELOGLOCK SET LOCKGRANTED = LOCKGRANTED - INTERVAL '1' HOUR");
+        statement.close();
+        connection2.commit();
+    }
+
+    @Test
+    public void getRecheckTime_backsOffExponentially() {
+        lockService1.setChangeLogLockRecheckTime(1000);
+        for (int attempt = 0; attempt < 40; attempt++) {
+            long expectedMax = Math.min(100L << Math.min(attempt, 30), 1000);
+            long recheckTime = lockService1.getRecheckTime(attempt);
+            assertTrue(recheckTime >= expectedMax / 2);
+            assertTrue(recheckTime <= expectedMax);
+        }
+    }
+}
@@ -231,6 +231,38 @@ public class XMLChangeLogSAXParserTest {
 				changeLog);
     }
 
+    @Test
+    public void doubleNestedChangeLogParsedInParallel() throws Exception {
+        final String doubleNestedFileName = "liquibase/parser/core/xml/doubleNestedChangeLog.xml";
+        final String nestedFileName = "liquibase/parser/core/xml/nestedChangeLog.xml";
+        System.setProperty(ParallelIncludeParser.THREADS_PROPERTY, "4");
+        try {
+            DatabaseChangeLog changeLog = new XMLChangeLogSAXParser().parse(doubleNestedFileName, new ChangeLogParameters(), new JUnitResourceAccessor());
+
+            doubleNestedFileAssertions(doubleNestedFileName, nestedFileName, changeLog);
+        } finally {
+            System.clearProperty(ParallelIncludeParser.THREADS_PROPERTY);
+        }
+    }
+
+    @Test
+    public void includeSettingParametersParsedInParallel() throws Exception {
+        System.setProperty(ParallelIncludeParser.THREADS_PROPERTY, "4");
+        try {
+            ChangeLogParameters params = new ChangeLogParameters();
+            DatabaseChangeLog changeLog = new XMLChangeLogSAXParser().parse("liquibase/parser/core/xml/parallelParametersChangeLog.xml", params, new JUnitResourceAccessor());
+
+            assertEquals(2, changeLog.getChangeSets().size());
+            assertEquals("liquibase/parser/core/xml/parallelParametersSet.xml", changeLog.getChangeSets().get(0).getFilePath());
+            assertEquals("create table fromInclude_set", ((RawSQLChange) changeLog.getChangeSets().get(0).getChanges().get(0)).getSql());
+            assertEquals("liquibase/parser/core/xml/parallelParametersUsed.xml", changeLog.getChangeSets().get(1).getFilePath());
+            assertEquals("create table fromInclude_used", ((RawSQLChange) changeLog.getChangeSets().get(1).getChanges().get(0)).getSql());
+            assertEquals("fromInclude", params.getValue("tablename"));
+        } finally {
+            System.clearProperty(ParallelIncludeParser.THREADS_PROPERTY);
+        }
+    }
+
 	private void doubleNestedFileAssertions(final String doubleNestedFileName,
 			final String nestedFileName, DatabaseChangeLog changeLog) {
 		assertEquals(doubleNestedFileName, changeLog.getLogicalFilePath());
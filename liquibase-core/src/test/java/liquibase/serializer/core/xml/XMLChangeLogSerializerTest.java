@@ -3,8 +3,11 @@ package liquibase.serializer.core.xml;
 import liquibase.change.ColumnConfig;
 import liquibase.change.ConstraintsConfig;
 import liquibase.change.core.*;
+import liquibase.changelog.ChangeSet;
 import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.serializer.LiquibaseSerializable;
 import liquibase.statement.SequenceNextValueFunction;
+import liquibase.util.StreamUtil;
 import org.junit.Test;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
@@ -12,10 +15,15 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.*;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -835,4 +843,197 @@ public class XMLChangeLogSerializerTest {
                 "        schemaName=\"b\"\n" +
                 "        tableName=\"c\"/>", out);
     }
+
+    @Test
+    public void createWriter_sameAsWrite() throws Exception {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        new XMLChangeLogSerializer().write(Arrays.asList(createChangeSet("1"), createChangeSet("2")), written);
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        XMLChangeLogStreamWriter writer = new XMLChangeLogSerializer().createWriter(streamed);
+        writer.begin();
+        writer.write(createChangeSet("1"));
+        writer.write(createChangeSet("2"));
+        writer.end();
+
+        assertEquals(written.toString("UTF-8"), streamed.toString("UTF-8"));
+        assertTrue(streamed.toString("UTF-8").contains("    <changeSet author=\"test\" id=\"2\">"));
+    }
+
+    @Test
+    public void createWriter_noChangeSets() throws Exception {
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        XMLChangeLogStreamWriter writer = new XMLChangeLogSerializer().createWriter(streamed);
+        writer.begin();
+        writer.end();
+
+        assertNotNull(DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(streamed.toByteArray())));
+    }
+
+    @Test
+    public void append_changeSets() throws Exception {
+        File file = File.createTempFile("liquibase-changelog", ".xml");
+        try {
+            OutputStream out = new FileOutputStream(file);
+            new XMLChangeLogSerializer().write(Arrays.asList(createChangeSet("1")), out);
+            out.close();
+
+            new XMLChangeLogSerializer().append(Arrays.asList(createChangeSet("2"), createChangeSet("3")), file);
+
+            String contents = readFile(file);
+            assertTrue(contents.indexOf("id=\"1\"") < contents.indexOf("id=\"2\""));
+            assertTrue(contents.indexOf("id=\"2\"") < contents.indexOf("id=\"3\""));
+            assertEquals(contents.indexOf("</databaseChangeLog>"), contents.lastIndexOf("</databaseChangeLog>"));
+            assertTrue(contents.trim().endsWith("</databaseChangeLog>"));
+            assertTrue(contents.contains("tableName=\"table_3\""));
+
+            //the result is still a valid changelog
+            assertNotNull(DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void append_failureLeavesFileUnchanged() throws Exception {
+        final File file = File.createTempFile("liquibase-changelog", ".xml");
+        try {
+            OutputStream out = new FileOutputStream(file);
+            new XMLChangeLogSerializer().write(Arrays.asList(createChangeSet("1")), out);
+            out.write("<!-- after the closing tag -->\n".getBytes("UTF-8"));
+            out.close();
+            String original = readFile(file);
+
+            XMLChangeLogSerializer serializer = new XMLChangeLogSerializer() {
+                @Override
+                public Element createNode(LiquibaseSerializable object) {
+                    if (object instanceof ChangeSet && ((ChangeSet) object).getId().equals("fail")) {
+                        throw new IllegalStateException("Cannot serialize");
+                    }
+                    return super.createNode(object);
+                }
+            };
+            //enough changeSets that part of them is already written over the closing tag when it fails
+            List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+            for (int i = 2; i < 200; i++) {
+                changeSets.add(createChangeSet(String.valueOf(i)));
+            }
+            changeSets.add(createChangeSet("fail"));
+            try {
+                serializer.append(changeSets, file);
+                fail("Did not throw exception");
+            } catch (IllegalStateException e) {
+                //expected
+            }
+
+            assertEquals(original, readFile(file));
+            assertEquals("No temporary file left behind", 1, file.getParentFile().listFiles(new FilenameFilter() {
+                public boolean accept(File dir, String name) {
+                    return name.startsWith(file.getName());
+                }
+            }).length);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void append_fromSource() throws Exception {
+        File file = File.createTempFile("liquibase-changelog", ".xml");
+        try {
+            OutputStream out = new FileOutputStream(file);
+            new XMLChangeLogSerializer().write(Arrays.asList(createChangeSet("1")), out);
+            out.close();
+            String original = readFile(file);
+
+            assertFalse(new XMLChangeLogSerializer().append(file, new XMLChangeLogSerializer.ChangeSetSource() {
+                public void writeTo(XMLChangeLogStreamWriter writer) {
+                }
+            }));
+            assertEquals(original, readFile(file));
+
+            assertTrue(new XMLChangeLogSerializer().append(file, new XMLChangeLogSerializer.ChangeSetSource() {
+                public void writeTo(XMLChangeLogStreamWriter writer) throws IOException {
+                    writer.write(createChangeSet("2"));
+                }
+            }));
+            String contents = readFile(file);
+            assertTrue(contents.indexOf("id=\"1\"") < contents.indexOf("id=\"2\""));
+            assertNotNull(DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void append_nothingToNewFile() throws Exception {
+        File file = File.createTempFile("liquibase-changelog", ".xml");
+        file.delete();
+
+        assertFalse(new XMLChangeLogSerializer().append(file, new XMLChangeLogSerializer.ChangeSetSource() {
+            public void writeTo(XMLChangeLogStreamWriter writer) {
+            }
+        }));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void append_noClosingTag() throws Exception {
+        File file = File.createTempFile("liquibase-changelog", ".xml");
+        try {
+            new XMLChangeLogSerializer().append(Arrays.asList(createChangeSet("1")), file);
+
+            String contents = readFile(file);
+            assertTrue(contents.contains("id=\"1\""));
+            assertTrue(contents.trim().endsWith("</databaseChangeLog>"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void findClosingTag() throws Exception {
+        File file = File.createTempFile("liquibase-changelog", ".xml");
+        try {
+            //put the closing tag across the 8192 byte block boundary searched backwards from the end of the file
+            StringBuilder contents = new StringBuilder();
+            while (contents.length() < 9000 - 8192 - 5) {
+                contents.append("x");
+            }
+            long expected = contents.length();
+            contents.append("</databaseChangeLog>");
+            while (contents.length() < 9000) {
+                contents.append("y");
+            }
+            Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+            writer.write(contents.toString());
+            writer.close();
+
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                assertEquals(expected, new XMLChangeLogSerializer().findClosingTag(randomAccessFile));
+            } finally {
+                randomAccessFile.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private ChangeSet createChangeSet(String id) {
+        ChangeSet changeSet = new ChangeSet(id, "test", false, false, "com/example/test.xml", null, null);
+        DropTableChange change = new DropTableChange();
+        change.setTableName("table_" + id);
+        changeSet.addChange(change);
+        return changeSet;
+    }
+
+    private String readFile(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            return StreamUtil.getStreamContents(in);
+        } finally {
+            in.close();
+        }
+    }
 }
@@ -0,0 +1,173 @@
+package liquibase.servicelocator;
+
+import liquibase.change.Change;
+import liquibase.change.core.AddColumnChange;
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.DropTableChange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ServiceIndexGeneratorTest {
+
+    private File classesDirectory;
+
+    @Before
+    public void setup() throws IOException {
+        classesDirectory = File.createTempFile("liquibase-classes", "");
+        classesDirectory.delete();
+        classesDirectory.mkdirs();
+    }
+
+    @After
+    public void cleanup() {
+        delete(classesDirectory);
+    }
+
+    @Test
+    public void generate() throws IOException {
+        createFile("liquibase/change/core/AddColumnChange.class");
+        createFile("liquibase/change/core/CreateTableChange.class");
+        createFile("liquibase/change/core/CreateTableChange$1.class");
+        createFile("liquibase/change/ChangeMetaData$Nested.class");
+        createFile("liquibase/change/core/notes.txt");
+        createFile("liquibase/util/StringUtils.class");
+
+        File indexFile = new ServiceIndexGenerator().generate(classesDirectory, Arrays.asList("liquibase.change", "liquibase.missing"));
+
+        assertEquals(new File(classesDirectory, DefaultPackageScanClassResolver.INDEX_FILE), indexFile);
+        assertEquals(Arrays.asList("liquibase.change.ChangeMetaData$Nested", "liquibase.change.core.AddColumnChange", "liquibase.change.core.CreateTableChange"), readClassNames(indexFile));
+    }
+
+    @Test
+    public void readPackages() throws IOException {
+        File manifest = createFile("META-INF/MANIFEST.MF");
+        write(manifest, "Manifest-Version: 1.0\nLiquibase-Package: liquibase.change,\n liquibase.database,\n liquibase.ext\n");
+
+        assertEquals(Arrays.asList("liquibase.change", "liquibase.database", "liquibase.ext"), ServiceIndexGenerator.readPackages(manifest));
+        assertEquals(0, ServiceIndexGenerator.readPackages(new File(classesDirectory, "missing.MF")).size());
+    }
+
+    @Test
+    public void findImplementations_usesIndexInsteadOfScanning() throws IOException {
+        //CreateTableChange is only found if the index is read
+        File indexFile = createFile(DefaultPackageScanClassResolver.INDEX_FILE);
+        write(indexFile, "# test index\n" + AddColumnChange.class.getName() + "\n" + CreateTableChange.class.getName() + "\nliquibase.change.core.Missing\n");
+        createFile("liquibase/change/core/AddColumnChange.class");
+        createFile("liquibase/change/core/AddColumnChange$1.class");
+
+        DefaultPackageScanClassResolver resolver = createResolver(classesDirectory.toURI().toURL());
+
+        Set<Class<?>> found = resolver.findImplementations(Change.class, "liquibase.change");
+        assertEquals(new HashSet<Class<?>>(Arrays.<Class<?>>asList(AddColumnChange.class, CreateTableChange.class)), found);
+        assertEquals(0, resolver.findImplementations(Change.class, "liquibase.database").size());
+    }
+
+    @Test
+    public void findImplementations_scansDirectoryWithIncompleteIndex() throws IOException {
+        File indexFile = createFile(DefaultPackageScanClassResolver.INDEX_FILE);
+        write(indexFile, "# test index\n" + AddColumnChange.class.getName() + "\n");
+        createFile("liquibase/change/core/AddColumnChange.class");
+        createFile("liquibase/change/core/DropTableChange.class");
+
+        Set<Class<?>> found = createResolver(classesDirectory.toURI().toURL()).findImplementations(Change.class, "liquibase.change");
+        assertEquals(new HashSet<Class<?>>(Arrays.<Class<?>>asList(AddColumnChange.class, DropTableChange.class)), found);
+    }
+
+    @Test
+    public void findImplementations_scansJarWithIncompleteIndex() throws IOException {
+        File jar = new File(classesDirectory, "merged.jar");
+        JarOutputStream jarStream = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            jarStream.putNextEntry(new JarEntry(DefaultPackageScanClassResolver.INDEX_FILE));
+            jarStream.write((AddColumnChange.class.getName() + "\n").getBytes("UTF-8"));
+            jarStream.closeEntry();
+            for (String directory : new String[]{"liquibase/", "liquibase/change/", "liquibase/change/core/"}) {
+                jarStream.putNextEntry(new JarEntry(directory));
+                jarStream.closeEntry();
+            }
+            jarStream.putNextEntry(new JarEntry("liquibase/change/core/AddColumnChange.class"));
+            jarStream.closeEntry();
+            jarStream.putNextEntry(new JarEntry("liquibase/change/core/DropTableChange.class"));
+            jarStream.closeEntry();
+        } finally {
+            jarStream.close();
+        }
+
+        Set<Class<?>> found = createResolver(jar.toURI().toURL()).findImplementations(Change.class, "liquibase.change");
+        assertEquals(new HashSet<Class<?>>(Arrays.<Class<?>>asList(AddColumnChange.class, DropTableChange.class)), found);
+    }
+
+    /**
+     * Returns a resolver whose only classpath resources are those of the given URL, but which loads the real classes.
+     */
+    private DefaultPackageScanClassResolver createResolver(URL url) {
+        ClassLoader classesOnly = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public URL getResource(String name) {
+                return null;
+            }
+
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                return Collections.enumeration(Collections.<URL>emptyList());
+            }
+        };
+        URLClassLoader loader = new URLClassLoader(new URL[]{url}, classesOnly);
+
+        DefaultPackageScanClassResolver resolver = new DefaultPackageScanClassResolver();
+        resolver.setClassLoaders(new HashSet<ClassLoader>(Arrays.asList((ClassLoader) loader)));
+        return resolver;
+    }
+
+    private List<String> readClassNames(File indexFile) throws IOException {
+        List<String> classNames = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(indexFile));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("#")) {
+                    classNames.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return classNames;
+    }
+
+    private File createFile(String path) throws IOException {
+        File file = new File(classesDirectory, path);
+        file.getParentFile().mkdirs();
+        file.createNewFile();
+        return file;
+    }
+
+    private void write(File file, String contents) throws IOException {
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(contents);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,61 @@
+package liquibase.servicelocator;
+
+import liquibase.change.Change;
+import liquibase.database.Database;
+import liquibase.datatype.LiquibaseDataType;
+import liquibase.executor.Executor;
+import liquibase.lockservice.LockService;
+import liquibase.logging.Logger;
+import liquibase.parser.ChangeLogParser;
+import liquibase.precondition.Precondition;
+import liquibase.serializer.ChangeLogSerializer;
+import liquibase.snapshot.SnapshotGenerator;
+import liquibase.sqlgenerator.SqlGenerator;
+
+/**
+ * Measures how long it takes to find the implementations of the main service interfaces, as happens at startup,
+ * with and without the service index. Not run as part of the test suite.
+ * <p/>
+ * Run with the liquibase-core jar (built with its index) and any extension jars on the classpath:
+ * java liquibase.servicelocator.ServiceLocatorStartupBenchmark [iterations]
+ */
+public class ServiceLocatorStartupBenchmark {
+
+    private static final Class[] SERVICES = new Class[]{
+            Change.class, Database.class, LiquibaseDataType.class, Executor.class, LockService.class, Logger.class,
+            ChangeLogParser.class, Precondition.class, ChangeLogSerializer.class, SnapshotGenerator.class, SqlGenerator.class
+    };
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        //first run warms up the JVM and loads the classes, so it is not counted
+        run(true);
+        run(false);
+
+        long indexedTime = 0;
+        long scannedTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            indexedTime += run(true);
+            scannedTime += run(false);
+        }
+
+        System.out.println("With index:    " + (indexedTime / iterations) + "ms");
+        System.out.println("Without index: " + (scannedTime / iterations) + "ms");
+    }
+
+    private static long run(boolean useIndex) throws Exception {
+        System.setProperty("liquibase.scan.useIndex", String.valueOf(useIndex));
+        long start = System.currentTimeMillis();
+        ServiceLocator.reset();
+        int found = 0;
+        for (Class service : SERVICES) {
+            found += ServiceLocator.getInstance().findClasses(service).length;
+        }
+        long time = System.currentTimeMillis() - start;
+        if (found == 0) {
+            throw new IllegalStateException("No services found");
+        }
+        return time;
+    }
+}
@@ -0,0 +1,111 @@
+package liquibase.snapshot;
+
+import liquibase.database.Database;
+import liquibase.database.core.MockDatabase;
+import liquibase.diff.ObjectDifferences;
+import liquibase.diff.compare.DatabaseObjectComparator;
+import liquibase.diff.compare.DatabaseObjectComparatorChain;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Table;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DatabaseObjectIdentityMapTest {
+
+    @Test
+    public void find_keyedObjects() {
+        DatabaseObjectIdentityMap map = new DatabaseObjectIdentityMap(new MockDatabase());
+
+        Table table1 = new Table().setName("TABLE1");
+        Table table2 = new Table().setName("TABLE2");
+        Column column1 = new Column().setRelation(table1).setName("COL");
+        Column column2 = new Column().setRelation(table2).setName("COL");
+        PrimaryKey primaryKey = new PrimaryKey().setName("PK_TABLE1").setTable(table1);
+        map.add(table1);
+        map.add(table2);
+        map.add(column1);
+        map.add(column2);
+        map.add(primaryKey);
+
+        assertSame(table2, map.find(new Table().setName("TABLE2")));
+        assertSame(column1, map.find(new Column().setRelation(new Table().setName("TABLE1")).setName("COL")));
+        assertSame(column2, map.find(new Column().setRelation(new Table().setName("TABLE2")).setName("COL")));
+        assertSame(primaryKey, map.find(new PrimaryKey().setTable(new Table().setName("TABLE1"))));
+
+        assertNull(map.find(new Table().setName("TABLE3")));
+        assertNull(map.find(new Column().setRelation(new Table().setName("TABLE1")).setName("OTHER")));
+        assertNull(map.find(new PrimaryKey().setTable(new Table().setName("TABLE2"))));
+    }
+
+    @Test
+    public void find_unkeyedObjects() {
+        DatabaseObjectIdentityMap map = new DatabaseObjectIdentityMap(new MockDatabase());
+
+        Table table = new Table().setName("TABLE1");
+        Index index = new Index().setName("IDX_NAME").setTable(table);
+        index.getColumns().add("NAME");
+        map.add(index);
+
+        assertSame(index, map.find(new Index().setName("IDX_NAME")));
+
+        Index sameColumns = new Index().setTable(new Table().setName("TABLE1"));
+        sameColumns.getColumns().add("NAME");
+        assertSame(index, map.find(sameColumns));
+
+        assertNull(map.find(new Index().setName("IDX_OTHER")));
+    }
+
+    @Test
+    public void find_comparatorWithoutIdentityKey() {
+        DatabaseObjectComparatorFactory.getInstance().register(new DatabaseObjectComparator() {
+            public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
+                return Table.class.isAssignableFrom(objectType) ? PRIORITY_DATABASE : PRIORITY_NONE;
+            }
+
+            public boolean isSameObject(DatabaseObject databaseObject1, DatabaseObject databaseObject2, Database accordingTo, DatabaseObjectComparatorChain chain) {
+                return databaseObject1.getName().replace("_", "").equalsIgnoreCase(databaseObject2.getName().replace("_", ""));
+            }
+
+            public ObjectDifferences findDifferences(DatabaseObject databaseObject1, DatabaseObject databaseObject2, Database accordingTo, DatabaseObjectComparatorChain chain) {
+                return chain.findDifferences(databaseObject1, databaseObject2, accordingTo);
+            }
+        });
+        try {
+            DatabaseObjectIdentityMap map = new DatabaseObjectIdentityMap(new MockDatabase());
+            Table table = new Table().setName("MY_TABLE");
+            map.add(table);
+
+            assertNull(DatabaseObjectComparatorFactory.getInstance().getIdentityKey(table, new MockDatabase()));
+            assertSame(table, map.find(new Table().setName("MYTABLE")));
+        } finally {
+            DatabaseObjectComparatorFactory.reset();
+        }
+    }
+
+    @Test
+    public void find_manyObjects() {
+        DatabaseObjectIdentityMap map = new DatabaseObjectIdentityMap(new MockDatabase());
+        for (int i = 0; i < 1000; i++) {
+            Table table = new Table().setName("TABLE_" + i);
+            map.add(table);
+            for (int j = 0; j < 100; j++) {
+                map.add(new Column().setRelation(table).setName("COL_" + j));
+            }
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            Table table = new Table().setName("TABLE_" + i);
+            assertNotNull(map.find(table));
+            for (int j = 0; j < 100; j++) {
+                Column column = map.find(new Column().setRelation(table).setName("COL_" + j));
+                assertEquals("TABLE_" + i, column.getRelation().getName());
+                assertEquals("COL_" + j, column.getName());
+            }
+        }
+    }
+}
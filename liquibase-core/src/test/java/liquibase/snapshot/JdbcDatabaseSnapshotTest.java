@@ -0,0 +1,297 @@
+package liquibase.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.structure.core.*;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class JdbcDatabaseSnapshotTest {
+
+    private JDBCDataSource dataSource;
+    private Connection connection;
+
+    @Before
+    public void setup() throws Exception {
+        dataSource = new JDBCDataSource();
+        dataSource.setDatabase("jdbc:hsqldb:mem:snapshottest");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+
+        connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        for (int i = 0; i < 50; i++) {
+            statement.execute("CREATE TABLE TABLE_" + i + " (ID INT NOT NULL PRIMARY KEY, NAME VARCHAR(50), PARENT_ID INT)");
+            statement.execute("CREATE INDEX IDX_NAME_" + i + " ON TABLE_" + i + " (NAME)");
+            if (i > 0) {
+                statement.execute("ALTER TABLE TABLE_" + i + " ADD CONSTRAINT FK_PARENT_" + i + " FOREIGN KEY (PARENT_ID) REFERENCES TABLE_" + (i - 1) + " (ID)");
+            }
+        }
+        statement.close();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        Statement statement = connection.createStatement();
+        statement.execute("SHUTDOWN");
+        statement.close();
+        connection.close();
+    }
+
+    @Test
+    public void parallelSnapshotMatchesSerialSnapshot() throws Exception {
+        Database database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+
+        DatabaseSnapshot serialSnapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(database.getDefaultSchema(), database, new SnapshotControl());
+
+        SnapshotControl parallelControl = new SnapshotControl();
+        parallelControl.setParallel(dataSource, 4);
+        DatabaseSnapshot parallelSnapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(database.getDefaultSchema(), database, parallelControl);
+
+        SortedSet<String> serialObjects = describe(serialSnapshot);
+        assertTrue(serialObjects.contains("table:TABLE_49"));
+        assertTrue(serialObjects.contains("fk:TABLE_49.FK_PARENT_49"));
+        assertEquals(serialObjects, describe(parallelSnapshot));
+    }
+
+    @Test
+    public void parallelSnapshotReadsEachTableOnceOverParallelConnections() throws Exception {
+        Queue<String> snapshotConnectionCalls = new ConcurrentLinkedQueue<String>();
+        final Queue<String> parallelConnectionCalls = new ConcurrentLinkedQueue<String>();
+
+        Database database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(recordMetaDataCalls(connection, snapshotConnectionCalls)));
+
+        DataSource parallelDataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{DataSource.class}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result = invokeOn(dataSource, method, args);
+                if (result instanceof Connection) {
+                    return recordMetaDataCalls((Connection) result, parallelConnectionCalls);
+                }
+                return result;
+            }
+        });
+
+        SnapshotControl parallelControl = new SnapshotControl();
+        parallelControl.setParallel(parallelDataSource, 4);
+        SnapshotGeneratorFactory.getInstance().createSnapshot(database.getDefaultSchema(), database, parallelControl);
+
+        String[] tableMethods = new String[]{"getColumns", "getPrimaryKeys", "getImportedKeys", "getExportedKeys", "getIndexInfo"};
+        for (String method : tableMethods) {
+            assertEquals("Calls to " + method + " over the parallel connections", 50, count(parallelConnectionCalls, method + ":TABLE_"));
+            for (int i = 0; i < 50; i++) {
+                assertEquals(method + " for TABLE_" + i + " over the parallel connections", 1, count(parallelConnectionCalls, method + ":TABLE_" + i + ":"));
+            }
+            assertEquals("Calls to " + method + " over the snapshot connection", 0, count(snapshotConnectionCalls, method + ":TABLE_"));
+        }
+        assertEquals("Tables listed once for both the parallel connections and the snapshot", 1, count(snapshotConnectionCalls, "getTables:null:[TABLE]"));
+    }
+
+    /**
+     * Returns a view of the connection whose DatabaseMetaData records each call as "method:tableName:" in the given queue, followed by the types for getTables().
+     */
+    private Connection recordMetaDataCalls(final Connection connection, final Queue<String> calls) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result = invokeOn(connection, method, args);
+                if (!method.getName().equals("getMetaData")) {
+                    return result;
+                }
+                final DatabaseMetaData metaData = (DatabaseMetaData) result;
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{DatabaseMetaData.class}, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getName().startsWith("get") && args != null && args.length >= 3 && (args[2] == null || args[2] instanceof String)) {
+                            String call = method.getName() + ":" + args[2] + ":";
+                            if (args.length > 3 && args[3] instanceof String[]) {
+                                call += Arrays.asList((String[]) args[3]);
+                            }
+                            calls.add(call);
+                        }
+                        return invokeOn(metaData, method, args);
+                    }
+                });
+            }
+        });
+    }
+
+    private Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int count(Collection<String> calls, String prefix) {
+        int count = 0;
+        for (String call : calls) {
+            if (call.startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void bulkFetch_bucketsRowsByTable() throws Exception {
+        DatabaseMetaData metaData = spy(connection.getMetaData());
+        JdbcDatabaseSnapshot.CachingDatabaseMetaData cachingMetaData = createCachingMetaData(metaData, true);
+
+        assertRowsForTable(cachingMetaData.getColumns(null, "PUBLIC", "TABLE_1", null), "TABLE_NAME", "TABLE_1", 3);
+        assertRowsForTable(cachingMetaData.getColumns(null, "PUBLIC", "TABLE_2", null), "TABLE_NAME", "TABLE_2", 3);
+        assertRowsForTable(cachingMetaData.getColumns(null, "PUBLIC", "TABLE_2", "NAME"), "TABLE_NAME", "TABLE_2", 1);
+        assertEquals(0, cachingMetaData.getColumns(null, "PUBLIC", "NO_SUCH_TABLE", null).size());
+        assertRowsForTable(cachingMetaData.getImportedKeys(null, "PUBLIC", "TABLE_2"), "FKTABLE_NAME", "TABLE_2", 1);
+        assertRowsForTable(cachingMetaData.getExportedKeys(null, "PUBLIC", "TABLE_2"), "PKTABLE_NAME", "TABLE_2", 1);
+
+        verify(metaData, times(1)).getColumns(null, "PUBLIC", null, null);
+        verify(metaData, never()).getColumns(any(String.class), any(String.class), eq("TABLE_1"), any(String.class));
+        verify(metaData, never()).getColumns(any(String.class), any(String.class), eq("TABLE_2"), any(String.class));
+        verify(metaData, times(1)).getImportedKeys(null, "PUBLIC", null);
+        verify(metaData, times(1)).getExportedKeys(null, "PUBLIC", null);
+    }
+
+    @Test
+    public void bulkFetch_fallsBackToTableWhenSchemaWideCallFails() throws Exception {
+        DatabaseMetaData metaData = spy(connection.getMetaData());
+        doThrow(new SQLException("Not supported")).when(metaData).getImportedKeys(null, "PUBLIC", null);
+        JdbcDatabaseSnapshot.CachingDatabaseMetaData cachingMetaData = createCachingMetaData(metaData, true);
+
+        assertRowsForTable(cachingMetaData.getImportedKeys(null, "PUBLIC", "TABLE_1"), "FKTABLE_NAME", "TABLE_1", 1);
+        assertRowsForTable(cachingMetaData.getImportedKeys(null, "PUBLIC", "TABLE_2"), "FKTABLE_NAME", "TABLE_2", 1);
+
+        verify(metaData, times(1)).getImportedKeys(null, "PUBLIC", null);
+        verify(metaData, times(1)).getImportedKeys(null, "PUBLIC", "TABLE_1");
+        verify(metaData, times(1)).getImportedKeys(null, "PUBLIC", "TABLE_2");
+    }
+
+    @Test
+    public void bulkFetch_emptySchemaWideResultIsAuthoritative() throws Exception {
+        DatabaseMetaData metaData = spy(connection.getMetaData());
+        doReturn(connection.getMetaData().getPrimaryKeys(null, "PUBLIC", "NO_SUCH_TABLE")).when(metaData).getPrimaryKeys(null, "PUBLIC", null);
+        JdbcDatabaseSnapshot.CachingDatabaseMetaData cachingMetaData = createCachingMetaData(metaData, true);
+
+        assertEquals(0, cachingMetaData.getPrimaryKeys(null, "PUBLIC", "TABLE_1").size());
+        assertEquals(0, cachingMetaData.getPrimaryKeys(null, "PUBLIC", "TABLE_2").size());
+
+        verify(metaData, times(1)).getPrimaryKeys(null, "PUBLIC", null);
+        verify(metaData, never()).getPrimaryKeys(null, "PUBLIC", "TABLE_1");
+        verify(metaData, never()).getPrimaryKeys(null, "PUBLIC", "TABLE_2");
+    }
+
+    @Test
+    public void getColumns_columnPatternUsesDriverOutsideParallelPrefetch() throws Exception {
+        DatabaseMetaData metaData = spy(connection.getMetaData());
+        JdbcDatabaseSnapshot.CachingDatabaseMetaData cachingMetaData = createCachingMetaData(metaData, false);
+
+        assertRowsForTable(cachingMetaData.getColumns(null, "PUBLIC", "TABLE_1", null), "TABLE_NAME", "TABLE_1", 3);
+        assertRowsForTable(cachingMetaData.getColumns(null, "PUBLIC", "TABLE_1", "PARENT%"), "TABLE_NAME", "TABLE_1", 1);
+
+        verify(metaData, times(1)).getColumns(null, "PUBLIC", "TABLE_1", null);
+        verify(metaData, times(1)).getColumns(null, "PUBLIC", "TABLE_1", "PARENT%");
+    }
+
+    @Test
+    public void queryForTable_bucketsRowsOfOneSchemaWideQuery() throws Exception {
+        String sql = "SELECT INDEX_NAME, TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.SYSTEM_INDEXINFO WHERE TABLE_SCHEM='PUBLIC' ORDER BY TABLE_NAME, INDEX_NAME, ORDINAL_POSITION";
+        Connection spyConnection = spy(connection);
+        DatabaseMetaData metaData = spy(connection.getMetaData());
+        doReturn(spyConnection).when(metaData).getConnection();
+
+        assertNull("Not used outside of bulk fetch mode", createCachingMetaData(metaData, false).queryForTable(sql, "TABLE_NAME", "TABLE_1"));
+        verify(spyConnection, never()).createStatement();
+
+        JdbcDatabaseSnapshot.CachingDatabaseMetaData cachingMetaData = createCachingMetaData(metaData, true);
+        assertRowsForTable(cachingMetaData.queryForTable(sql, "TABLE_NAME", "TABLE_1"), "TABLE_NAME", "TABLE_1", 3);
+        assertRowsForTable(cachingMetaData.queryForTable(sql, "TABLE_NAME", "TABLE_2"), "TABLE_NAME", "TABLE_2", 3);
+        assertEquals(0, cachingMetaData.queryForTable(sql, "TABLE_NAME", "NO_SUCH_TABLE").size());
+
+        verify(spyConnection, times(1)).createStatement();
+    }
+
+    @Test
+    public void singleObjectSnapshotsDoNotBulkFetch() throws Exception {
+        Connection spyConnection = spy(connection);
+        DatabaseMetaData metaData = spy(connection.getMetaData());
+        doReturn(metaData).when(spyConnection).getMetaData();
+        Database database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(spyConnection));
+
+        System.setProperty("liquibase.snapshot.bulkFetch", "true");
+        try {
+            assertTrue(new SnapshotControl().isBulkFetch());
+
+            Table table = (Table) new Table().setName("TABLE_1").setSchema(new Schema((String) null, "PUBLIC"));
+            assertTrue(SnapshotGeneratorFactory.getInstance().has(table, database));
+            assertNotNull(SnapshotGeneratorFactory.getInstance().createSnapshot(table, database));
+        } finally {
+            System.clearProperty("liquibase.snapshot.bulkFetch");
+        }
+
+        verify(metaData, atLeastOnce()).getColumns(any(String.class), any(String.class), eq("TABLE_1"), any(String.class));
+        verify(metaData, never()).getColumns(any(String.class), any(String.class), (String) isNull(), any(String.class));
+        verify(metaData, never()).getPrimaryKeys(any(String.class), any(String.class), (String) isNull());
+        verify(metaData, never()).getImportedKeys(any(String.class), any(String.class), (String) isNull());
+        verify(metaData, never()).getIndexInfo(any(String.class), any(String.class), (String) isNull(), anyBoolean(), anyBoolean());
+    }
+
+    private JdbcDatabaseSnapshot.CachingDatabaseMetaData createCachingMetaData(DatabaseMetaData metaData, boolean bulkFetch) throws Exception {
+        Database database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+        SnapshotControl snapshotControl = new SnapshotControl();
+        snapshotControl.setBulkFetch(bulkFetch);
+        JdbcDatabaseSnapshot snapshot = new JdbcDatabaseSnapshot(snapshotControl, database);
+        return snapshot.new CachingDatabaseMetaData(metaData);
+    }
+
+    private void assertRowsForTable(List<JdbcDatabaseSnapshot.CachedRow> rows, String tableColumnName, String table, int expectedSize) {
+        assertEquals(expectedSize, rows.size());
+        for (JdbcDatabaseSnapshot.CachedRow row : rows) {
+            assertEquals(table, row.getString(tableColumnName));
+        }
+    }
+
+    private SortedSet<String> describe(DatabaseSnapshot snapshot) {
+        SortedSet<String> returnSet = new TreeSet<String>();
+        for (Table table : snapshot.get(Table.class)) {
+            returnSet.add("table:" + table.getName());
+            for (Column column : table.getColumns()) {
+                returnSet.add("column:" + table.getName() + "." + column.getName() + ":" + column.getType() + ":" + column.isNullable());
+            }
+            if (table.getPrimaryKey() != null) {
+                returnSet.add("pk:" + table.getName() + "." + table.getPrimaryKey().getName());
+            }
+            for (ForeignKey fk : table.getOutgoingForeignKeys()) {
+                returnSet.add("fk:" + table.getName() + "." + fk.getName());
+            }
+            for (Index index : table.getIndexes()) {
+                returnSet.add("index:" + table.getName() + "." + index.getName());
+            }
+        }
+        return returnSet;
+    }
+}
@@ -0,0 +1,142 @@
+package liquibase.snapshot;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SnapshotGeneratorFactoryTest {
+
+    private Connection connection;
+    private Database database;
+
+    @Before
+    public void setup() throws Exception {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setDatabase("jdbc:hsqldb:mem:snapshotcachetest");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+
+        connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        statement.execute("CREATE TABLE PERSON (ID INT NOT NULL PRIMARY KEY, NAME VARCHAR(50))");
+        statement.close();
+
+        database = new HsqlDatabase();
+        database.setConnection(new JdbcConnection(connection));
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        SnapshotGeneratorFactory.getInstance().stopSnapshotCache(database);
+        Statement statement = connection.createStatement();
+        statement.execute("SHUTDOWN");
+        statement.close();
+        connection.close();
+    }
+
+    @Test
+    public void has_cached() throws Exception {
+        SnapshotGeneratorFactory factory = SnapshotGeneratorFactory.getInstance();
+        assertTrue(factory.startSnapshotCache(database));
+        assertFalse(factory.startSnapshotCache(database));
+
+        assertTrue(factory.has(new Table().setName("PERSON"), database));
+        assertFalse(factory.has(new Table().setName("ADDRESS"), database));
+        assertTrue(factory.has(new Column().setName("NAME").setRelation(new Table().setName("PERSON")), database));
+        assertFalse(factory.has(new Column().setName("AGE").setRelation(new Table().setName("PERSON")), database));
+
+        Statement statement = connection.createStatement();
+        statement.execute("CREATE TABLE ADDRESS (ID INT NOT NULL PRIMARY KEY)");
+        statement.execute("DROP TABLE PERSON");
+        statement.close();
+
+        assertFalse("Objects not in the cached snapshot do not exist", factory.has(new Table().setName("ADDRESS"), database));
+        assertTrue("Cached snapshot is used until cleared", factory.has(new Table().setName("PERSON"), database));
+
+        factory.clearSnapshotCache(database);
+        assertFalse(factory.has(new Table().setName("PERSON"), database));
+        assertTrue(factory.has(new Table().setName("ADDRESS"), database));
+
+        factory.stopSnapshotCache(database);
+        assertTrue(factory.has(new Table().setName("ADDRESS"), database));
+        assertFalse(factory.has(new Table().setName("PERSON"), database));
+    }
+
+    @Test
+    public void cacheSnapshots() throws Exception {
+        SnapshotGeneratorFactory factory = SnapshotGeneratorFactory.getInstance();
+        factory.cacheSnapshots(Arrays.asList(new Table().setName("PERSON")), database); //not started, does nothing
+
+        factory.startSnapshotCache(database);
+        factory.cacheSnapshots(Arrays.asList(new Table().setName("PERSON"), new Column().setName("NAME").setRelation(new Table().setName("PERSON"))), database);
+
+        Statement statement = connection.createStatement();
+        statement.execute("ALTER TABLE PERSON DROP COLUMN NAME");
+        statement.close();
+
+        assertTrue("Answered from the snapshot read up front", factory.has(new Column().setName("NAME").setRelation(new Table().setName("PERSON")), database));
+        assertFalse(factory.has(new Column().setName("AGE").setRelation(new Table().setName("PERSON")), database));
+        assertTrue(factory.has(new Table().setName("PERSON"), database));
+
+        factory.clearSnapshotCache(database);
+        assertFalse(factory.has(new Column().setName("NAME").setRelation(new Table().setName("PERSON")), database));
+    }
+
+    @Test
+    public void clearSnapshotCache_objectNames() throws Exception {
+        SnapshotGeneratorFactory factory = SnapshotGeneratorFactory.getInstance();
+        factory.startSnapshotCache(database);
+        factory.cacheSnapshots(Arrays.asList(new Table().setName("PERSON"), new Column().setName("NAME").setRelation(new Table().setName("PERSON"))), database);
+
+        Statement statement = connection.createStatement();
+        statement.execute("CREATE TABLE ADDRESS (ID INT NOT NULL PRIMARY KEY, PERSON_ID INT)");
+        statement.execute("ALTER TABLE PERSON DROP COLUMN NAME");
+        statement.close();
+
+        factory.clearSnapshotCache(new CatalogAndSchema(null, null), Arrays.asList("address"), database);
+        assertTrue("Changed objects are looked up", factory.has(new Table().setName("ADDRESS"), database));
+        assertTrue(factory.has(new Column().setName("PERSON_ID").setRelation(new Table().setName("ADDRESS")), database));
+        assertTrue("Other objects are still answered from the cached snapshot", factory.has(new Column().setName("NAME").setRelation(new Table().setName("PERSON")), database));
+
+        factory.clearSnapshotCache(new CatalogAndSchema(null, null), Arrays.asList("PERSON"), database);
+        assertFalse(factory.has(new Column().setName("NAME").setRelation(new Table().setName("PERSON")), database));
+        assertTrue(factory.has(new Table().setName("PERSON"), database));
+    }
+
+    @Test
+    public void clearSnapshotCache_schemas() throws Exception {
+        Statement statement = connection.createStatement();
+        statement.execute("CREATE SCHEMA OTHER AUTHORIZATION DBA");
+        statement.close();
+
+        SnapshotGeneratorFactory factory = SnapshotGeneratorFactory.getInstance();
+        factory.startSnapshotCache(database);
+        factory.cacheSnapshots(Arrays.asList(new Table().setName("PERSON"), new Table().setName("ADDRESS").setSchema(new Schema((String) null, "OTHER"))), database);
+
+        statement = connection.createStatement();
+        statement.execute("CREATE TABLE OTHER.ADDRESS (ID INT NOT NULL PRIMARY KEY)");
+        statement.execute("DROP TABLE PERSON");
+        statement.close();
+
+        factory.clearSnapshotCache(Arrays.asList(new CatalogAndSchema(null, "other")), database);
+        assertTrue(factory.has(new Table().setName("ADDRESS").setSchema(new Schema((String) null, "OTHER")), database));
+        assertTrue("Snapshots of other schemas are kept", factory.has(new Table().setName("PERSON"), database));
+
+        factory.clearSnapshotCache(Arrays.asList(new CatalogAndSchema(null, null)), database);
+        assertFalse(factory.has(new Table().setName("PERSON"), database));
+    }
+}
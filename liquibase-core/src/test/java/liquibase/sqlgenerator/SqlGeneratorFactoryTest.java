@@ -15,6 +15,7 @@ import org.junit.After;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.SortedSet;
 
@@ -34,7 +35,7 @@ public class SqlGeneratorFactoryTest {
 
     @Test
     public void register() {
-        SqlGeneratorFactory.getInstance().getGenerators().clear();
+        unregisterAll(SqlGeneratorFactory.getInstance());
 
         assertEquals(0, SqlGeneratorFactory.getInstance().getGenerators().size());
 
@@ -47,7 +48,7 @@ public class SqlGeneratorFactoryTest {
     public void unregister_instance() {
         SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
 
-        factory.getGenerators().clear();
+        unregisterAll(factory);
 
         assertEquals(0, factory.getGenerators().size());
 
@@ -68,7 +69,7 @@ public class SqlGeneratorFactoryTest {
     public void unregister_class() {
         SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
 
-        factory.getGenerators().clear();
+        unregisterAll(factory);
 
         assertEquals(0, factory.getGenerators().size());
 
@@ -89,7 +90,7 @@ public class SqlGeneratorFactoryTest {
     public void unregister_class_doesNotExist() {
         SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
 
-        factory.getGenerators().clear();
+        unregisterAll(factory);
 
         assertEquals(0, factory.getGenerators().size());
 
@@ -125,6 +126,33 @@ public class SqlGeneratorFactoryTest {
         assertEquals(1, allGenerators.size());        
     }
 
+    @Test
+    public void getGenerators_cacheInvalidatedOnChange() {
+        SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
+        AddAutoIncrementStatement statement = new AddAutoIncrementStatement(null, null, "person", "name", "varchar(255)", null, null);
+        assertEquals(1, factory.getGenerators(statement, new H2Database()).size());
+
+        SqlGenerator generator = addGenerator(AddAutoIncrementStatement.class, H2Database.class, 1);
+        assertEquals(2, factory.getGenerators(statement, new H2Database()).size());
+
+        factory.unregister(generator);
+        assertEquals(1, factory.getGenerators(statement, new H2Database()).size());
+
+        unregisterAll(factory);
+        assertEquals(0, factory.getGenerators(statement, new H2Database()).size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getGenerators_unmodifiable() {
+        SqlGeneratorFactory.getInstance().getGenerators().clear();
+    }
+
+    private void unregisterAll(SqlGeneratorFactory factory) {
+        for (SqlGenerator generator : new ArrayList<SqlGenerator>(factory.getGenerators())) {
+            factory.unregister(generator);
+        }
+    }
+
     private SqlGenerator addGenerator(final Class<? extends SqlStatement> sqlStatementClass, final Class<? extends Database> sqlDatabaseClass, final int level) {
     	
         SqlGenerator generator = new SqlGenerator() {
@@ -0,0 +1,16 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.sqlgenerator.AbstractSqlGeneratorTest;
+import liquibase.statement.core.RenewDatabaseChangeLogLockStatement;
+
+public class RenewDatabaseChangeLogLockGeneratorTest extends AbstractSqlGeneratorTest<RenewDatabaseChangeLogLockStatement> {
+
+    public RenewDatabaseChangeLogLockGeneratorTest() throws Exception {
+        super(new RenewDatabaseChangeLogLockGenerator());
+    }
+
+    @Override
+    protected RenewDatabaseChangeLogLockStatement createSampleSqlStatement() {
+        return new RenewDatabaseChangeLogLockStatement("localhost #1");
+    }
+}
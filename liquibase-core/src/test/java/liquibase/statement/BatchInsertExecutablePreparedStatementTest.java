@@ -0,0 +1,95 @@
+package liquibase.statement;
+
+import liquibase.change.ColumnConfig;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.core.MockDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class BatchInsertExecutablePreparedStatementTest {
+
+    @Test
+    public void execute() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("INSERT INTO TABLE_NAME(id, name) VALUES(?, ?)")).thenReturn(preparedStatement);
+
+        List<List<ColumnConfig>> rows = new ArrayList<List<ColumnConfig>>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(Arrays.asList(new ColumnConfig().setName("id").setValueNumeric(i), new ColumnConfig().setName("name").setValue("name" + i)));
+        }
+
+        new BatchInsertExecutablePreparedStatement(new MockDatabase(), null, null, "TABLE_NAME",
+                Arrays.asList(new ColumnConfig().setName("id"), new ColumnConfig().setName("name")), rows, 2, null)
+                .execute(new PreparedStatementFactory(new JdbcConnection(connection)));
+
+        verify(connection, times(1)).prepareStatement(anyString());
+        verify(preparedStatement, times(5)).addBatch();
+        verify(preparedStatement, times(3)).executeBatch();
+        verify(preparedStatement).setInt(1, 4);
+        verify(preparedStatement).setString(2, "name4");
+        verify(preparedStatement).clearBatch();
+        verify(preparedStatement, never()).close();
+    }
+
+    @Test
+    public void execute_bindsStringsWithColumnType() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("INSERT INTO TABLE_NAME(id, name) VALUES(?, ?)")).thenReturn(preparedStatement);
+
+        List<List<ColumnConfig>> rows = new ArrayList<List<ColumnConfig>>();
+        rows.add(Arrays.asList(new ColumnConfig().setName("id").setValue("1"), new ColumnConfig().setName("name").setValue("name1")));
+        rows.add(Arrays.asList(new ColumnConfig().setName("id").setValue("2"), new ColumnConfig().setName("name")));
+
+        ParameterMetaData parameterMetaData = mock(ParameterMetaData.class);
+        when(preparedStatement.getParameterMetaData()).thenReturn(parameterMetaData);
+        when(parameterMetaData.getParameterType(1)).thenReturn(Types.INTEGER);
+        when(parameterMetaData.getParameterType(2)).thenReturn(Types.VARCHAR);
+
+        new BatchInsertExecutablePreparedStatement(new MockDatabase(), null, null, "TABLE_NAME",
+                Arrays.asList(new ColumnConfig().setName("id"), new ColumnConfig().setName("name")), rows, 2, null)
+                .execute(new PreparedStatementFactory(new JdbcConnection(connection)));
+
+        verify(preparedStatement).setObject(1, "1", Types.INTEGER);
+        verify(preparedStatement).setString(2, "name1");
+        verify(preparedStatement).setNull(2, Types.VARCHAR);
+    }
+
+    @Test
+    public void execute_computedValueFailsBeforeAnyBatch() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("INSERT INTO TABLE_NAME(id, created) VALUES(?, ?)")).thenReturn(preparedStatement);
+
+        List<List<ColumnConfig>> rows = new ArrayList<List<ColumnConfig>>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(Arrays.asList(new ColumnConfig().setName("id").setValueNumeric(i), new ColumnConfig().setName("created").setValueDate("2013-01-01")));
+        }
+        rows.add(Arrays.asList(new ColumnConfig().setName("id").setValueNumeric(5), new ColumnConfig().setName("created").setValueComputed(new DatabaseFunction("NOW()"))));
+
+        try {
+            new BatchInsertExecutablePreparedStatement(new MockDatabase(), null, null, "TABLE_NAME",
+                    Arrays.asList(new ColumnConfig().setName("id"), new ColumnConfig().setName("created")), rows, 2, null)
+                    .execute(new PreparedStatementFactory(new JdbcConnection(connection)));
+            fail("computed value was bound");
+        } catch (DatabaseException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("NOW()"));
+        }
+
+        verify(preparedStatement, never()).addBatch();
+        verify(preparedStatement, never()).executeBatch();
+    }
+}
@@ -0,0 +1,70 @@
+package liquibase.util;
+
+import java.io.*;
+
+/**
+ * Measures the throughput of the checksum computations on a generated CSV file. Not run as part of the test suite.
+ * <p/>
+ * java liquibase.util.MD5UtilBenchmark [size in MB] [iterations]
+ */
+public class MD5UtilBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int sizeInMB = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        File file = File.createTempFile("liquibase-md5-benchmark", ".csv");
+        try {
+            long size = writeCsv(file, sizeInMB * 1024L * 1024L);
+
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                FileInputStream fileStream = new FileInputStream(file);
+                try {
+                    MD5Util.computeMD5(fileStream);
+                } finally {
+                    fileStream.close();
+                }
+                report("file channel", size, start);
+
+                start = System.nanoTime();
+                InputStream bufferedStream = new BufferedInputStream(new FileInputStream(file));
+                try {
+                    MD5Util.computeMD5(bufferedStream);
+                } finally {
+                    bufferedStream.close();
+                }
+                report("input stream", size, start);
+            }
+
+            String text = StreamUtil.getReaderContents(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                MD5Util.computeMD5(text);
+                report("string", size, start);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static long writeCsv(File file, long size) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        long written = 0;
+        try {
+            for (int row = 0; written < size; row++) {
+                String line = row + ",name " + row + ",café," + (row * 31) + "\n";
+                writer.write(line);
+                written += line.getBytes("UTF-8").length;
+            }
+        } finally {
+            writer.close();
+        }
+        return written;
+    }
+
+    private static void report(String name, long size, long start) {
+        double seconds = (System.nanoTime() - start) / 1000000000.0;
+        System.out.println(String.format("%-12s %8.1f MB/s", name, size / 1024.0 / 1024.0 / seconds));
+    }
+}
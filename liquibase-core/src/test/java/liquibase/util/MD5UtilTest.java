@@ -4,6 +4,10 @@ import static org.junit.Assert.*;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.security.MessageDigest;
 
 public class MD5UtilTest {
 
@@ -35,4 +39,68 @@ public class MD5UtilTest {
 		assertEquals(TEST_STRING_MD5_HASH, hexString);
 	}
 
+    @Test
+    public void computeMD5_fileStream() throws Exception {
+        byte[] data = largeString().getBytes("UTF-8");
+        File file = File.createTempFile("liquibase-md5", ".dat");
+        try {
+            FileOutputStream out = new FileOutputStream(file);
+            out.write(data);
+            out.close();
+
+            FileInputStream in = new FileInputStream(file);
+            try {
+                assertEquals(md5(data), MD5Util.computeMD5(in));
+            } finally {
+                in.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void computeMD5_largeMultiByteString() throws Exception {
+        String value = largeString();
+        assertEquals(md5(value.getBytes("UTF-8")), MD5Util.computeMD5(value));
+        assertEquals(md5(value.getBytes("UTF-8")), MD5Util.computeMD5(new ByteArrayInputStream(value.getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void md5Writer_sameAsString() throws Exception {
+        String value = largeString() + "\ud800 unpaired surrogate \udc00";
+
+        MD5Writer writer = new MD5Writer();
+        for (int i = 0; i < value.length(); i += 1023) {
+            writer.write(value, i, Math.min(1023, value.length() - i));
+        }
+        assertEquals(MD5Util.computeMD5(value), writer.getMD5());
+        assertEquals(md5(value.getBytes("UTF-8")), writer.getMD5());
+
+        MD5Writer charWriter = new MD5Writer();
+        for (char c : value.toCharArray()) {
+            charWriter.write(c);
+        }
+        assertEquals(writer.getMD5(), charWriter.getMD5());
+
+        assertEquals(MD5Util.computeMD5(""), new MD5Writer().getMD5());
+    }
+
+    private String largeString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            builder.append(i).append(",caf\u00e9 \u6f22\u5b57 \ud83d\ude00\n");
+        }
+        return builder.toString();
+    }
+
+    private String md5(byte[] data) throws Exception {
+        byte[] digest = MessageDigest.getInstance("MD5").digest(data);
+        StringBuilder builder = new StringBuilder();
+        for (byte b : digest) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
 }
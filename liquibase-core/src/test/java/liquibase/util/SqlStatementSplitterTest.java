@@ -0,0 +1,125 @@
+package liquibase.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SqlStatementSplitterTest {
+
+    @Test
+    public void split_semicolonInsideQuotes() {
+        assertEquals(Arrays.asList("insert into t values ('a;\nb')", "insert into t values (\"x;\n\")"),
+                SqlStatementSplitter.split("insert into t values ('a;\nb');\ninsert into t values (\"x;\n\");", false, true, null));
+    }
+
+    @Test
+    public void split_doubledQuotes() {
+        assertEquals(Arrays.asList("select 'it''s;\n'", "select 2"),
+                SqlStatementSplitter.split("select 'it''s;\n';\nselect 2", false, true, null));
+    }
+
+    @Test
+    public void split_backslashEscapedQuotes() {
+        assertEquals(Arrays.asList("INSERT INTO t VALUES ('O\\'Brien')", "INSERT INTO t VALUES (\"a\\\"b\")", "INSERT INTO t VALUES ('c:\\\\')"),
+                SqlStatementSplitter.split("INSERT INTO t VALUES ('O\\'Brien');\nINSERT INTO t VALUES (\"a\\\"b\");\nINSERT INTO t VALUES ('c:\\\\');", false, true, null, true));
+    }
+
+    @Test
+    public void split_backslashIsNotAnEscapeByDefault() {
+        assertEquals(Arrays.asList("INSERT INTO t VALUES ('C:\\')", "INSERT INTO t VALUES ('D:\\data')", "DELETE FROM x"),
+                SqlStatementSplitter.split("INSERT INTO t VALUES ('C:\\');\nINSERT INTO t VALUES ('D:\\data');\nDELETE FROM x;", false, true, null));
+    }
+
+    @Test
+    public void split_hashComments() {
+        assertEquals(Arrays.asList("# don't\nselect 1", "select 2"),
+                SqlStatementSplitter.split("# don't\nselect 1;\nselect 2;", false, true, null));
+        assertEquals(Arrays.asList("select 1", "select 2"),
+                SqlStatementSplitter.split("  # don't\nselect 1;\nselect 2;", true, true, null));
+        assertEquals(Arrays.asList("select * from #temp"),
+                SqlStatementSplitter.split("select * from #temp;", true, true, null));
+    }
+
+    @Test
+    public void split_semicolonMustEndLine() {
+        assertEquals(Arrays.asList("select 1; select 2", "select 3"),
+                SqlStatementSplitter.split("select 1; select 2;  \nselect 3;", false, true, null));
+    }
+
+    @Test
+    public void split_dollarQuoted() {
+        String function = "create function f() returns int as $body$\nbegin\n  return 1;\nend;\n$body$ language plpgsql";
+        assertEquals(Arrays.asList(function, "select $$;\n$$", "select a$b"),
+                SqlStatementSplitter.split(function + ";\nselect $$;\n$$;\nselect a$b;", false, true, null));
+    }
+
+    @Test
+    public void split_go() {
+        assertEquals(Arrays.asList("select 1;\nselect 2", "select 3"),
+                SqlStatementSplitter.split("select 1;\nselect 2\n  go  \nselect 3", false, true, "GO"));
+        assertEquals(Arrays.asList("select 'x\ngo\n'", "select 3"),
+                SqlStatementSplitter.split("select 'x\ngo\n'\nGO\nselect 3", false, true, null));
+    }
+
+    @Test
+    public void split_literalDelimiter() {
+        assertEquals(Arrays.asList("select '/'", "select 2"),
+                SqlStatementSplitter.split("select '/'\n/\nselect 2\n/\n", false, true, "/"));
+    }
+
+    @Test
+    public void split_regexDelimiter() {
+        assertEquals(Arrays.asList("begin null; end;", "select 2"),
+                SqlStatementSplitter.split("begin null; end;\n/\nselect 2", false, true, "\\n/\\s*\\n|\\n/\\s*$"));
+    }
+
+    @Test
+    public void split_commentsInsideQuotesAreKept() {
+        assertEquals(Arrays.asList("select '--not a comment', '/* nor this */' from t"),
+                SqlStatementSplitter.split("select '--not a comment', '/* nor this */' from t -- comment\n/* comment */", true, true, null));
+    }
+
+    @Test
+    public void split_delimitersInsideCommentsAreIgnored() {
+        assertEquals(Arrays.asList("select 1 /* a;\nb */ from t"),
+                SqlStatementSplitter.split("select 1 /* a;\nb */ from t", false, true, null));
+    }
+
+    @Test
+    public void split_normalizesLineEndings() {
+        assertEquals(Arrays.asList("select 1\nfrom t", "select 2"),
+                SqlStatementSplitter.split("select 1\r\nfrom t;\r\nselect 2\r", false, true, null));
+    }
+
+    @Test
+    public void nextStatement_readsInSmallPieces() throws IOException {
+        StringBuilder sql = new StringBuilder();
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 2000; i++) {
+            String statement = "insert into t values (" + i + ", 'value;\r\n" + i + "')";
+            sql.append(statement).append(";\r\n-- comment ").append(i).append("\r\n");
+            expected.add(statement.replace("\r\n", "\n"));
+        }
+
+        Reader reader = new StringReader(sql.toString()) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 3));
+            }
+        };
+        SqlStatementSplitter splitter = new SqlStatementSplitter(reader, true, true, null);
+        List<String> statements = new ArrayList<String>();
+        String statement;
+        while ((statement = splitter.nextStatement()) != null) {
+            statements.add(statement);
+        }
+        assertEquals(expected, statements);
+    }
+}
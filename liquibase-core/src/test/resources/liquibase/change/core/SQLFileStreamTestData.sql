@@ -0,0 +1,11 @@
+-- streamed test data
+create table stream_test (id int, name varchar(20));
+
+insert into stream_test values (1, 'a;
+b');
+insert into stream_test values (2, '${stream.name}');
+/* block; comment */
+insert into stream_test values (3, 'c');
+update stream_test set name = 'd' where id = 1;
+   
+